@@ -0,0 +1,218 @@
+package net.coderodde.graph.benchmark;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import net.coderodde.graph.DirectedGraph;
+import net.coderodde.graph.DirectedGraphWeightFunction;
+import net.coderodde.graph.pathfinding.DirectedGraphNodeCoordinates;
+
+/**
+ * This enumeration lists the graph families the benchmarks run on. Every
+ * generator places the nodes in the unit square and weighs each arc with
+ * 1.2 times the Euclidean distance between its terminal nodes, so the
+ * Euclidean heuristic is admissible on all of them.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public enum GraphGenerator {
+
+    /**
+     * Arcs between uniformly chosen node pairs, as in {@code Demo}.
+     */
+    RANDOM {
+        @Override
+        void addArcs(BenchmarkGraph graph, int degree, Random random) {
+            int nodes = graph.getNodeCount();
+
+            for (int arcs = nodes * degree; arcs > 0; --arcs) {
+                graph.addArc(random.nextInt(nodes), random.nextInt(nodes));
+            }
+        }
+    },
+
+    /**
+     * A square grid where each node is connected both ways to its four
+     * neighbours. The degree parameter is ignored.
+     */
+    GRID {
+        @Override
+        void placeNodes(BenchmarkGraph graph, Random random) {
+            int width = gridWidth(graph.getNodeCount());
+
+            for (int node = 0; node < graph.getNodeCount(); ++node) {
+                graph.setLocation(node,
+                                  (node % width) / (double) width,
+                                  (node / width) / (double) width);
+            }
+        }
+
+        @Override
+        void addArcs(BenchmarkGraph graph, int degree, Random random) {
+            int nodes = graph.getNodeCount();
+            int width = gridWidth(nodes);
+
+            for (int node = 0; node < nodes; ++node) {
+                if ((node + 1) % width != 0 && node + 1 < nodes) {
+                    graph.addArc(node, node + 1);
+                    graph.addArc(node + 1, node);
+                }
+
+                if (node + width < nodes) {
+                    graph.addArc(node, node + width);
+                    graph.addArc(node + width, node);
+                }
+            }
+        }
+    },
+
+    /**
+     * A random geometric graph: each node gets arcs to randomly chosen nodes
+     * in its own and in the adjacent cells of a grid partitioning the unit
+     * square, so only nearby nodes are connected.
+     */
+    GEOMETRIC {
+        @Override
+        void addArcs(BenchmarkGraph graph, int degree, Random random) {
+            int nodes = graph.getNodeCount();
+            int cellsPerSide = Math.max(1, (int) Math.sqrt(nodes / degree));
+            List<List<Integer>> cells = new ArrayList<>();
+
+            for (int i = 0; i < cellsPerSide * cellsPerSide; ++i) {
+                cells.add(new ArrayList<>());
+            }
+
+            for (int node = 0; node < nodes; ++node) {
+                cells.get(cellOf(graph.getLocation(node), cellsPerSide))
+                     .add(node);
+            }
+
+            List<Integer> candidates = new ArrayList<>();
+
+            for (int node = 0; node < nodes; ++node) {
+                int cell = cellOf(graph.getLocation(node), cellsPerSide);
+                int cellX = cell % cellsPerSide;
+                int cellY = cell / cellsPerSide;
+                candidates.clear();
+
+                for (int y = cellY - 1; y <= cellY + 1; ++y) {
+                    for (int x = cellX - 1; x <= cellX + 1; ++x) {
+                        if (x >= 0 && x < cellsPerSide &&
+                            y >= 0 && y < cellsPerSide) {
+                            candidates.addAll(cells.get(y * cellsPerSide + x));
+                        }
+                    }
+                }
+
+                for (int i = 0; i < degree; ++i) {
+                    graph.addArc(node,
+                                 candidates.get(
+                                         random.nextInt(candidates.size())));
+                }
+            }
+        }
+    };
+
+    /**
+     * Generates a graph of this family.
+     *
+     * @param nodes  the number of nodes.
+     * @param degree the average out-degree of a node.
+     * @param random the random number generator.
+     * @return the generated graph.
+     */
+    public BenchmarkGraph generate(int nodes, int degree, Random random) {
+        if (nodes < 1) {
+            throw new IllegalArgumentException(
+                    "The number of nodes is less than 1: " + nodes + ".");
+        }
+
+        if (degree < 1) {
+            throw new IllegalArgumentException(
+                    "The degree is less than 1: " + degree + ".");
+        }
+
+        BenchmarkGraph graph = new BenchmarkGraph(nodes);
+        placeNodes(graph, random);
+        addArcs(graph, degree, random);
+        return graph;
+    }
+
+    void placeNodes(BenchmarkGraph graph, Random random) {
+        for (int node = 0; node < graph.getNodeCount(); ++node) {
+            graph.setLocation(node, random.nextDouble(), random.nextDouble());
+        }
+    }
+
+    abstract void addArcs(BenchmarkGraph graph, int degree, Random random);
+
+    private static int gridWidth(int nodes) {
+        return Math.max(1, (int) Math.ceil(Math.sqrt(nodes)));
+    }
+
+    private static int cellOf(Point2D.Double point, int cellsPerSide) {
+        int x = Math.min(cellsPerSide - 1, (int) (point.x * cellsPerSide));
+        int y = Math.min(cellsPerSide - 1, (int) (point.y * cellsPerSide));
+        return y * cellsPerSide + x;
+    }
+
+    /**
+     * This class holds a generated graph together with its weight function
+     * and node coordinates.
+     */
+    public static final class BenchmarkGraph {
+
+        private final int nodeCount;
+        private final DirectedGraph graph = new DirectedGraph();
+        private final DirectedGraphWeightFunction weightFunction =
+                new DirectedGraphWeightFunction();
+        private final DirectedGraphNodeCoordinates coordinates =
+                new DirectedGraphNodeCoordinates();
+
+        BenchmarkGraph(int nodeCount) {
+            this.nodeCount = nodeCount;
+
+            for (int node = 0; node < nodeCount; ++node) {
+                graph.addNode(node);
+            }
+        }
+
+        public int getNodeCount() {
+            return nodeCount;
+        }
+
+        public DirectedGraph getGraph() {
+            return graph;
+        }
+
+        public DirectedGraphWeightFunction getWeightFunction() {
+            return weightFunction;
+        }
+
+        public DirectedGraphNodeCoordinates getCoordinates() {
+            return coordinates;
+        }
+
+        Point2D.Double getLocation(int node) {
+            return coordinates.get(node);
+        }
+
+        void setLocation(int node, double x, double y) {
+            coordinates.put(node, new Point2D.Double(x, y));
+        }
+
+        void addArc(int tailNode, int headNode) {
+            if (tailNode == headNode) {
+                return;
+            }
+
+            graph.addArc(tailNode, headNode);
+            weightFunction.put(tailNode,
+                               headNode,
+                               1.2 * getLocation(tailNode)
+                                        .distance(getLocation(headNode)));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package net.coderodde.graph.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.coderodde.graph.CompactDirectedGraph;
+import net.coderodde.graph.pathfinding.AbstractPathfinder;
+import net.coderodde.graph.pathfinding.DirectedGraphPath;
+import net.coderodde.graph.pathfinding.HeuristicFunction;
+import net.coderodde.graph.pathfinding.TargetUnreachableException;
+import net.coderodde.graph.pathfinding.support.AStarPathfinder;
+import net.coderodde.graph.pathfinding.support.DijkstraPathfinder;
+import net.coderodde.graph.pathfinding.support.EuclideanHeuristicFunction;
+import net.coderodde.graph.pathfinding.support.LandmarkHeuristicFunction;
+import net.coderodde.graph.pathfinding.support.NBAStarPathfinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks single point-to-point queries. Each invocation runs
+ * the next query from a fixed list of reachable source/target pairs, so all
+ * the pathfinders in a trial answer exactly the same queries. Run with
+ * {@code -prof gc} to see the allocation rate per query.
+ * <p>
+ * The heuristic parameter does not affect {@link DijkstraPathfinder}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathfinderBenchmark {
+
+    private static final int QUERIES = 256;
+    private static final int LANDMARKS = 16;
+    private static final long SEED = 13L;
+
+    public enum Algorithm { ASTAR, DIJKSTRA, NBASTAR }
+
+    public enum Heuristic { EUCLIDEAN, LANDMARK }
+
+    public enum Representation { HASH, COMPACT }
+
+    @Param({"10000", "100000"})
+    public int nodes;
+
+    /**
+     * The average out-degree of a node.
+     */
+    @Param({"3", "8"})
+    public int degree;
+
+    @Param({"RANDOM", "GRID", "GEOMETRIC"})
+    public GraphGenerator generator;
+
+    @Param({"ASTAR", "DIJKSTRA", "NBASTAR"})
+    public Algorithm algorithm;
+
+    @Param({"EUCLIDEAN", "LANDMARK"})
+    public Heuristic heuristic;
+
+    @Param({"HASH", "COMPACT"})
+    public Representation representation;
+
+    private AbstractPathfinder pathfinder;
+    private final int[] sourceNodes = new int[QUERIES];
+    private final int[] targetNodes = new int[QUERIES];
+    private int queryIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(SEED);
+        GraphGenerator.BenchmarkGraph benchmarkGraph =
+                generator.generate(nodes, degree, random);
+        CompactDirectedGraph compactGraph =
+                CompactDirectedGraph.freeze(benchmarkGraph.getGraph(),
+                                            benchmarkGraph.getWeightFunction());
+
+        HeuristicFunction heuristicFunction =
+                heuristic == Heuristic.LANDMARK ?
+                new LandmarkHeuristicFunction(compactGraph, LANDMARKS) :
+                new EuclideanHeuristicFunction(
+                        benchmarkGraph.getCoordinates());
+
+        pathfinder = createPathfinder(benchmarkGraph,
+                                      compactGraph,
+                                      heuristicFunction);
+        chooseQueries(new DijkstraPathfinder(compactGraph), random);
+    }
+
+    @Benchmark
+    public DirectedGraphPath search() {
+        int index = queryIndex;
+        queryIndex = (index + 1) % QUERIES;
+        return pathfinder.search(sourceNodes[index], targetNodes[index]);
+    }
+
+    private AbstractPathfinder createPathfinder(
+            GraphGenerator.BenchmarkGraph benchmarkGraph,
+            CompactDirectedGraph compactGraph,
+            HeuristicFunction heuristicFunction) {
+        boolean compact = representation == Representation.COMPACT;
+
+        switch (algorithm) {
+            case ASTAR:
+                return compact ?
+                        new AStarPathfinder(compactGraph, heuristicFunction) :
+                        new AStarPathfinder(benchmarkGraph.getGraph(),
+                                            benchmarkGraph.getWeightFunction(),
+                                            heuristicFunction);
+
+            case DIJKSTRA:
+                return compact ?
+                        new DijkstraPathfinder(compactGraph) :
+                        new DijkstraPathfinder(
+                                benchmarkGraph.getGraph(),
+                                benchmarkGraph.getWeightFunction());
+
+            case NBASTAR:
+                return compact ?
+                        new NBAStarPathfinder(compactGraph, heuristicFunction) :
+                        new NBAStarPathfinder(
+                                benchmarkGraph.getGraph(),
+                                benchmarkGraph.getWeightFunction(),
+                                heuristicFunction);
+
+            default:
+                throw new IllegalStateException(
+                        "Unknown algorithm: " + algorithm + ".");
+        }
+    }
+
+    /**
+     * Draws random node pairs until {@link #QUERIES} of them are connected.
+     */
+    private void chooseQueries(DijkstraPathfinder validator, Random random) {
+        int attempts = 0;
+
+        for (int i = 0; i < QUERIES; ) {
+            if (++attempts > 100 * QUERIES) {
+                throw new IllegalStateException(
+                        "The generated graph is too sparsely connected.");
+            }
+
+            int sourceNode = random.nextInt(nodes);
+            int targetNode = random.nextInt(nodes);
+
+            try {
+                validator.search(sourceNode, targetNode);
+            } catch (TargetUnreachableException ex) {
+                continue;
+            }
+
+            sourceNodes[i] = sourceNode;
+            targetNodes[i] = targetNode;
+            ++i;
+        }
+    }
+}
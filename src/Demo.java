@@ -1,17 +1,28 @@
 import java.awt.geom.Point2D;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import net.coderodde.graph.CompactDirectedGraph;
 import net.coderodde.graph.DirectedGraph;
 import net.coderodde.graph.DirectedGraphWeightFunction;
+import net.coderodde.graph.MappedCompactDirectedGraph;
 import net.coderodde.graph.pathfinding.AbstractPathfinder;
 import net.coderodde.graph.pathfinding.DirectedGraphNodeCoordinates;
 import net.coderodde.graph.pathfinding.DirectedGraphPath;
 import net.coderodde.graph.pathfinding.HeuristicFunction;
+import net.coderodde.graph.pathfinding.NodeSpatialIndex;
+import net.coderodde.graph.pathfinding.PathfindingService;
 import net.coderodde.graph.pathfinding.support.AStarPathfinder;
 import net.coderodde.graph.pathfinding.support.DijkstraPathfinder;
 import net.coderodde.graph.pathfinding.support.EuclideanHeuristicFunction;
+import net.coderodde.graph.pathfinding.support.LandmarkHeuristicFunction;
 import net.coderodde.graph.pathfinding.support.NBAStarPathfinder;
+import net.coderodde.graph.pathfinding.support.ParallelNBAStarPathfinder;
 
 public class Demo {
 
@@ -19,6 +30,8 @@ public class Demo {
     private static final int ARCS = 500_000;
     private static final double PLANE_WIDTH = 1000.0;
     private static final double PLANE_HEIGHT = 1000.0;
+    private static final int LANDMARKS = 16;
+    private static final int QUERIES = 1000;
     
     public static void main(String[] args) {
         long seed = System.nanoTime();
@@ -32,8 +45,9 @@ public class Demo {
         DirectedGraphWeightFunction weightFunction = 
                 getWeightFunction(graph, coordinates);
 
-        Integer sourceNodeId = getSource(graph, coordinates);
-        Integer targetNodeId = getTarget(graph, coordinates);
+        NodeSpatialIndex spatialIndex = new NodeSpatialIndex(coordinates);
+        Integer sourceNodeId = getSource(spatialIndex);
+        Integer targetNodeId = getTarget(spatialIndex);
         
         long end = System.currentTimeMillis();
 
@@ -61,19 +75,116 @@ public class Demo {
         DirectedGraphPath path2 = benchmark(finder2, sourceNodeId, targetNodeId);
         DirectedGraphPath path3 = benchmark(finder3, sourceNodeId, targetNodeId);
 
+        start = System.currentTimeMillis();
+        CompactDirectedGraph compactGraph = 
+                CompactDirectedGraph.freeze(graph, weightFunction);
+        end = System.currentTimeMillis();
+
+        System.out.println("Froze the graph in " + (end - start) + 
+                           " milliseconds.");
+        System.out.println();
+
+        AbstractPathfinder finder4 = new AStarPathfinder(compactGraph, hf);
+        AbstractPathfinder finder5 = new DijkstraPathfinder(compactGraph);
+        AbstractPathfinder finder6 = new NBAStarPathfinder(compactGraph, hf);
+
+        DirectedGraphPath path4 = benchmark(finder4, sourceNodeId, targetNodeId);
+        DirectedGraphPath path5 = benchmark(finder5, sourceNodeId, targetNodeId);
+        DirectedGraphPath path6 = benchmark(finder6, sourceNodeId, targetNodeId);
+
+        start = System.currentTimeMillis();
+        HeuristicFunction landmarkHf = 
+                new LandmarkHeuristicFunction(compactGraph, LANDMARKS);
+        end = System.currentTimeMillis();
+
+        System.out.println("Computed " + LANDMARKS + " landmarks in " +
+                           (end - start) + " milliseconds.");
+        System.out.println();
+
+        AbstractPathfinder finder7 = new AStarPathfinder(compactGraph,
+                                                         landmarkHf);
+        AbstractPathfinder finder8 = new NBAStarPathfinder(compactGraph,
+                                                           landmarkHf);
+
+        DirectedGraphPath path7 = benchmark(finder7, sourceNodeId, targetNodeId);
+        DirectedGraphPath path8 = benchmark(finder8, sourceNodeId, targetNodeId);
+
+        MappedCompactDirectedGraph mappedGraph;
+
+        try {
+            Path graphFile = Files.createTempFile("graph", ".csr");
+            graphFile.toFile().deleteOnExit();
+            MappedCompactDirectedGraph.write(graphFile,
+                                             compactGraph,
+                                             coordinates);
+            start = System.currentTimeMillis();
+            mappedGraph = MappedCompactDirectedGraph.open(graphFile);
+            end = System.currentTimeMillis();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        System.out.println("Mapped the graph file in " + (end - start) +
+                           " milliseconds.");
+        System.out.println();
+
+        AbstractPathfinder finder9 = new NBAStarPathfinder(mappedGraph,
+                                                           landmarkHf);
+        DirectedGraphPath path9 = benchmark(finder9, sourceNodeId, targetNodeId);
+
+        AbstractPathfinder finder10 =
+                new ParallelNBAStarPathfinder(compactGraph, landmarkHf);
+        DirectedGraphPath path10 = benchmark(finder10,
+                                             sourceNodeId,
+                                             targetNodeId);
+
         System.out.println("Algorithms agree: " +
-                (path1.equals(path2) && path1.equals(path3)));
+                (path1.equals(path2) && path1.equals(path3) &&
+                 path1.equals(path4) && path1.equals(path5) &&
+                 path1.equals(path6) && path1.equals(path7) &&
+                 path1.equals(path8) && path1.equals(path9) &&
+                 path1.equals(path10)));
+        System.out.println();
+
+        PathfindingService service = new PathfindingService(
+                () -> new NBAStarPathfinder(compactGraph, landmarkHf));
+
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(QUERIES);
+
+        start = System.currentTimeMillis();
+
+        for (int i = 0; i < QUERIES; ++i) {
+            futures.add(service.searchAsync(random.nextInt(NODES),
+                                            random.nextInt(NODES))
+                               .handle((path, ex) -> path != null));
+        }
+
+        int foundPaths = 0;
+
+        for (CompletableFuture<Boolean> future : futures) {
+            if (future.join()) {
+                ++foundPaths;
+            }
+        }
+
+        end = System.currentTimeMillis();
+
+        System.out.println("PathfindingService answered " + QUERIES +
+                           " queries (" + foundPaths + " paths found) in " +
+                           (end - start) + " milliseconds.");
     }
 
     private static DirectedGraphPath benchmark(AbstractPathfinder pathfinder,
                                                int sourceNode, 
                                                int targetNode) {
+        pathfinder.setStatisticsEnabled(true);
         long start = System.currentTimeMillis();
         DirectedGraphPath path = pathfinder.search(sourceNode, targetNode);
         long end = System.currentTimeMillis();
         
         System.out.println(pathfinder.getClass().getSimpleName() + 
                            " in " + (end - start) + " milliseconds.");
+        System.out.println(pathfinder.getSearchStatistics());
         System.out.println(path);
         System.out.println();
         return path;
@@ -141,35 +252,12 @@ public class Demo {
         return list.get(random.nextInt(list.size()));
     }
     
-    private static Integer
-         getClosestTo(DirectedGraph graph,
-                      DirectedGraphNodeCoordinates coordinates,
-                      Point2D.Double point) {
-        double bestDistance = Double.POSITIVE_INFINITY;
-        Integer bestNode = null;
-        
-        for (Integer node : graph.getNodeList()) {
-            Point2D.Double nodePoint = coordinates.get(node);
-            
-            if (bestDistance > nodePoint.distance(point)) {
-                bestDistance = nodePoint.distance(point);
-                bestNode = node;
-            }
-        }
-        
-        return bestNode;
-    }
-         
-    private static Integer getSource(DirectedGraph graph,
-                                     DirectedGraphNodeCoordinates coordinates) {
-        return getClosestTo(graph, coordinates, new Point2D.Double());
+    private static Integer getSource(NodeSpatialIndex spatialIndex) {
+        return spatialIndex.nearestNode(0.0, 0.0);
     }
     
-    private static Integer getTarget(DirectedGraph graph,
-                                     DirectedGraphNodeCoordinates coordinates) {
-        return getClosestTo(graph, 
-                            coordinates,
-                            new Point2D.Double(PLANE_WIDTH, PLANE_HEIGHT));
+    private static Integer getTarget(NodeSpatialIndex spatialIndex) {
+        return spatialIndex.nearestNode(PLANE_WIDTH, PLANE_HEIGHT);
     }
     
     private static double
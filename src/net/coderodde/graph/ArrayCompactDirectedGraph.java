@@ -0,0 +1,144 @@
+package net.coderodde.graph;
+
+/**
+ * This class implements a compact graph whose arcs are stored in primitive
+ * arrays on the heap.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+final class ArrayCompactDirectedGraph extends CompactDirectedGraph {
+
+    /**
+     * The number of nodes in this graph.
+     */
+    private final int nodeCount;
+
+    /**
+     * The outgoing arcs of the node {@code u} are stored in the range
+     * {@code outgoingArcOffsets[u], ..., outgoingArcOffsets[u + 1] - 1}.
+     */
+    private final int[] outgoingArcOffsets;
+
+    /**
+     * Stores the head node of each outgoing arc.
+     */
+    private final int[] outgoingArcHeads;
+
+    /**
+     * Stores the weight of each outgoing arc.
+     */
+    private final double[] outgoingArcWeights;
+
+    /**
+     * The incoming arcs of the node {@code u} are stored in the range
+     * {@code incomingArcOffsets[u], ..., incomingArcOffsets[u + 1] - 1}.
+     */
+    private final int[] incomingArcOffsets;
+
+    /**
+     * Stores the tail node of each incoming arc.
+     */
+    private final int[] incomingArcTails;
+
+    /**
+     * Stores the weight of each incoming arc.
+     */
+    private final double[] incomingArcWeights;
+
+    ArrayCompactDirectedGraph(int nodeCount,
+                              int[] outgoingArcOffsets,
+                              int[] outgoingArcHeads,
+                              double[] outgoingArcWeights,
+                              int[] incomingArcOffsets,
+                              int[] incomingArcTails,
+                              double[] incomingArcWeights) {
+        this.nodeCount          = nodeCount;
+        this.outgoingArcOffsets = outgoingArcOffsets;
+        this.outgoingArcHeads   = outgoingArcHeads;
+        this.outgoingArcWeights = outgoingArcWeights;
+        this.incomingArcOffsets = incomingArcOffsets;
+        this.incomingArcTails   = incomingArcTails;
+        this.incomingArcWeights = incomingArcWeights;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getArcCount() {
+        return outgoingArcHeads.length;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getOutgoingArcsBegin(int nodeId) {
+        return outgoingArcOffsets[nodeId];
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getOutgoingArcsEnd(int nodeId) {
+        return outgoingArcOffsets[nodeId + 1];
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getOutgoingArcHead(int arcIndex) {
+        return outgoingArcHeads[arcIndex];
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public double getOutgoingArcWeight(int arcIndex) {
+        return outgoingArcWeights[arcIndex];
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getIncomingArcsBegin(int nodeId) {
+        return incomingArcOffsets[nodeId];
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getIncomingArcsEnd(int nodeId) {
+        return incomingArcOffsets[nodeId + 1];
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getIncomingArcTail(int arcIndex) {
+        return incomingArcTails[arcIndex];
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public double getIncomingArcWeight(int arcIndex) {
+        return incomingArcWeights[arcIndex];
+    }
+}
@@ -0,0 +1,263 @@
+package net.coderodde.graph;
+
+import java.util.Arrays;
+
+/**
+ * This class implements an immutable, weighted directed graph stored in the
+ * compressed sparse row (CSR) format. The outgoing arcs of each node occupy a
+ * contiguous range of primitive arrays, and so do the incoming arcs, while the
+ * arc weights are stored in arrays parallel to the arc arrays. This way
+ * iterating over the neighbourhood of a node involves neither boxing nor
+ * pointer chasing.
+ * <p>
+ * The nodes are identified by the integers {@code 0, 1, ..., n - 1}, where
+ * {@code n} is the value returned by {@link #getNodeCount()}. The outgoing
+ * arcs of a node {@code u} are identified by the indices
+ * {@code getOutgoingArcsBegin(u), ..., getOutgoingArcsEnd(u) - 1}, and the
+ * same holds for the incoming arcs.
+ * <p>
+ * The graphs built by {@link Builder} keep their arcs in primitive arrays on
+ * the heap, while {@link MappedCompactDirectedGraph} serves them straight from
+ * a memory-mapped file.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public abstract class CompactDirectedGraph {
+
+    /**
+     * Only the implementations in this package may extend this class.
+     */
+    CompactDirectedGraph() {}
+
+    /**
+     * Freezes the input graph and weight function into a compact graph. Each
+     * node identifier of {@code graph} must be non-negative and each arc of
+     * {@code graph} must have a weight in {@code weightFunction}.
+     *
+     * @param graph          the graph to freeze.
+     * @param weightFunction the weight function of {@code graph}.
+     * @return a compact graph.
+     */
+    public static CompactDirectedGraph
+        freeze(DirectedGraph graph,
+               DirectedGraphWeightFunction weightFunction) {
+        Builder builder = new Builder();
+
+        for (Integer nodeId : graph.getNodeList()) {
+            builder.addNode(nodeId);
+
+            for (Integer childNodeId : graph.getChildrenOf(nodeId)) {
+                builder.addArc(nodeId,
+                               childNodeId,
+                               weightFunction.get(nodeId, childNodeId));
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Returns the number of nodes in this graph.
+     *
+     * @return the number of nodes.
+     */
+    public abstract int getNodeCount();
+
+    /**
+     * Returns the number of arcs in this graph.
+     *
+     * @return the number of arcs.
+     */
+    public abstract int getArcCount();
+
+    /**
+     * Returns the index of the first outgoing arc of the node {@code nodeId}.
+     *
+     * @param nodeId the tail node.
+     * @return the index of the first outgoing arc.
+     */
+    public abstract int getOutgoingArcsBegin(int nodeId);
+
+    /**
+     * Returns the index one past the last outgoing arc of the node
+     * {@code nodeId}.
+     *
+     * @param nodeId the tail node.
+     * @return the end index of the outgoing arcs.
+     */
+    public abstract int getOutgoingArcsEnd(int nodeId);
+
+    /**
+     * Returns the head node of the outgoing arc {@code arcIndex}.
+     *
+     * @param arcIndex the index of the outgoing arc.
+     * @return the head node of the arc.
+     */
+    public abstract int getOutgoingArcHead(int arcIndex);
+
+    /**
+     * Returns the weight of the outgoing arc {@code arcIndex}.
+     *
+     * @param arcIndex the index of the outgoing arc.
+     * @return the weight of the arc.
+     */
+    public abstract double getOutgoingArcWeight(int arcIndex);
+
+    /**
+     * Returns the index of the first incoming arc of the node {@code nodeId}.
+     *
+     * @param nodeId the head node.
+     * @return the index of the first incoming arc.
+     */
+    public abstract int getIncomingArcsBegin(int nodeId);
+
+    /**
+     * Returns the index one past the last incoming arc of the node
+     * {@code nodeId}.
+     *
+     * @param nodeId the head node.
+     * @return the end index of the incoming arcs.
+     */
+    public abstract int getIncomingArcsEnd(int nodeId);
+
+    /**
+     * Returns the tail node of the incoming arc {@code arcIndex}.
+     *
+     * @param arcIndex the index of the incoming arc.
+     * @return the tail node of the arc.
+     */
+    public abstract int getIncomingArcTail(int arcIndex);
+
+    /**
+     * Returns the weight of the incoming arc {@code arcIndex}.
+     *
+     * @param arcIndex the index of the incoming arc.
+     * @return the weight of the arc.
+     */
+    public abstract double getIncomingArcWeight(int arcIndex);
+
+    /**
+     * This class accumulates weighted arcs and builds a compact graph out of
+     * them. The number of nodes in the resulting graph is one plus the largest
+     * node identifier added.
+     */
+    public static final class Builder {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private int nodeCount;
+        private int arcCount;
+        private int[] tails      = new int[INITIAL_CAPACITY];
+        private int[] heads      = new int[INITIAL_CAPACITY];
+        private double[] weights = new double[INITIAL_CAPACITY];
+
+        /**
+         * Makes sure that the graph being built contains the node
+         * {@code nodeId}.
+         *
+         * @param nodeId the node to add.
+         * @return this builder.
+         */
+        public Builder addNode(int nodeId) {
+            checkNodeId(nodeId);
+            nodeCount = Math.max(nodeCount, nodeId + 1);
+            return this;
+        }
+
+        /**
+         * Adds the arc <tt>(tailNodeId, headNodeId)</tt> with the weight
+         * {@code weight}.
+         *
+         * @param tailNodeId the tail node of the arc.
+         * @param headNodeId the head node of the arc.
+         * @param weight     the weight of the arc.
+         * @return this builder.
+         */
+        public Builder addArc(int tailNodeId, int headNodeId, double weight) {
+            checkWeight(weight);
+            addNode(tailNodeId);
+            addNode(headNodeId);
+
+            if (arcCount == tails.length) {
+                int newCapacity = 2 * arcCount;
+                tails   = Arrays.copyOf(tails, newCapacity);
+                heads   = Arrays.copyOf(heads, newCapacity);
+                weights = Arrays.copyOf(weights, newCapacity);
+            }
+
+            tails  [arcCount] = tailNodeId;
+            heads  [arcCount] = headNodeId;
+            weights[arcCount] = weight;
+            ++arcCount;
+            return this;
+        }
+
+        /**
+         * Builds the compact graph out of the nodes and arcs added so far.
+         *
+         * @return a compact graph.
+         */
+        public CompactDirectedGraph build() {
+            int[] outgoingArcOffsets = computeOffsets(tails);
+            int[] incomingArcOffsets = computeOffsets(heads);
+            int[] outgoingArcHeads = new int[arcCount];
+            int[] incomingArcTails = new int[arcCount];
+            double[] outgoingArcWeights = new double[arcCount];
+            double[] incomingArcWeights = new double[arcCount];
+            int[] outgoingCursors = Arrays.copyOf(outgoingArcOffsets,
+                                                  nodeCount);
+            int[] incomingCursors = Arrays.copyOf(incomingArcOffsets,
+                                                  nodeCount);
+
+            for (int i = 0; i < arcCount; ++i) {
+                int outgoingIndex = outgoingCursors[tails[i]]++;
+                int incomingIndex = incomingCursors[heads[i]]++;
+                outgoingArcHeads  [outgoingIndex] = heads[i];
+                outgoingArcWeights[outgoingIndex] = weights[i];
+                incomingArcTails  [incomingIndex] = tails[i];
+                incomingArcWeights[incomingIndex] = weights[i];
+            }
+
+            return new ArrayCompactDirectedGraph(nodeCount,
+                                                 outgoingArcOffsets,
+                                                 outgoingArcHeads,
+                                                 outgoingArcWeights,
+                                                 incomingArcOffsets,
+                                                 incomingArcTails,
+                                                 incomingArcWeights);
+        }
+
+        private int[] computeOffsets(int[] nodes) {
+            int[] offsets = new int[nodeCount + 1];
+
+            for (int i = 0; i < arcCount; ++i) {
+                offsets[nodes[i] + 1]++;
+            }
+
+            for (int i = 0; i < nodeCount; ++i) {
+                offsets[i + 1] += offsets[i];
+            }
+
+            return offsets;
+        }
+
+        private static void checkNodeId(int nodeId) {
+            if (nodeId < 0) {
+                throw new IllegalArgumentException(
+                        "The input node ID is negative: " + nodeId + ".");
+            }
+        }
+
+        private static void checkWeight(double weight) {
+            if (Double.isNaN(weight)) {
+                throw new IllegalArgumentException("The input weight is NaN.");
+            }
+
+            if (weight < 0.0) {
+                throw new IllegalArgumentException(
+                        "The input weight is negative: " + weight + ".");
+            }
+        }
+    }
+}
@@ -3,8 +3,11 @@ package net.coderodde.graph;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * This class implements a directed graph data structure via adjacency lists. 
@@ -18,12 +21,46 @@ public class DirectedGraph {
     /**
      * This map maps each directed graph node to the list of its child nodes.
      */
-    private final Map<Integer, Set<Integer>> childMap  = new HashMap<>();
+    private final Map<Integer, Set<Integer>> childMap;
 
     /**
      * This map maps each directed graph node to the list of its parent nodes.
      */
-    private final Map<Integer, Set<Integer>> parentMap = new HashMap<>();
+    private final Map<Integer, Set<Integer>> parentMap;
+
+    /**
+     * The listeners notified of the changes to this graph. Each notification
+     * iterates over a snapshot, so a listener may unregister itself while
+     * being notified.
+     */
+    private final List<GraphChangeListener> listeners =
+            new CopyOnWriteArrayList<>();
+
+    /**
+     * The number of arcs in this graph.
+     */
+    private int arcCount;
+
+    /**
+     * Incremented on each change of this graph.
+     */
+    private long version;
+
+    public DirectedGraph() {
+        this.childMap  = new HashMap<>();
+        this.parentMap = new HashMap<>();
+    }
+
+    /**
+     * Constructs an empty graph with room for {@code expectedNodeCount} nodes
+     * without rehashing.
+     * 
+     * @param expectedNodeCount the expected number of nodes.
+     */
+    public DirectedGraph(int expectedNodeCount) {
+        this.childMap  = new HashMap<>(capacityFor(expectedNodeCount));
+        this.parentMap = new HashMap<>(capacityFor(expectedNodeCount));
+    }
 
     /**
      * Adds a new node represented by integer {@code nodeId} to this graph if
@@ -32,8 +69,32 @@ public class DirectedGraph {
      * @param nodeId the node to add.
      */
     public void addNode(int nodeId) {
-        childMap .putIfAbsent(nodeId, new HashSet<>());
-        parentMap.putIfAbsent(nodeId, new HashSet<>());
+        if (!childMap.containsKey(nodeId)) {
+            childMap .put(nodeId, new HashSet<>());
+            parentMap.put(nodeId, new HashSet<>());
+            ++version;
+        }
+    }
+
+    /**
+     * Adds a new node represented by integer {@code nodeId} to this graph if
+     * it is not yet present in it, reserving room for the given numbers of 
+     * child and parent nodes.
+     * 
+     * @param nodeId              the node to add.
+     * @param expectedChildCount  the expected number of child nodes.
+     * @param expectedParentCount the expected number of parent nodes.
+     */
+    public void addNode(int nodeId, 
+                        int expectedChildCount,
+                        int expectedParentCount) {
+        if (!childMap.containsKey(nodeId)) {
+            childMap .put(nodeId, 
+                          new HashSet<>(capacityFor(expectedChildCount)));
+            parentMap.put(nodeId,
+                          new HashSet<>(capacityFor(expectedParentCount)));
+            ++version;
+        }
     }
 
     /**
@@ -42,10 +103,140 @@ public class DirectedGraph {
      * 
      * @param tailNodeId the tail node of the arc.
      * @param headNodeId the head node of the arc.
+     * @return {@code true} if the arc was not present in the graph.
      */
-    public void addArc(int tailNodeId, int headNodeId) {
-        childMap .get(tailNodeId).add(headNodeId);
+    public boolean addArc(int tailNodeId, int headNodeId) {
+        if (!childMap.get(tailNodeId).add(headNodeId)) {
+            return false;
+        }
+
         parentMap.get(headNodeId).add(tailNodeId);
+        ++arcCount;
+        ++version;
+
+        for (GraphChangeListener listener : listeners) {
+            listener.arcAdded(tailNodeId, headNodeId);
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes the directed arc <tt>(tailNodeId, headNodeId)</tt> if it is 
+     * present in the graph. Runs in constant time.
+     * 
+     * @param tailNodeId the tail node of the arc.
+     * @param headNodeId the head node of the arc.
+     * @return {@code true} if the arc was present in the graph.
+     */
+    public boolean removeArc(int tailNodeId, int headNodeId) {
+        Set<Integer> children = childMap.get(tailNodeId);
+
+        if (children == null || !children.remove(headNodeId)) {
+            return false;
+        }
+
+        parentMap.get(headNodeId).remove(tailNodeId);
+        --arcCount;
+        ++version;
+
+        for (GraphChangeListener listener : listeners) {
+            listener.arcRemoved(tailNodeId, headNodeId);
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes the node {@code nodeId} and all the arcs incident to it if the
+     * node is present in the graph. Runs in time linear in the degree of the
+     * node. The listeners are notified of each removed arc before the node 
+     * itself.
+     * 
+     * @param nodeId the node to remove.
+     * @return {@code true} if the node was present in the graph.
+     */
+    public boolean removeNode(int nodeId) {
+        if (!childMap.containsKey(nodeId)) {
+            return false;
+        }
+
+        for (Integer childNodeId : 
+                childMap.get(nodeId).toArray(new Integer[0])) {
+            removeArc(nodeId, childNodeId);
+        }
+
+        for (Integer parentNodeId : 
+                parentMap.get(nodeId).toArray(new Integer[0])) {
+            removeArc(parentNodeId, nodeId);
+        }
+
+        childMap .remove(nodeId);
+        parentMap.remove(nodeId);
+        ++version;
+
+        for (GraphChangeListener listener : listeners) {
+            listener.nodeRemoved(nodeId);
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes all the nodes and arcs from this graph, notifying the listeners
+     * as {@link #removeNode(int)} does.
+     */
+    public void clear() {
+        for (Integer nodeId : childMap.keySet().toArray(new Integer[0])) {
+            removeNode(nodeId);
+        }
+    }
+
+    public boolean hasNode(int nodeId) {
+        return childMap.containsKey(nodeId);
+    }
+
+    public boolean hasArc(int tailNodeId, int headNodeId) {
+        Set<Integer> children = childMap.get(tailNodeId);
+        return children != null && children.contains(headNodeId);
+    }
+
+    public int getNodeCount() {
+        return childMap.size();
+    }
+
+    public int getArcCount() {
+        return arcCount;
+    }
+
+    /**
+     * Returns the version of this graph. The version changes whenever a node
+     * or an arc is added or removed, so comparing two versions tells whether
+     * anything derived from the graph in between is stale.
+     * 
+     * @return the current version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Registers a listener to be notified of the changes to this graph.
+     * 
+     * @param listener the listener to add.
+     */
+    public void addGraphChangeListener(GraphChangeListener listener) {
+        listeners.add(Objects.requireNonNull(listener, 
+                                             "The input listener is null."));
+    }
+
+    /**
+     * Unregisters a listener.
+     * 
+     * @param listener the listener to remove.
+     */
+    public void removeGraphChangeListener(GraphChangeListener listener) {
+        listeners.remove(listener);
     }
 
     /**
@@ -76,4 +267,12 @@ public class DirectedGraph {
     public Set<Integer> getParentsOf(int nodeId) {
         return Collections.<Integer>unmodifiableSet(parentMap.get(nodeId));
     }
+
+    /**
+     * Returns the hash table capacity that holds {@code size} entries without
+     * rehashing under the default load factor.
+     */
+    private static int capacityFor(int size) {
+        return Math.max(16, (int) (size / 0.75f) + 1);
+    }
 }
@@ -1,45 +1,339 @@
 package net.coderodde.graph;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * This class maps directed arcs to their weights. An arc weight is not allowed
  * to be a <tt>NaN</tt> value, nor negative.
- * 
+ * <p>
+ * The arcs leaving each tail node are stored in two parallel primitive arrays
+ * sorted by the head node, so looking up a weight is a binary search with
+ * neither hashing nor unboxing, and an arc costs 12 bytes. The arrays of the
+ * tail nodes are found in an array indexed by the tail node as long as the
+ * tail nodes are dense enough, that is, the array stays at most about twice
+ * as long as the number of the tail nodes. Any other tail node, including a
+ * negative one, is found through a hash map instead.
+ * <p>
+ * A weight function {@linkplain #attachTo(DirectedGraph) attached} to a graph
+ * drops the weight of each arc removed from the graph. The listeners are
+ * notified of each change through a snapshot of the listener list, so a
+ * listener may unregister itself while being notified.
+ *
  * @author Rodion "rodde" Efremov
- * @vesion 1.6 (Oct 6, 2016)
+ * @vesion 1.7 (Oct 17, 2026)
  */
 public class DirectedGraphWeightFunction {
 
+    private static final int[] NO_HEADS = new int[0];
+    private static final double[] NO_WEIGHTS = new double[0];
+    private static final int MINIMUM_ARC_CAPACITY = 2;
+
+    /**
+     * The number of the tail nodes beyond twice the number of the present
+     * ones the dense array may grow to cover.
+     */
+    private static final int DENSE_TAIL_SLACK = 64;
+
     /**
-     * Maps the arcs to the arc weights.
+     * Maps each tail node below its length to its arcs.
      */
-    private final Map<Integer, Map<Integer, Double>> map = new HashMap<>();
+    private TailArcs[] denseTails;
 
     /**
-     * Associates the weight {@code weight} with the arc 
+     * Maps the tail nodes not covered by {@link #denseTails} to their arcs.
+     */
+    private final Map<Integer, TailArcs> sparseTails = new HashMap<>();
+
+    /**
+     * The number of the tail nodes that ever had an arc.
+     */
+    private int tailCount;
+
+    /**
+     * The listeners notified of the changes to this weight function.
+     */
+    private final List<GraphChangeListener> listeners =
+            new CopyOnWriteArrayList<>();
+
+    /**
+     * Maps each graph this weight function is attached to to its attachment.
+     */
+    private final Map<DirectedGraph, Attachment> attachments =
+            new IdentityHashMap<>();
+
+    /**
+     * Incremented on each change of this weight function.
+     */
+    private long version;
+
+    public DirectedGraphWeightFunction() {
+        this(0);
+    }
+
+    /**
+     * Constructs an empty weight function with room for the arcs of the tail
+     * nodes {@code 0, 1, ..., expectedTailNodeCount - 1} without growing the
+     * tail array.
+     *
+     * @param expectedTailNodeCount the expected number of tail nodes.
+     */
+    public DirectedGraphWeightFunction(int expectedTailNodeCount) {
+        this.denseTails = new TailArcs[Math.max(0, expectedTailNodeCount)];
+    }
+
+    /**
+     * Associates the weight {@code weight} with the arc
      * <tt>(tailNodeId, headNodeId)</tt>.
-     * 
+     *
      * @param tailNodeId the starting node of the arc.
      * @param headNodeId the ending node of the arc.
      * @param weight the arc weight.
      */
     public void put(int tailNodeId, int headNodeId, double weight) {
         checkWeight(weight);
-        map.putIfAbsent(tailNodeId, new HashMap<>());
-        map.get(tailNodeId).put(headNodeId, weight);
+        TailArcs arcs = getOrCreateTailArcs(tailNodeId);
+        int arcCount = arcs.size;
+        int index = Arrays.binarySearch(arcs.heads, 0, arcCount, headNodeId);
+
+        if (index >= 0) {
+            arcs.weights[index] = weight;
+            ++version;
+            fireArcWeightChanged(tailNodeId, headNodeId, weight);
+            return;
+        }
+
+        index = -index - 1;
+
+        if (arcCount == arcs.heads.length) {
+            int newCapacity = Math.max(MINIMUM_ARC_CAPACITY, 2 * arcCount);
+            arcs.heads = Arrays.copyOf(arcs.heads, newCapacity);
+            arcs.weights = Arrays.copyOf(arcs.weights, newCapacity);
+        }
+
+        System.arraycopy(arcs.heads, index, arcs.heads, index + 1,
+                         arcCount - index);
+        System.arraycopy(arcs.weights, index, arcs.weights, index + 1,
+                         arcCount - index);
+        arcs.heads  [index] = headNodeId;
+        arcs.weights[index] = weight;
+        arcs.size = arcCount + 1;
+        ++version;
+        fireArcWeightChanged(tailNodeId, headNodeId, weight);
+    }
+
+    /**
+     * Reserves room for {@code expectedArcCount} arcs leaving the node
+     * {@code tailNodeId}. Has no effect if the room is already there.
+     *
+     * @param tailNodeId       the tail node.
+     * @param expectedArcCount the expected number of arcs leaving the node.
+     */
+    public void reserve(int tailNodeId, int expectedArcCount) {
+        TailArcs arcs = getOrCreateTailArcs(tailNodeId);
+
+        if (arcs.heads.length < expectedArcCount) {
+            arcs.heads = Arrays.copyOf(arcs.heads, expectedArcCount);
+            arcs.weights = Arrays.copyOf(arcs.weights, expectedArcCount);
+        }
     }
 
     /**
      * Returns the weight of the given arc.
-     * 
+     *
      * @param tailNodeId the starting node (tail node) of the arc.
      * @param headNodeId the ending node (head node) of the arc.
-     * @return 
+     * @return the weight of the arc.
+     * @throws NoSuchElementException if the arc has no weight.
      */
     public double get(int tailNodeId, int headNodeId) {
-        return map.get(tailNodeId).get(headNodeId);
+        TailArcs arcs = getTailArcs(tailNodeId);
+
+        if (arcs != null) {
+            int index = Arrays.binarySearch(arcs.heads,
+                                            0,
+                                            arcs.size,
+                                            headNodeId);
+
+            if (index >= 0) {
+                return arcs.weights[index];
+            }
+        }
+
+        throw new NoSuchElementException(
+                "The arc (" + tailNodeId + ", " + headNodeId + ") has no " +
+                "weight.");
+    }
+
+    /**
+     * Removes the weight of the arc <tt>(tailNodeId, headNodeId)</tt>. Runs in
+     * time linear in the number of arcs leaving the tail node.
+     *
+     * @param tailNodeId the starting node of the arc.
+     * @param headNodeId the ending node of the arc.
+     * @return {@code true} if the arc had a weight.
+     */
+    public boolean remove(int tailNodeId, int headNodeId) {
+        return remove(tailNodeId, headNodeId, true);
+    }
+
+    /**
+     * Makes this weight function drop the weight of each arc removed from the
+     * graph {@code graph}, including the arcs removed together with their
+     * nodes, until the returned attachment is closed. Attaching to a graph
+     * this weight function is already attached to returns the existing
+     * attachment.
+     * <p>
+     * The listeners of this weight function are not notified of the weights
+     * dropped this way, since the graph has already notified its own
+     * listeners of the removed arcs.
+     *
+     * @param graph the graph whose arcs this weight function weighs.
+     * @return the attachment to the graph.
+     */
+    public Attachment attachTo(DirectedGraph graph) {
+        Objects.requireNonNull(graph, "The input graph is null.");
+        Attachment attachment = attachments.get(graph);
+
+        if (attachment == null) {
+            attachment = new Attachment(graph);
+            attachments.put(graph, attachment);
+            graph.addGraphChangeListener(attachment.listener);
+        }
+
+        return attachment;
+    }
+
+    private boolean remove(int tailNodeId,
+                           int headNodeId,
+                           boolean notifyListeners) {
+        TailArcs arcs = getTailArcs(tailNodeId);
+
+        if (arcs == null) {
+            return false;
+        }
+
+        int arcCount = arcs.size;
+        int index = Arrays.binarySearch(arcs.heads, 0, arcCount, headNodeId);
+
+        if (index < 0) {
+            return false;
+        }
+
+        System.arraycopy(arcs.heads, index + 1,
+                         arcs.heads, index,
+                         arcCount - index - 1);
+        System.arraycopy(arcs.weights, index + 1,
+                         arcs.weights, index,
+                         arcCount - index - 1);
+        arcs.size = arcCount - 1;
+        ++version;
+
+        if (notifyListeners) {
+            for (GraphChangeListener listener : listeners) {
+                listener.arcRemoved(tailNodeId, headNodeId);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the version of this weight function. The version changes
+     * whenever a weight is set or removed.
+     *
+     * @return the current version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Registers a listener to be notified of the changes to this weight
+     * function.
+     *
+     * @param listener the listener to add.
+     */
+    public void addGraphChangeListener(GraphChangeListener listener) {
+        listeners.add(Objects.requireNonNull(listener,
+                                             "The input listener is null."));
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener the listener to remove.
+     */
+    public void removeGraphChangeListener(GraphChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fireArcWeightChanged(int tailNodeId,
+                                      int headNodeId,
+                                      double weight) {
+        for (GraphChangeListener listener : listeners) {
+            listener.arcWeightChanged(tailNodeId, headNodeId, weight);
+        }
+    }
+
+    private TailArcs getTailArcs(int tailNodeId) {
+        if (tailNodeId >= 0 && tailNodeId < denseTails.length) {
+            return denseTails[tailNodeId];
+        }
+
+        return sparseTails.isEmpty() ? null : sparseTails.get(tailNodeId);
+    }
+
+    private TailArcs getOrCreateTailArcs(int tailNodeId) {
+        TailArcs arcs = getTailArcs(tailNodeId);
+
+        if (arcs != null) {
+            return arcs;
+        }
+
+        arcs = new TailArcs();
+        ++tailCount;
+
+        if (tailNodeId >= denseTails.length &&
+                tailNodeId < 2 * tailCount + DENSE_TAIL_SLACK) {
+            growDenseTails(tailNodeId);
+        }
+
+        if (tailNodeId >= 0 && tailNodeId < denseTails.length) {
+            denseTails[tailNodeId] = arcs;
+        } else {
+            sparseTails.put(tailNodeId, arcs);
+        }
+
+        return arcs;
+    }
+
+    /**
+     * Grows the dense tail array to cover {@code tailNodeId}, and moves into
+     * it the sparse tail nodes it now covers.
+     */
+    private void growDenseTails(int tailNodeId) {
+        int newCapacity = Math.max(tailNodeId + 1, 2 * denseTails.length);
+        denseTails = Arrays.copyOf(denseTails, newCapacity);
+        Iterator<Map.Entry<Integer, TailArcs>> iterator =
+                sparseTails.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, TailArcs> entry = iterator.next();
+            int sparseTailNodeId = entry.getKey();
+
+            if (sparseTailNodeId >= 0 && sparseTailNodeId < newCapacity) {
+                denseTails[sparseTailNodeId] = entry.getValue();
+                iterator.remove();
+            }
+        }
     }
 
     private void checkWeight(double weight) {
@@ -52,4 +346,47 @@ public class DirectedGraphWeightFunction {
                     "The input weight is negative: " + weight + ".");
         }
     }
+
+    /**
+     * This class keeps a weight function attached to a graph. Closing it
+     * detaches the weight function from the graph; closing it again has no
+     * effect.
+     */
+    public final class Attachment implements AutoCloseable {
+
+        private final DirectedGraph graph;
+        private final GraphChangeListener listener =
+                new GraphChangeListener() {
+                    @Override
+                    public void arcRemoved(int tailNodeId, int headNodeId) {
+                        remove(tailNodeId, headNodeId, false);
+                    }
+                };
+
+        private Attachment(DirectedGraph graph) {
+            this.graph = graph;
+        }
+
+        public DirectedGraph getGraph() {
+            return graph;
+        }
+
+        @Override
+        public void close() {
+            if (attachments.get(graph) == this) {
+                attachments.remove(graph);
+                graph.removeGraphChangeListener(listener);
+            }
+        }
+    }
+
+    /**
+     * Holds the arcs leaving a tail node, sorted by the head node. Only the
+     * first {@code size} entries are used.
+     */
+    private static final class TailArcs {
+        int[] heads = NO_HEADS;
+        double[] weights = NO_WEIGHTS;
+        int size;
+    }
 }
@@ -0,0 +1,51 @@
+package net.coderodde.graph;
+
+/**
+ * This interface defines the callbacks fired by {@link DirectedGraph} and
+ * {@link DirectedGraphWeightFunction} after they are modified. All the methods
+ * do nothing by default, so a listener overrides only the changes it cares
+ * about. The callbacks run synchronously in the modifying thread.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public interface GraphChangeListener {
+
+    /**
+     * Called after the arc <tt>(tailNodeId, headNodeId)</tt> is added to a
+     * graph.
+     *
+     * @param tailNodeId the tail node of the arc.
+     * @param headNodeId the head node of the arc.
+     */
+    public default void arcAdded(int tailNodeId, int headNodeId) {}
+
+    /**
+     * Called after the arc <tt>(tailNodeId, headNodeId)</tt> is removed from
+     * a graph, or its weight is removed from a weight function.
+     *
+     * @param tailNodeId the tail node of the arc.
+     * @param headNodeId the head node of the arc.
+     */
+    public default void arcRemoved(int tailNodeId, int headNodeId) {}
+
+    /**
+     * Called after the node {@code nodeId} is removed from a graph. The
+     * removal of each arc incident to the node has been notified before.
+     *
+     * @param nodeId the removed node.
+     */
+    public default void nodeRemoved(int nodeId) {}
+
+    /**
+     * Called after the weight of the arc <tt>(tailNodeId, headNodeId)</tt> is
+     * set in a weight function.
+     *
+     * @param tailNodeId the tail node of the arc.
+     * @param headNodeId the head node of the arc.
+     * @param weight     the new weight of the arc.
+     */
+    public default void arcWeightChanged(int tailNodeId,
+                                         int headNodeId,
+                                         double weight) {}
+}
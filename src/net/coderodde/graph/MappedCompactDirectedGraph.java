@@ -0,0 +1,426 @@
+package net.coderodde.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import net.coderodde.graph.pathfinding.DirectedGraphNodeCoordinates;
+
+/**
+ * This class implements a compact graph served straight from a memory-mapped
+ * file. Opening a graph file maps it into memory without reading it, so the
+ * graph is available almost immediately, lives outside the Java heap and is
+ * paged in by the operating system as the searches touch it.
+ * <p>
+ * A graph file is written by {@link #write(Path, CompactDirectedGraph,
+ * DirectedGraphNodeCoordinates)}. All the values are stored in the
+ * little-endian byte order, and the file consists of the following sections:
+ * <ol>
+ *   <li>the header: the magic number, the format version, the flags, the
+ *       number of nodes {@code n}, the number of arcs {@code m} and four bytes
+ *       of padding,</li>
+ *   <li>the {@code m} outgoing arc weights as {@code double}s,</li>
+ *   <li>the {@code m} incoming arc weights as {@code double}s,</li>
+ *   <li>if the coordinate flag is set, the {@code n} x-coordinates and the
+ *       {@code n} y-coordinates of the nodes as {@code double}s,</li>
+ *   <li>the {@code n + 1} outgoing arc offsets as {@code int}s,</li>
+ *   <li>the {@code m} outgoing arc heads as {@code int}s,</li>
+ *   <li>the {@code n + 1} incoming arc offsets as {@code int}s,</li>
+ *   <li>the {@code m} incoming arc tails as {@code int}s.</li>
+ * </ol>
+ * The {@code double} sections come first so that all of them are aligned.
+ * Since each section is mapped into a buffer of its own, no section may
+ * exceed 2 GB, which limits the number of arcs to about 268 million.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class MappedCompactDirectedGraph extends CompactDirectedGraph {
+
+    /**
+     * The magic number identifying graph files ("CSR1").
+     */
+    private static final int MAGIC = 0x43535231;
+    private static final int VERSION = 1;
+    private static final int COORDINATES_FLAG = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private final int nodeCount;
+    private final int arcCount;
+    private final IntBuffer outgoingArcOffsets;
+    private final IntBuffer outgoingArcHeads;
+    private final DoubleBuffer outgoingArcWeights;
+    private final IntBuffer incomingArcOffsets;
+    private final IntBuffer incomingArcTails;
+    private final DoubleBuffer incomingArcWeights;
+
+    /**
+     * The node coordinates, or {@code null} if the file has none.
+     */
+    private final DoubleBuffer xCoordinates;
+    private final DoubleBuffer yCoordinates;
+
+    private MappedCompactDirectedGraph(FileChannel channel, Path file)
+            throws IOException {
+        ByteBuffer header = map(channel, 0L, HEADER_SIZE, file);
+
+        if (header.getInt() != MAGIC) {
+            throw new IOException("'" + file + "' is not a graph file.");
+        }
+
+        int version = header.getInt();
+
+        if (version != VERSION) {
+            throw new IOException(
+                    "Unsupported graph file version: " + version + ".");
+        }
+
+        boolean hasCoordinates = (header.getInt() & COORDINATES_FLAG) != 0;
+        this.nodeCount = header.getInt();
+        this.arcCount = header.getInt();
+
+        if (nodeCount < 0 || arcCount < 0) {
+            throw new IOException("'" + file + "' has a corrupt header.");
+        }
+
+        long position = HEADER_SIZE;
+        this.outgoingArcWeights = map(channel, position, 8L * arcCount, file)
+                                  .asDoubleBuffer();
+        position += 8L * arcCount;
+        this.incomingArcWeights = map(channel, position, 8L * arcCount, file)
+                                  .asDoubleBuffer();
+        position += 8L * arcCount;
+
+        if (hasCoordinates) {
+            this.xCoordinates = map(channel, position, 8L * nodeCount, file)
+                                .asDoubleBuffer();
+            position += 8L * nodeCount;
+            this.yCoordinates = map(channel, position, 8L * nodeCount, file)
+                                .asDoubleBuffer();
+            position += 8L * nodeCount;
+        } else {
+            this.xCoordinates = null;
+            this.yCoordinates = null;
+        }
+
+        this.outgoingArcOffsets = map(channel,
+                                      position,
+                                      4L * (nodeCount + 1),
+                                      file).asIntBuffer();
+        position += 4L * (nodeCount + 1);
+        this.outgoingArcHeads = map(channel, position, 4L * arcCount, file)
+                                .asIntBuffer();
+        position += 4L * arcCount;
+        this.incomingArcOffsets = map(channel,
+                                      position,
+                                      4L * (nodeCount + 1),
+                                      file).asIntBuffer();
+        position += 4L * (nodeCount + 1);
+        this.incomingArcTails = map(channel, position, 4L * arcCount, file)
+                                .asIntBuffer();
+
+        if (outgoingArcOffsets.get(nodeCount) != arcCount ||
+            incomingArcOffsets.get(nodeCount) != arcCount) {
+            throw new IOException("'" + file + "' has corrupt offsets.");
+        }
+    }
+
+    /**
+     * Maps the graph file {@code file} into memory.
+     *
+     * @param file the graph file.
+     * @return the mapped graph.
+     * @throws IOException if the file cannot be mapped or is malformed.
+     */
+    public static MappedCompactDirectedGraph open(Path file)
+            throws IOException {
+        Objects.requireNonNull(file, "The input file is null.");
+
+        // The mappings stay valid after the channel is closed.
+        try (FileChannel channel = FileChannel.open(file,
+                                                    StandardOpenOption.READ)) {
+            return new MappedCompactDirectedGraph(channel, file);
+        }
+    }
+
+    /**
+     * Writes the graph {@code graph} without coordinates to the file
+     * {@code file}.
+     *
+     * @param file  the file to write.
+     * @param graph the graph to write.
+     * @throws IOException if writing fails.
+     */
+    public static void write(Path file, CompactDirectedGraph graph)
+            throws IOException {
+        write(file, graph, null);
+    }
+
+    /**
+     * Writes the graph {@code graph} and, unless {@code coordinates} is
+     * {@code null}, the coordinates of all its nodes to the file
+     * {@code file}.
+     *
+     * @param file        the file to write.
+     * @param graph       the graph to write.
+     * @param coordinates the node coordinates, or {@code null}.
+     * @throws IOException if writing fails.
+     */
+    public static void write(Path file,
+                             CompactDirectedGraph graph,
+                             DirectedGraphNodeCoordinates coordinates)
+            throws IOException {
+        Objects.requireNonNull(file, "The input file is null.");
+        Objects.requireNonNull(graph, "The input graph is null.");
+        int nodeCount = graph.getNodeCount();
+        int arcCount = graph.getArcCount();
+
+        if (8L * arcCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "The graph has too many arcs: " + arcCount + ".");
+        }
+
+        try (FileChannel channel =
+                FileChannel.open(file,
+                                 StandardOpenOption.CREATE,
+                                 StandardOpenOption.TRUNCATE_EXISTING,
+                                 StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE)
+                                          .order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(coordinates != null ? COORDINATES_FLAG : 0);
+            buffer.putInt(nodeCount);
+            buffer.putInt(arcCount);
+            buffer.putInt(0);
+
+            for (int arc = 0; arc < arcCount; ++arc) {
+                flushIfFull(channel, buffer, 8).putDouble(
+                        graph.getOutgoingArcWeight(arc));
+            }
+
+            for (int arc = 0; arc < arcCount; ++arc) {
+                flushIfFull(channel, buffer, 8).putDouble(
+                        graph.getIncomingArcWeight(arc));
+            }
+
+            if (coordinates != null) {
+                for (int node = 0; node < nodeCount; ++node) {
+                    flushIfFull(channel, buffer, 8).putDouble(
+                            getX(coordinates, node));
+                }
+
+                for (int node = 0; node < nodeCount; ++node) {
+                    flushIfFull(channel, buffer, 8).putDouble(
+                            coordinates.getY(node));
+                }
+            }
+
+            for (int node = 0; node < nodeCount; ++node) {
+                flushIfFull(channel, buffer, 4).putInt(
+                        graph.getOutgoingArcsBegin(node));
+            }
+
+            flushIfFull(channel, buffer, 4).putInt(arcCount);
+
+            for (int arc = 0; arc < arcCount; ++arc) {
+                flushIfFull(channel, buffer, 4).putInt(
+                        graph.getOutgoingArcHead(arc));
+            }
+
+            for (int node = 0; node < nodeCount; ++node) {
+                flushIfFull(channel, buffer, 4).putInt(
+                        graph.getIncomingArcsBegin(node));
+            }
+
+            flushIfFull(channel, buffer, 4).putInt(arcCount);
+
+            for (int arc = 0; arc < arcCount; ++arc) {
+                flushIfFull(channel, buffer, 4).putInt(
+                        graph.getIncomingArcTail(arc));
+            }
+
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the graph file contains node coordinates.
+     *
+     * @return {@code true} if the node coordinates are available.
+     */
+    public boolean hasCoordinates() {
+        return xCoordinates != null;
+    }
+
+    /**
+     * Returns the x-coordinate of the node {@code nodeId}.
+     *
+     * @param nodeId the node.
+     * @return the x-coordinate.
+     */
+    public double getNodeX(int nodeId) {
+        checkCoordinates();
+        return xCoordinates.get(nodeId);
+    }
+
+    /**
+     * Returns the y-coordinate of the node {@code nodeId}.
+     *
+     * @param nodeId the node.
+     * @return the y-coordinate.
+     */
+    public double getNodeY(int nodeId) {
+        checkCoordinates();
+        return yCoordinates.get(nodeId);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getArcCount() {
+        return arcCount;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getOutgoingArcsBegin(int nodeId) {
+        return outgoingArcOffsets.get(nodeId);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getOutgoingArcsEnd(int nodeId) {
+        return outgoingArcOffsets.get(nodeId + 1);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getOutgoingArcHead(int arcIndex) {
+        return outgoingArcHeads.get(arcIndex);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public double getOutgoingArcWeight(int arcIndex) {
+        return outgoingArcWeights.get(arcIndex);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getIncomingArcsBegin(int nodeId) {
+        return incomingArcOffsets.get(nodeId);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getIncomingArcsEnd(int nodeId) {
+        return incomingArcOffsets.get(nodeId + 1);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getIncomingArcTail(int arcIndex) {
+        return incomingArcTails.get(arcIndex);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public double getIncomingArcWeight(int arcIndex) {
+        return incomingArcWeights.get(arcIndex);
+    }
+
+    private void checkCoordinates() {
+        if (xCoordinates == null) {
+            throw new IllegalStateException(
+                    "The graph file has no coordinates.");
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel,
+                                  long position,
+                                  long size,
+                                  Path file) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException(
+                    "A section of '" + file + "' is too large to map.");
+        }
+
+        if (position + size > channel.size()) {
+            throw new IOException("'" + file + "' is truncated.");
+        }
+
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                                              position,
+                                              size);
+        return buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static double getX(DirectedGraphNodeCoordinates coordinates,
+                               int nodeId) {
+        if (!coordinates.contains(nodeId)) {
+            throw new IllegalArgumentException(
+                    "The node " + nodeId + " has no coordinates.");
+        }
+
+        return coordinates.getX(nodeId);
+    }
+
+    /**
+     * Writes out the buffer if it has less than {@code bytes} bytes left.
+     *
+     * @return the buffer.
+     */
+    private static ByteBuffer flushIfFull(FileChannel channel,
+                                          ByteBuffer buffer,
+                                          int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(channel, buffer);
+        }
+
+        return buffer;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer)
+            throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+}
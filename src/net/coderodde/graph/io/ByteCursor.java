@@ -0,0 +1,264 @@
+package net.coderodde.graph.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class reads whitespace-separated tokens directly from the bytes of a
+ * buffer. Numbers are parsed without creating intermediate strings, so
+ * parsing a line allocates nothing.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+final class ByteCursor {
+
+    /**
+     * The powers of ten that are exactly representable as {@code double}s.
+     */
+    private static final double[] EXACT_POWERS_OF_TEN = {
+        1e0,  1e1,  1e2,  1e3,  1e4,  1e5,  1e6,  1e7,  1e8,  1e9,  1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * The largest integer all smaller integers of which are exactly
+     * representable as {@code double}s.
+     */
+    private static final long MAXIMUM_EXACT_MANTISSA = 1L << 53;
+
+    private final ByteBuffer buffer;
+    private final long fileOffset;
+    private final int limit;
+    private int position;
+
+    /**
+     * Constructs a cursor over the whole buffer {@code buffer}, whose first
+     * byte is at {@code fileOffset} in the file being read.
+     */
+    ByteCursor(ByteBuffer buffer, long fileOffset) {
+        this.buffer = buffer;
+        this.fileOffset = fileOffset;
+        this.limit = buffer.limit();
+    }
+
+    boolean hasMore() {
+        return position < limit;
+    }
+
+    /**
+     * Skips the spaces and tabs, and returns the next byte without consuming
+     * it, or {@code '\n'} if the line or the input ends.
+     */
+    byte peek() {
+        skipSpaces();
+
+        if (position == limit) {
+            return '\n';
+        }
+
+        byte b = buffer.get(position);
+        return b == '\r' ? (byte) '\n' : b;
+    }
+
+    /**
+     * Skips the rest of the current line, including the line terminator.
+     */
+    void skipLine() {
+        while (position < limit && buffer.get(position++) != '\n') {}
+    }
+
+    /**
+     * Skips the next token.
+     */
+    void skipToken() {
+        skipSpaces();
+
+        while (position < limit && !isDelimiter(buffer.get(position))) {
+            ++position;
+        }
+    }
+
+    /**
+     * Parses the next token as an {@code int}.
+     */
+    int parseInt() throws IOException {
+        long value = parseLong();
+
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw error("Integer out of range");
+        }
+
+        return (int) value;
+    }
+
+    /**
+     * Parses the next token as a {@code long}.
+     */
+    long parseLong() throws IOException {
+        skipSpaces();
+        boolean negative = consumeSign();
+        int start = position;
+        long value = 0L;
+
+        while (position < limit && isDigit(buffer.get(position))) {
+            if (value > (Long.MAX_VALUE - 9) / 10) {
+                throw error("Integer out of range");
+            }
+
+            value = 10 * value + (buffer.get(position++) - '0');
+        }
+
+        if (position == start || !atDelimiter()) {
+            throw error("Malformed integer");
+        }
+
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses the next token as a {@code double}. The common case of at most
+     * 15 significant digits and a small exponent is computed exactly from
+     * the digits; the rare remaining tokens are handed over to
+     * {@link Double#parseDouble(String)}.
+     */
+    double parseDouble() throws IOException {
+        skipSpaces();
+        int tokenStart = position;
+        boolean negative = consumeSign();
+        long mantissa = 0L;
+        int digits = 0;
+        int exponent = 0;
+        boolean slowPath = false;
+
+        while (position < limit && isDigit(buffer.get(position))) {
+            if (mantissa < MAXIMUM_EXACT_MANTISSA / 10) {
+                mantissa = 10 * mantissa + (buffer.get(position) - '0');
+            } else {
+                slowPath = true;
+            }
+
+            ++digits;
+            ++position;
+        }
+
+        if (position < limit && buffer.get(position) == '.') {
+            ++position;
+
+            while (position < limit && isDigit(buffer.get(position))) {
+                if (mantissa < MAXIMUM_EXACT_MANTISSA / 10) {
+                    mantissa = 10 * mantissa + (buffer.get(position) - '0');
+                    --exponent;
+                } else {
+                    slowPath = true;
+                }
+
+                ++digits;
+                ++position;
+            }
+        }
+
+        if (digits == 0) {
+            throw error("Malformed number");
+        }
+
+        if (position < limit && (buffer.get(position) == 'e' ||
+                                 buffer.get(position) == 'E')) {
+            ++position;
+            boolean negativeExponent = consumeSign();
+            int exponentStart = position;
+            int explicitExponent = 0;
+
+            while (position < limit && isDigit(buffer.get(position))) {
+                explicitExponent = Math.min(10 * explicitExponent +
+                                            (buffer.get(position++) - '0'),
+                                            100_000);
+            }
+
+            if (position == exponentStart) {
+                throw error("Malformed number");
+            }
+
+            exponent += negativeExponent ? -explicitExponent
+                                         : explicitExponent;
+        }
+
+        if (!atDelimiter()) {
+            throw error("Malformed number");
+        }
+
+        if (slowPath || Math.abs(exponent) >= EXACT_POWERS_OF_TEN.length) {
+            return parseDoubleSlowly(tokenStart);
+        }
+
+        double value = exponent < 0 ?
+                       mantissa / EXACT_POWERS_OF_TEN[-exponent] :
+                       mantissa * EXACT_POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Returns an exception describing a syntax error at the current position.
+     */
+    IOException error(String message) {
+        return new IOException(message + " at byte " +
+                               (fileOffset + position) + ".");
+    }
+
+    private double parseDoubleSlowly(int tokenStart) throws IOException {
+        byte[] bytes = new byte[position - tokenStart];
+
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = buffer.get(tokenStart + i);
+        }
+
+        try {
+            return Double.parseDouble(
+                    new String(bytes, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException ex) {
+            throw error("Malformed number");
+        }
+    }
+
+    private boolean consumeSign() {
+        if (position < limit) {
+            byte b = buffer.get(position);
+
+            if (b == '-') {
+                ++position;
+                return true;
+            }
+
+            if (b == '+') {
+                ++position;
+            }
+        }
+
+        return false;
+    }
+
+    private void skipSpaces() {
+        while (position < limit) {
+            byte b = buffer.get(position);
+
+            if (b != ' ' && b != '\t') {
+                return;
+            }
+
+            ++position;
+        }
+    }
+
+    private boolean atDelimiter() {
+        return position == limit || isDelimiter(buffer.get(position));
+    }
+
+    private static boolean isDelimiter(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
@@ -0,0 +1,574 @@
+package net.coderodde.graph.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import net.coderodde.graph.DirectedGraph;
+import net.coderodde.graph.DirectedGraphWeightFunction;
+import net.coderodde.graph.pathfinding.DirectedGraphNodeCoordinates;
+
+/**
+ * This class loads graphs from text files. Two formats are supported:
+ * <ul>
+ *   <li>the DIMACS shortest path format of the 9th DIMACS Implementation
+ *       Challenge: a {@code .gr} file with the problem line
+ *       {@code p sp <nodes> <arcs>} and the arc lines
+ *       {@code a <tail> <head> <weight>}, and optionally a {@code .co} file
+ *       with the coordinate lines {@code v <node> <x> <y>}. DIMACS numbers
+ *       the nodes from 1, and the loader shifts them to start from 0;</li>
+ *   <li>edge lists: one arc {@code <tail> <head> [<weight>]} per line, where
+ *       the weight defaults to 1. The lines starting with {@code #} or
+ *       {@code %} are comments. The node identifiers are kept as they are,
+ *       and may be any {@code int} values, negative or sparse.</li>
+ * </ul>
+ * The file is memory-mapped and cut into chunks at line boundaries, and the
+ * chunks are parsed in parallel straight from the mapped bytes into primitive
+ * arrays. Afterwards, the degrees of all nodes are counted so that every
+ * adjacency set and weight map is allocated at its final size, and the graph
+ * is filled in a single pass. The degrees are counted in arrays indexed by the
+ * node identifiers if those are non-negative and not much larger than the
+ * number of the arcs, and by the positions of the identifiers in their sorted
+ * array otherwise, so the memory used is proportional to the size of the file
+ * either way. If an arc appears several times, the smallest weight is kept.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class GraphLoader {
+
+    /**
+     * The size of the chunks a large file is cut into.
+     */
+    private static final long CHUNK_SIZE = 64L << 20;
+
+    private static final int SCAN_BUFFER_SIZE = 4096;
+
+    /**
+     * The number of the nodes beyond twice the number of the arcs the degree
+     * arrays may be indexed by directly.
+     */
+    private static final int DENSE_NODE_SLACK = 64;
+
+    private GraphLoader() {}
+
+    /**
+     * Loads a DIMACS {@code .gr} file without coordinates.
+     *
+     * @param graphFile the graph file.
+     * @return the loaded graph.
+     * @throws IOException if reading fails or the file is malformed.
+     */
+    public static LoadedGraph loadDimacs(Path graphFile) throws IOException {
+        return loadDimacs(graphFile, null);
+    }
+
+    /**
+     * Loads a DIMACS {@code .gr} file and, unless {@code coordinateFile} is
+     * {@code null}, the matching {@code .co} file.
+     *
+     * @param graphFile      the graph file.
+     * @param coordinateFile the coordinate file, or {@code null}.
+     * @return the loaded graph.
+     * @throws IOException if reading fails or a file is malformed.
+     */
+    public static LoadedGraph loadDimacs(Path graphFile, Path coordinateFile)
+            throws IOException {
+        Objects.requireNonNull(graphFile, "The input graph file is null.");
+        List<ArcRecords> arcChunks =
+                parseInChunks(graphFile, GraphLoader::parseDimacsArcs);
+        int nodeCount = getDeclaredNodeCount(arcChunks, graphFile);
+
+        for (ArcRecords chunk : arcChunks) {
+            chunk.checkNodes(nodeCount, graphFile);
+        }
+
+        DirectedGraphNodeCoordinates coordinates = null;
+
+        if (coordinateFile != null) {
+            coordinates = new DirectedGraphNodeCoordinates(nodeCount);
+
+            for (CoordinateRecords chunk :
+                    parseInChunks(coordinateFile,
+                                  GraphLoader::parseDimacsCoordinates)) {
+                chunk.addTo(coordinates, nodeCount, coordinateFile);
+            }
+        }
+
+        int[] nodeIds = new int[nodeCount];
+        Arrays.setAll(nodeIds, (i) -> i);
+        return buildGraph(arcChunks, nodeIds, coordinates);
+    }
+
+    /**
+     * Loads an edge list file.
+     *
+     * @param file the edge list file.
+     * @return the loaded graph.
+     * @throws IOException if reading fails or the file is malformed.
+     */
+    public static LoadedGraph loadEdgeList(Path file) throws IOException {
+        Objects.requireNonNull(file, "The input file is null.");
+        List<ArcRecords> arcChunks =
+                parseInChunks(file, GraphLoader::parseEdgeList);
+        return buildGraph(arcChunks, collectNodeIds(arcChunks, file), null);
+    }
+
+    /**
+     * Returns the sorted array of the distinct nodes of the parsed arcs.
+     */
+    private static int[] collectNodeIds(List<ArcRecords> arcChunks, Path file)
+            throws IOException {
+        long arcCount = 0L;
+        int minimumNode = Integer.MAX_VALUE;
+        int maximumNode = Integer.MIN_VALUE;
+
+        for (ArcRecords chunk : arcChunks) {
+            if (chunk.size > 0) {
+                arcCount += chunk.size;
+                minimumNode = Math.min(minimumNode, chunk.minimumNode);
+                maximumNode = Math.max(maximumNode, chunk.maximumNode);
+            }
+        }
+
+        if (arcCount == 0L) {
+            return new int[0];
+        }
+
+        if (isDense(minimumNode, maximumNode, arcCount)) {
+            boolean[] present = new boolean[maximumNode + 1];
+            int nodeCount = 0;
+
+            for (ArcRecords chunk : arcChunks) {
+                for (int i = 0; i < chunk.size; ++i) {
+                    present[chunk.tails[i]] = true;
+                    present[chunk.heads[i]] = true;
+                }
+            }
+
+            for (boolean p : present) {
+                if (p) {
+                    ++nodeCount;
+                }
+            }
+
+            int[] nodeIds = new int[nodeCount];
+            nodeCount = 0;
+
+            for (int node = 0; node < present.length; ++node) {
+                if (present[node]) {
+                    nodeIds[nodeCount++] = node;
+                }
+            }
+
+            return nodeIds;
+        }
+
+        if (arcCount > Integer.MAX_VALUE / 2) {
+            throw new IOException(
+                    "'" + file + "' has too many arcs: " + arcCount + ".");
+        }
+
+        int[] nodeIds = new int[2 * (int) arcCount];
+        int size = 0;
+
+        for (ArcRecords chunk : arcChunks) {
+            System.arraycopy(chunk.tails, 0, nodeIds, size, chunk.size);
+            size += chunk.size;
+            System.arraycopy(chunk.heads, 0, nodeIds, size, chunk.size);
+            size += chunk.size;
+        }
+
+        Arrays.parallelSort(nodeIds);
+        int nodeCount = 1;
+
+        for (int i = 1; i < nodeIds.length; ++i) {
+            if (nodeIds[i] != nodeIds[nodeCount - 1]) {
+                nodeIds[nodeCount++] = nodeIds[i];
+            }
+        }
+
+        return Arrays.copyOf(nodeIds, nodeCount);
+    }
+
+    /**
+     * Returns {@code true} if the nodes within
+     * {@code [minimumNode, maximumNode]} may index an array sized by the
+     * largest node, given that there are at most {@code 2 * arcCount} of them.
+     */
+    private static boolean isDense(int minimumNode,
+                                   int maximumNode,
+                                   long arcCount) {
+        return minimumNode >= 0 &&
+               maximumNode < Integer.MAX_VALUE &&
+               maximumNode < 2L * arcCount + DENSE_NODE_SLACK;
+    }
+
+    /**
+     * Builds the graph out of the parsed arcs. The nodes in {@code nodeIds},
+     * which is sorted and contains every node of the arcs, are added even if
+     * they have no arcs.
+     */
+    private static LoadedGraph
+        buildGraph(List<ArcRecords> arcChunks,
+                   int[] nodeIds,
+                   DirectedGraphNodeCoordinates coordinates) {
+        long arcCount = 0L;
+
+        for (ArcRecords chunk : arcChunks) {
+            arcCount += chunk.size;
+        }
+
+        boolean dense =
+                nodeIds.length == 0 ||
+                isDense(nodeIds[0],
+                        nodeIds[nodeIds.length - 1],
+                        Math.max(arcCount, nodeIds.length));
+        int degreeArrayLength =
+                dense && nodeIds.length > 0 ? nodeIds[nodeIds.length - 1] + 1
+                                            : nodeIds.length;
+        int[] outDegrees = new int[degreeArrayLength];
+        int[] inDegrees = new int[degreeArrayLength];
+
+        for (ArcRecords chunk : arcChunks) {
+            for (int i = 0; i < chunk.size; ++i) {
+                outDegrees[getDegreeIndex(chunk.tails[i], nodeIds, dense)]++;
+                inDegrees [getDegreeIndex(chunk.heads[i], nodeIds, dense)]++;
+            }
+        }
+
+        DirectedGraph graph = new DirectedGraph(nodeIds.length);
+        DirectedGraphWeightFunction weightFunction =
+                new DirectedGraphWeightFunction(nodeIds.length);
+
+        for (int i = 0; i < nodeIds.length; ++i) {
+            int node = nodeIds[i];
+            int index = dense ? node : i;
+            graph.addNode(node, outDegrees[index], inDegrees[index]);
+
+            if (outDegrees[index] > 0) {
+                weightFunction.reserve(node, outDegrees[index]);
+            }
+        }
+
+        for (ArcRecords chunk : arcChunks) {
+            for (int i = 0; i < chunk.size; ++i) {
+                int tail = chunk.tails[i];
+                int head = chunk.heads[i];
+                double weight = chunk.weights[i];
+
+                if (graph.addArc(tail, head) ||
+                        weightFunction.get(tail, head) > weight) {
+                    weightFunction.put(tail, head, weight);
+                }
+            }
+        }
+
+        return new LoadedGraph(graph, weightFunction, coordinates);
+    }
+
+    private static int getDegreeIndex(int node, int[] nodeIds, boolean dense) {
+        return dense ? node : Arrays.binarySearch(nodeIds, node);
+    }
+
+    private static ArcRecords parseDimacsArcs(ByteCursor cursor)
+            throws IOException {
+        ArcRecords records = new ArcRecords();
+
+        while (cursor.hasMore()) {
+            switch (cursor.peek()) {
+                case 'a':
+                    cursor.skipToken();
+                    int tail = cursor.parseInt() - 1;
+                    int head = cursor.parseInt() - 1;
+                    records.add(tail, head, cursor.parseDouble(), cursor);
+                    break;
+
+                case 'p':
+                    cursor.skipToken();
+                    cursor.skipToken();
+                    records.declaredNodeCount = cursor.parseInt();
+                    break;
+
+                case 'c':
+                case '\n':
+                    break;
+
+                default:
+                    throw cursor.error("Unexpected line");
+            }
+
+            cursor.skipLine();
+        }
+
+        return records;
+    }
+
+    private static CoordinateRecords parseDimacsCoordinates(ByteCursor cursor)
+            throws IOException {
+        CoordinateRecords records = new CoordinateRecords();
+
+        while (cursor.hasMore()) {
+            switch (cursor.peek()) {
+                case 'v':
+                    cursor.skipToken();
+                    int node = cursor.parseInt() - 1;
+                    double x = cursor.parseDouble();
+                    records.add(node, x, cursor.parseDouble());
+                    break;
+
+                case 'c':
+                case 'p':
+                case '\n':
+                    break;
+
+                default:
+                    throw cursor.error("Unexpected line");
+            }
+
+            cursor.skipLine();
+        }
+
+        return records;
+    }
+
+    private static ArcRecords parseEdgeList(ByteCursor cursor)
+            throws IOException {
+        ArcRecords records = new ArcRecords();
+
+        while (cursor.hasMore()) {
+            byte first = cursor.peek();
+
+            if (first != '#' && first != '%' && first != '\n') {
+                int tail = cursor.parseInt();
+                int head = cursor.parseInt();
+                double weight = cursor.peek() == '\n' ? 1.0
+                                                      : cursor.parseDouble();
+                records.add(tail, head, weight, cursor);
+            }
+
+            cursor.skipLine();
+        }
+
+        return records;
+    }
+
+    private static int getDeclaredNodeCount(List<ArcRecords> chunks,
+                                            Path file) throws IOException {
+        for (ArcRecords chunk : chunks) {
+            if (chunk.declaredNodeCount >= 0) {
+                return chunk.declaredNodeCount;
+            }
+        }
+
+        throw new IOException("'" + file + "' has no problem line.");
+    }
+
+    /**
+     * Cuts the file into chunks of whole lines and parses them in parallel.
+     * The results are listed in the order of the chunks in the file.
+     */
+    private static <T> List<T> parseInChunks(Path file,
+                                             ChunkParser<T> parser)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                                                    StandardOpenOption.READ)) {
+            long[] boundaries = computeChunkBoundaries(channel);
+
+            try {
+                return IntStream.range(0, boundaries.length - 1)
+                                .parallel()
+                                .mapToObj((i) -> parseChunk(channel,
+                                                            boundaries[i],
+                                                            boundaries[i + 1],
+                                                            parser))
+                                .collect(Collectors.toList());
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+
+    private static <T> T parseChunk(FileChannel channel,
+                                    long begin,
+                                    long end,
+                                    ChunkParser<T> parser) {
+        try {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                                            begin,
+                                            end - begin);
+            return parser.parse(new ByteCursor(buffer, begin));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Returns the chunk boundaries. Each boundary but the last one is the
+     * position right after a line terminator, so no line is split between
+     * two chunks.
+     */
+    private static long[] computeChunkBoundaries(FileChannel channel)
+            throws IOException {
+        long fileSize = channel.size();
+        int chunkCount = (int) Math.max(
+                ForkJoinPool.getCommonPoolParallelism(),
+                (fileSize + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        long[] boundaries = new long[chunkCount + 1];
+        ByteBuffer scanBuffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+
+        for (int i = 1; i < chunkCount; ++i) {
+            long position = Math.max(boundaries[i - 1],
+                                     fileSize / chunkCount * i);
+            boundaries[i] = findLineStart(channel, position, scanBuffer);
+        }
+
+        boundaries[chunkCount] = fileSize;
+
+        for (int i = 0; i < chunkCount; ++i) {
+            if (boundaries[i + 1] - boundaries[i] > Integer.MAX_VALUE) {
+                throw new IOException("A line is too long.");
+            }
+        }
+
+        return boundaries;
+    }
+
+    /**
+     * Returns the position of the first line starting at or after
+     * {@code position}, or the file size if there is none.
+     */
+    private static long findLineStart(FileChannel channel,
+                                      long position,
+                                      ByteBuffer scanBuffer)
+            throws IOException {
+        if (position == 0L) {
+            return 0L;
+        }
+
+        // The line starts at 'position' if the preceding byte ends a line.
+        --position;
+
+        while (true) {
+            scanBuffer.clear();
+            int bytesRead = channel.read(scanBuffer, position);
+
+            if (bytesRead <= 0) {
+                return channel.size();
+            }
+
+            for (int i = 0; i < bytesRead; ++i) {
+                if (scanBuffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+
+            position += bytesRead;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkParser<T> {
+
+        T parse(ByteCursor cursor) throws IOException;
+    }
+
+    /**
+     * This class holds the arcs parsed from a single chunk.
+     */
+    private static final class ArcRecords {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        int size;
+        int[] tails = new int[INITIAL_CAPACITY];
+        int[] heads = new int[INITIAL_CAPACITY];
+        double[] weights = new double[INITIAL_CAPACITY];
+        int maximumNode = -1;
+        int minimumNode = Integer.MAX_VALUE;
+
+        /**
+         * The node count declared by a problem line in this chunk, or -1.
+         */
+        int declaredNodeCount = -1;
+
+        void add(int tail, int head, double weight, ByteCursor cursor)
+                throws IOException {
+            if (!(weight >= 0.0)) {
+                throw cursor.error("Bad arc weight " + weight);
+            }
+
+            if (size == tails.length) {
+                tails   = Arrays.copyOf(tails, 2 * size);
+                heads   = Arrays.copyOf(heads, 2 * size);
+                weights = Arrays.copyOf(weights, 2 * size);
+            }
+
+            tails  [size] = tail;
+            heads  [size] = head;
+            weights[size] = weight;
+            ++size;
+            maximumNode = Math.max(maximumNode, Math.max(tail, head));
+            minimumNode = Math.min(minimumNode, Math.min(tail, head));
+        }
+
+        /**
+         * Makes sure that all the nodes are within {@code [0, nodeCount)}.
+         */
+        void checkNodes(int nodeCount, Path file) throws IOException {
+            if (size > 0 && (minimumNode < 0 || maximumNode >= nodeCount)) {
+                throw new IOException(
+                        "'" + file + "' has an arc with a node out of " +
+                        "range.");
+            }
+        }
+    }
+
+    /**
+     * This class holds the node coordinates parsed from a single chunk.
+     */
+    private static final class CoordinateRecords {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        int size;
+        int[] nodes = new int[INITIAL_CAPACITY];
+        double[] xs = new double[INITIAL_CAPACITY];
+        double[] ys = new double[INITIAL_CAPACITY];
+
+        void add(int node, double x, double y) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2 * size);
+                xs    = Arrays.copyOf(xs, 2 * size);
+                ys    = Arrays.copyOf(ys, 2 * size);
+            }
+
+            nodes[size] = node;
+            xs   [size] = x;
+            ys   [size] = y;
+            ++size;
+        }
+
+        void addTo(DirectedGraphNodeCoordinates coordinates,
+                   int nodeCount,
+                   Path file) throws IOException {
+            for (int i = 0; i < size; ++i) {
+                if (nodes[i] < 0 || nodes[i] >= nodeCount) {
+                    throw new IOException(
+                            "'" + file + "' has coordinates of a node out " +
+                            "of range: " + (nodes[i] + 1) + ".");
+                }
+
+                coordinates.put(nodes[i], xs[i], ys[i]);
+            }
+        }
+    }
+}
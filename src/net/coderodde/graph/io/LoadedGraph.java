@@ -0,0 +1,44 @@
+package net.coderodde.graph.io;
+
+import net.coderodde.graph.DirectedGraph;
+import net.coderodde.graph.DirectedGraphWeightFunction;
+import net.coderodde.graph.pathfinding.DirectedGraphNodeCoordinates;
+
+/**
+ * This class holds a graph read by {@link GraphLoader}: the graph itself, its
+ * weight function and, if available, the node coordinates.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class LoadedGraph {
+
+    private final DirectedGraph graph;
+    private final DirectedGraphWeightFunction weightFunction;
+    private final DirectedGraphNodeCoordinates coordinates;
+
+    LoadedGraph(DirectedGraph graph,
+                DirectedGraphWeightFunction weightFunction,
+                DirectedGraphNodeCoordinates coordinates) {
+        this.graph = graph;
+        this.weightFunction = weightFunction;
+        this.coordinates = coordinates;
+    }
+
+    public DirectedGraph getGraph() {
+        return graph;
+    }
+
+    public DirectedGraphWeightFunction getWeightFunction() {
+        return weightFunction;
+    }
+
+    /**
+     * Returns the node coordinates.
+     *
+     * @return the coordinates, or {@code null} if none were loaded.
+     */
+    public DirectedGraphNodeCoordinates getCoordinates() {
+        return coordinates;
+    }
+}
@@ -1,10 +1,7 @@
 package net.coderodde.graph.pathfinding;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import net.coderodde.graph.CompactDirectedGraph;
 import net.coderodde.graph.DirectedGraph;
 import net.coderodde.graph.DirectedGraphWeightFunction;
 
@@ -27,17 +24,60 @@ public abstract class AbstractPathfinder {
      */
     protected final DirectedGraphWeightFunction weightFunction;
 
+    /**
+     * The compact graph to search in. If set, {@link #graph} and 
+     * {@link #weightFunction} are {@code null}.
+     */
+    protected final CompactDirectedGraph compactGraph;
+
+    /**
+     * The work counters of the current search. The pathfinders update them
+     * unconditionally, since a plain field increment is cheaper than checking
+     * whether the statistics are enabled. They are published only when the
+     * statistics are enabled, and reset by {@link #beginSearch()}.
+     */
+    protected int expandedNodeCount;
+    protected int relaxedArcCount;
+    protected int heapPushCount;
+    protected int heapPopCount;
+    protected int stalePopCount;
+    protected int prunedNodeCount;
+    private int peakOpenSize;
+
+    /**
+     * The statistics of the last search, or {@code null} if the statistics
+     * are disabled.
+     */
+    private SearchStatistics statistics;
+
+    /**
+     * The latencies of all the searches since the statistics were enabled,
+     * or {@code null} if the statistics are disabled.
+     */
+    private LatencyHistogram latencyHistogram;
+    private long searchStartTime;
+
     protected AbstractPathfinder(DirectedGraph graph,
                                  DirectedGraphWeightFunction weightFunction) {
         this.graph = Objects.requireNonNull(graph, "The input graph is null.");
         this.weightFunction =
                 Objects.requireNonNull(weightFunction,
                                        "The input weight function is null.");
+        this.compactGraph = null;
+    }
+
+    protected AbstractPathfinder(CompactDirectedGraph compactGraph) {
+        this.graph = null;
+        this.weightFunction = null;
+        this.compactGraph = 
+                Objects.requireNonNull(compactGraph, 
+                                       "The input compact graph is null.");
     }
 
     protected AbstractPathfinder() {
         this.graph = null;
         this.weightFunction = null; // Compiler requires this initialization.
+        this.compactGraph = null;
     }
 
     /**
@@ -52,38 +92,178 @@ public abstract class AbstractPathfinder {
     public abstract DirectedGraphPath search(int sourceNodeId,
                                              int targetNodeId);
 
+    /**
+     * Enables or disables the collection of search statistics. Enabling the
+     * statistics starts a new latency histogram.
+     * 
+     * @param enabled whether to collect statistics.
+     */
+    public void setStatisticsEnabled(boolean enabled) {
+        if (!enabled) {
+            statistics = null;
+            latencyHistogram = null;
+        } else if (statistics == null) {
+            statistics = new SearchStatistics();
+            latencyHistogram = new LatencyHistogram();
+        }
+    }
+
+    public boolean isStatisticsEnabled() {
+        return statistics != null;
+    }
+
+    /**
+     * Returns the statistics of the most recent search.
+     * 
+     * @return the search statistics, or {@code null} if the statistics are
+     *         disabled.
+     */
+    public SearchStatistics getSearchStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Returns the histogram of search latencies in nanoseconds.
+     * 
+     * @return the latency histogram, or {@code null} if the statistics are
+     *         disabled.
+     */
+    public LatencyHistogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    /**
+     * Resets the work counters. Must be called at the beginning of each 
+     * search.
+     */
+    protected final void beginSearch() {
+        expandedNodeCount = 0;
+        relaxedArcCount = 0;
+        heapPushCount = 0;
+        heapPopCount = 0;
+        stalePopCount = 0;
+        prunedNodeCount = 0;
+        peakOpenSize = 0;
+
+        if (statistics != null) {
+            searchStartTime = System.nanoTime();
+        }
+    }
+
+    /**
+     * Publishes the work counters and the latency of the search, if the 
+     * statistics are enabled. Must be called at the end of each search, 
+     * including the failed ones.
+     */
+    protected final void endSearch() {
+        if (statistics != null) {
+            long latency = System.nanoTime() - searchStartTime;
+            statistics.record(expandedNodeCount,
+                              relaxedArcCount,
+                              heapPushCount,
+                              heapPopCount,
+                              stalePopCount,
+                              peakOpenSize,
+                              prunedNodeCount,
+                              latency);
+            latencyHistogram.record(latency);
+        }
+    }
+
+    /**
+     * Counts a node added to an open set. The peak open set size is derived
+     * from the numbers of additions and removals, so the heaps are not
+     * queried for their sizes.
+     */
+    protected final void countHeapPush() {
+        countOpenSize(++heapPushCount - heapPopCount);
+    }
+
+    /**
+     * Counts an open set size for the peak open set size. Used by the
+     * pathfinders that keep the counters elsewhere during the search.
+     *
+     * @param openSize the number of open nodes.
+     */
+    protected final void countOpenSize(int openSize) {
+        if (peakOpenSize < openSize) {
+            peakOpenSize = openSize;
+        }
+    }
+
     /**
      * Reconstructs a shortest path from the data structures maintained by a 
-     * <b>bidirectional</b> pathfinding algorithm.
+     * <b>bidirectional</b> pathfinding algorithm. The parent arrays are indexed
+     * by node identifiers, and a negative entry marks a terminal node. The
+     * path is written directly into an array of the exact length: the forward
+     * half backwards from the touch node, and the backward half after it.
      * 
      * @param touchNodeId the node where the two search frontiers agree.
-     * @param PARENTSA the parent map in the forward search direction.
-     * @param PARENTSB the parent map in the backward search direction.
+     * @param PARENTSA the parent array in the forward search direction.
+     * @param PARENTSB the parent array in the backward search direction.
+     * @param cost     the cost of the path.
      * @return the shortest path object.
      */
     protected DirectedGraphPath tracebackPath(int touchNodeId, 
-                                              Map<Integer, Integer> PARENTSA,
-                                              Map<Integer, Integer> PARENTSB) {
-        List<Integer> path = new ArrayList<>();
-        Integer currentNodeId = touchNodeId;
-
-        while (currentNodeId != null) {
-            path.add(currentNodeId);
-            currentNodeId = PARENTSA.get(currentNodeId);
+                                              int[] PARENTSA,
+                                              int[] PARENTSB,
+                                              double cost) {
+        return tracebackPath(touchNodeId, PARENTSA, PARENTSB, cost, null);
+    }
+
+    /**
+     * Reconstructs a shortest path as 
+     * {@link #tracebackPath(int, int[], int[], double)} does, but from the
+     * data structures indexed by slots instead of node identifiers. The path
+     * is translated to the node identifiers by the array {@code NODES}.
+     * 
+     * @param touchSlot the slot where the two search frontiers agree.
+     * @param PARENTSA  the parent array in the forward search direction.
+     * @param PARENTSB  the parent array in the backward search direction, or
+     *                  {@code null} for a unidirectional search.
+     * @param cost      the cost of the path.
+     * @param NODES     the node of each slot, or {@code null} if the slots are
+     *                  the node identifiers.
+     * @return the shortest path object.
+     */
+    protected DirectedGraphPath tracebackPath(int touchSlot,
+                                              int[] PARENTSA,
+                                              int[] PARENTSB,
+                                              double cost,
+                                              int[] NODES) {
+        int forwardLength = 0;
+        int backwardLength = 0;
+
+        for (int node = touchSlot; node >= 0; node = PARENTSA[node]) {
+            ++forwardLength;
         }
 
-        Collections.<Integer>reverse(path);
+        if (PARENTSB != null) {
+            for (int node = PARENTSB[touchSlot]; 
+                    node >= 0; 
+                    node = PARENTSB[node]) {
+                ++backwardLength;
+            }
+        }
+
+        int[] path = new int[forwardLength + backwardLength];
+        int index = forwardLength;
+
+        for (int node = touchSlot; node >= 0; node = PARENTSA[node]) {
+            path[--index] = NODES == null ? node : NODES[node];
+        }
 
         if (PARENTSB != null) {
-            currentNodeId = PARENTSB.get(touchNodeId);
+            index = forwardLength;
 
-            while (currentNodeId != null) {
-                path.add(currentNodeId);
-                currentNodeId = PARENTSB.get(currentNodeId);
+            for (int node = PARENTSB[touchSlot]; 
+                    node >= 0; 
+                    node = PARENTSB[node]) {
+                path[index++] = NODES == null ? node : NODES[node];
             }
         }
 
-        return new DirectedGraphPath(path);
+        return new DirectedGraphPath(path, cost);
     }
 
     /**
@@ -91,11 +271,36 @@ public abstract class AbstractPathfinder {
      * unidirectional pathfinding algorithm.
      * 
      * @param targetNodeId the target node.
-     * @param PARENTS      the parents map.
+     * @param PARENTS      the parent array.
+     * @param cost         the cost of the path.
      * @return the shortest path object
      */
     protected DirectedGraphPath tracebackPath(int targetNodeId, 
-                                              Map<Integer, Integer> PARENTS) {
-        return tracebackPath(targetNodeId, PARENTS, null);
+                                              int[] PARENTS,
+                                              double cost) {
+        return tracebackPath(targetNodeId, PARENTS, null, cost);
+    }
+
+    /**
+     * Makes sure that the input node is in the graph: within the node range of
+     * a compact graph, or present in a hash-based graph.
+     * 
+     * @param nodeId the node to check.
+     */
+    protected void checkNodeId(int nodeId) {
+        if (compactGraph != null) {
+            if (nodeId < 0) {
+                throw new IllegalArgumentException(
+                        "The input node ID is negative: " + nodeId + ".");
+            }
+
+            if (nodeId >= compactGraph.getNodeCount()) {
+                throw new IllegalArgumentException(
+                        "The input node ID is too large: " + nodeId + ".");
+            }
+        } else if (graph != null && !graph.hasNode(nodeId)) {
+            throw new IllegalArgumentException(
+                    "The input node " + nodeId + " is not in the graph.");
+        }
     }
 }
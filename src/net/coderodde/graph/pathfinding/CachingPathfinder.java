@@ -0,0 +1,268 @@
+package net.coderodde.graph.pathfinding;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import net.coderodde.graph.GraphChangeListener;
+
+/**
+ * This class decorates a pathfinder with a cache of the shortest paths it has
+ * found, evicting the least recently used paths once the total number of the
+ * cached path nodes exceeds the given budget. The paths are immutable, so a
+ * cache hit returns the cached path itself.
+ * <p>
+ * The failed searches are not cached. If the decorated pathfinder runs on a
+ * mutable graph, this pathfinder registers itself as a listener of the graph
+ * and the weight function on its first search, and drops the whole cache as
+ * soon as either of them changes, since a new or a cheaper arc may shorten
+ * any path, and a removed or a dearer arc may lie on many of the cached paths.
+ * {@link #close()} unregisters the listener, so that a discarded cache is
+ * neither notified nor kept reachable by the graph.
+ * <p>
+ * This class is thread-safe: the cache is guarded by a lock and the searches
+ * of the decorated pathfinder are serialized, so the cache hits never wait for
+ * a search in progress.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class CachingPathfinder extends AbstractPathfinder
+                                     implements GraphChangeListener,
+                                                AutoCloseable {
+
+    private final AbstractPathfinder pathfinder;
+    private final long maximumCachedNodeCount;
+    private final Map<Long, DirectedGraphPath> cache =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    private long cachedNodeCount;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Whether this pathfinder is registered as a listener of the graph and
+     * the weight function of the decorated pathfinder.
+     */
+    private boolean attached;
+    private boolean closed;
+
+    /**
+     * Incremented on each invalidation, so that a path found before an
+     * invalidation is not cached after it.
+     */
+    private long generation;
+
+    /**
+     * Constructs a caching pathfinder.
+     *
+     * @param pathfinder             the pathfinder to decorate.
+     * @param maximumCachedNodeCount the maximum total number of nodes in the
+     *                               cached paths.
+     */
+    public CachingPathfinder(AbstractPathfinder pathfinder,
+                             long maximumCachedNodeCount) {
+        this.pathfinder = Objects.requireNonNull(pathfinder,
+                                                 "The input pathfinder is null.");
+
+        if (maximumCachedNodeCount < 0L) {
+            throw new IllegalArgumentException(
+                    "The input maximum cached node count is negative: " +
+                    maximumCachedNodeCount + ".");
+        }
+
+        this.maximumCachedNodeCount = maximumCachedNodeCount;
+    }
+
+    @Override
+    public DirectedGraphPath search(int sourceNodeId, int targetNodeId) {
+        Long key = ((long) sourceNodeId << 32) | (targetNodeId & 0xffffffffL);
+        long searchGeneration;
+
+        synchronized (cache) {
+            attach();
+            DirectedGraphPath path = cache.get(key);
+
+            if (path != null) {
+                ++hitCount;
+                return path;
+            }
+
+            ++missCount;
+            searchGeneration = generation;
+        }
+
+        DirectedGraphPath path;
+
+        synchronized (pathfinder) {
+            path = pathfinder.search(sourceNodeId, targetNodeId);
+        }
+
+        synchronized (cache) {
+            if (searchGeneration == generation &&
+                    path.size() <= maximumCachedNodeCount &&
+                    !cache.containsKey(key)) {
+                cache.put(key, path);
+                cachedNodeCount += path.size();
+                evict();
+            }
+        }
+
+        return path;
+    }
+
+    /**
+     * Unregisters this pathfinder from the graph and the weight function of
+     * the decorated pathfinder and drops all the cached paths. This
+     * pathfinder may not search after being closed.
+     */
+    @Override
+    public void close() {
+        synchronized (cache) {
+            if (attached) {
+                if (pathfinder.graph != null) {
+                    pathfinder.graph.removeGraphChangeListener(this);
+                }
+
+                if (pathfinder.weightFunction != null) {
+                    pathfinder.weightFunction.removeGraphChangeListener(this);
+                }
+
+                attached = false;
+            }
+
+            closed = true;
+            invalidate();
+        }
+    }
+
+    /**
+     * Drops all the cached paths.
+     */
+    public void invalidate() {
+        synchronized (cache) {
+            cache.clear();
+            cachedNodeCount = 0L;
+            ++generation;
+        }
+    }
+
+    @Override
+    public void arcAdded(int tailNodeId, int headNodeId) {
+        invalidate();
+    }
+
+    @Override
+    public void arcWeightChanged(int tailNodeId,
+                                 int headNodeId,
+                                 double weight) {
+        invalidate();
+    }
+
+    @Override
+    public void arcRemoved(int tailNodeId, int headNodeId) {
+        invalidate();
+    }
+
+    public long getHitCount() {
+        synchronized (cache) {
+            return hitCount;
+        }
+    }
+
+    public long getMissCount() {
+        synchronized (cache) {
+            return missCount;
+        }
+    }
+
+    public long getEvictionCount() {
+        synchronized (cache) {
+            return evictionCount;
+        }
+    }
+
+    /**
+     * Returns the fraction of the searches answered from the cache.
+     *
+     * @return the hit rate, or zero if there were no searches.
+     */
+    public double getHitRate() {
+        synchronized (cache) {
+            long requestCount = hitCount + missCount;
+            return requestCount == 0L ? 0.0 : (double) hitCount / requestCount;
+        }
+    }
+
+    public int getCachedPathCount() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public long getCachedNodeCount() {
+        synchronized (cache) {
+            return cachedNodeCount;
+        }
+    }
+
+    @Override
+    public void setStatisticsEnabled(boolean enabled) {
+        synchronized (pathfinder) {
+            pathfinder.setStatisticsEnabled(enabled);
+        }
+    }
+
+    @Override
+    public boolean isStatisticsEnabled() {
+        return pathfinder.isStatisticsEnabled();
+    }
+
+    /**
+     * Returns the statistics of the most recent search of the decorated
+     * pathfinder. The cache hits are not recorded.
+     */
+    @Override
+    public SearchStatistics getSearchStatistics() {
+        return pathfinder.getSearchStatistics();
+    }
+
+    @Override
+    public LatencyHistogram getLatencyHistogram() {
+        return pathfinder.getLatencyHistogram();
+    }
+
+    /**
+     * Registers this pathfinder as a listener of the graph and the weight
+     * function of the decorated pathfinder, unless already registered. Called
+     * holding the cache lock.
+     */
+    private void attach() {
+        if (closed) {
+            throw new IllegalStateException("The pathfinder is closed.");
+        }
+
+        if (!attached) {
+            if (pathfinder.graph != null) {
+                pathfinder.graph.addGraphChangeListener(this);
+            }
+
+            if (pathfinder.weightFunction != null) {
+                pathfinder.weightFunction.addGraphChangeListener(this);
+            }
+
+            attached = true;
+        }
+    }
+
+    private void evict() {
+        Iterator<DirectedGraphPath> iterator = cache.values().iterator();
+
+        while (cachedNodeCount > maximumCachedNodeCount) {
+            cachedNodeCount -= iterator.next().size();
+            iterator.remove();
+            ++evictionCount;
+        }
+    }
+}
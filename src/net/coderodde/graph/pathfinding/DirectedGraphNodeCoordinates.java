@@ -1,40 +1,146 @@
 package net.coderodde.graph.pathfinding;
 
 import java.awt.geom.Point2D;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
- * This class allows mapping each graph node to its coordinates on a 
+ * This class allows mapping each graph node to its coordinates on a
  * two-dimensional plane.
- * 
+ * <p>
+ * The coordinates are stored in two flat {@code double} arrays indexed by the
+ * node, a <tt>NaN</tt> x-coordinate marking a node without coordinates. The
+ * node identifiers must therefore be non-negative and should be dense.
+ *
  * @author Rodion "rodde" Efremov
- * @version 1.6 (Oct 6, 2016)
+ * @version 1.7 (Oct 17, 2026)
  */
 public class DirectedGraphNodeCoordinates {
 
+    private double[] xs;
+    private double[] ys;
+
+    /**
+     * The number of the nodes with coordinates.
+     */
+    private int size;
+
+    /**
+     * The smallest integer greater than every node with coordinates.
+     */
+    private int nodeIdBound;
+
+    public DirectedGraphNodeCoordinates() {
+        this(0);
+    }
+
     /**
-     * Maps each node to its coordinates.
+     * Constructs an empty coordinate map with room for the nodes
+     * {@code 0, 1, ..., expectedNodeCount - 1} without growing.
+     *
+     * @param expectedNodeCount the expected number of nodes.
      */
-    private final Map<Integer, Point2D.Double> map = new HashMap<>();
+    public DirectedGraphNodeCoordinates(int expectedNodeCount) {
+        int capacity = Math.max(0, expectedNodeCount);
+        this.xs = new double[capacity];
+        this.ys = new double[capacity];
+        Arrays.fill(xs, Double.NaN);
+    }
 
     /**
      * Associates the coordinates {@code point} to the node {@code nodeId}.
-     * 
+     *
      * @param nodeId the node to map.
      * @param point  the coordinates to associate to the node.
      */
     public void put(int nodeId, Point2D.Double point) {
-        map.put(nodeId, point);
+        put(nodeId, point.x, point.y);
+    }
+
+    /**
+     * Associates the coordinates <tt>(x, y)</tt> to the node {@code nodeId}.
+     *
+     * @param nodeId the node to map.
+     * @param x      the x-coordinate of the node.
+     * @param y      the y-coordinate of the node.
+     */
+    public void put(int nodeId, double x, double y) {
+        if (nodeId < 0) {
+            throw new IllegalArgumentException(
+                    "The input node ID is negative: " + nodeId + ".");
+        }
+
+        if (Double.isNaN(x) || Double.isNaN(y)) {
+            throw new IllegalArgumentException("The input coordinate is NaN.");
+        }
+
+        if (nodeId >= xs.length) {
+            int oldCapacity = xs.length;
+            int newCapacity = Math.max(nodeId + 1, 2 * oldCapacity);
+            xs = Arrays.copyOf(xs, newCapacity);
+            ys = Arrays.copyOf(ys, newCapacity);
+            Arrays.fill(xs, oldCapacity, newCapacity, Double.NaN);
+        }
+
+        if (Double.isNaN(xs[nodeId])) {
+            ++size;
+        }
+
+        xs[nodeId] = x;
+        ys[nodeId] = y;
+        nodeIdBound = Math.max(nodeIdBound, nodeId + 1);
     }
 
     /**
      * Return the point of the input node.
-     * 
+     *
      * @param nodeId the node whose coordinates to return.
-     * @return the coordinates.
+     * @return the coordinates, or {@code null} if the node has none.
      */
     public Point2D.Double get(int nodeId) {
-        return map.get(nodeId);
+        return contains(nodeId) ?
+               new Point2D.Double(xs[nodeId], ys[nodeId]) :
+               null;
+    }
+
+    /**
+     * Returns the x-coordinate of the input node without allocating a point.
+     *
+     * @param nodeId the node.
+     * @return the x-coordinate, or <tt>NaN</tt> if the node has none.
+     */
+    public double getX(int nodeId) {
+        return nodeId >= 0 && nodeId < xs.length ? xs[nodeId] : Double.NaN;
+    }
+
+    /**
+     * Returns the y-coordinate of the input node without allocating a point.
+     *
+     * @param nodeId the node.
+     * @return the y-coordinate, or <tt>NaN</tt> if the node has none.
+     */
+    public double getY(int nodeId) {
+        return contains(nodeId) ? ys[nodeId] : Double.NaN;
+    }
+
+    public boolean contains(int nodeId) {
+        return nodeId >= 0 && nodeId < xs.length && !Double.isNaN(xs[nodeId]);
+    }
+
+    /**
+     * Returns the number of the nodes with coordinates.
+     *
+     * @return the number of nodes.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the smallest integer greater than every node with coordinates.
+     *
+     * @return the node identifier bound.
+     */
+    public int getNodeIdBound() {
+        return nodeIdBound;
     }
 }
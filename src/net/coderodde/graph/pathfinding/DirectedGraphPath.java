@@ -1,54 +1,150 @@
 package net.coderodde.graph.pathfinding;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.stream.IntStream;
 import net.coderodde.graph.DirectedGraphWeightFunction;
 
-public final class DirectedGraphPath {
+/**
+ * This class holds an immutable path, that is, a sequence of nodes, together
+ * with its cost if it was known when the path was built.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class DirectedGraphPath implements Iterable<Integer> {
+
+    private final int[] path;
+    private final double cost;
 
-    private final List<Integer> path;
-    
     public DirectedGraphPath(List<Integer> path) {
-        this.path = new ArrayList<>(path);
+        this(path, Double.NaN);
+    }
+
+    /**
+     * Constructs a path over a copy of the list {@code path}.
+     *
+     * @param path the nodes of the path.
+     * @param cost the cost of the path, or {@code Double.NaN} if not known.
+     */
+    public DirectedGraphPath(List<Integer> path, double cost) {
+        this.path = new int[path.size()];
+        this.cost = cost;
+
+        for (int i = 0; i < this.path.length; ++i) {
+            this.path[i] = path.get(i);
+        }
     }
-    
+
+    /**
+     * Constructs a path over the array {@code path}. The array is not copied,
+     * so the caller must not modify it afterwards.
+     *
+     * @param path the nodes of the path.
+     * @param cost the cost of the path, or {@code Double.NaN} if not known.
+     */
+    public DirectedGraphPath(int[] path, double cost) {
+        this.path = path;
+        this.cost = cost;
+    }
+
     public int getNode(int index) {
-        return path.get(index);
+        return path[index];
+    }
+
+    public int size() {
+        return path.length;
     }
-    
+
+    /**
+     * Returns the cost of this path known when it was built.
+     *
+     * @return the cost of this path, or {@code Double.NaN} if not known.
+     */
+    public double getCost() {
+        return cost;
+    }
+
     public double getCost(DirectedGraphWeightFunction weightFunction) {
         double cost = 0.0;
-        
-        for (int i = 0; i < path.size() - 1; ++i) {
-            cost += weightFunction.get(path.get(i), path.get(i + 1));
+
+        for (int i = 0; i < path.length - 1; ++i) {
+            cost += weightFunction.get(path[i], path[i + 1]);
         }
-        
+
         return cost;
     }
-        
+
+    /**
+     * Returns a copy of the nodes of this path.
+     *
+     * @return the array of nodes.
+     */
+    public int[] toArray() {
+        return path.clone();
+    }
+
+    public IntStream stream() {
+        return Arrays.stream(path);
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < path.length;
+            }
+
+            @Override
+            public int nextInt() {
+                if (index == path.length) {
+                    throw new NoSuchElementException(
+                            "No nodes left in the path.");
+                }
+
+                return path[index++];
+            }
+        };
+    }
+
+    /**
+     * Two paths are equal if they visit the same nodes in the same order. The
+     * costs are not compared.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) {
             return true;
         }
-        
+
         if (o == null || !o.getClass().equals(getClass())) {
             return false;
         }
-        
-        return path.equals(((DirectedGraphPath) o).path);
+
+        return Arrays.equals(path, ((DirectedGraphPath) o).path);
     }
-    
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(path);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("[");
         String separator = "";
-        
-        for (Integer node : path) {
+
+        for (int node : path) {
             sb.append(separator).append(node);
             separator = ", ";
         }
-        
+
         return sb.append(']').toString();
     }
 }
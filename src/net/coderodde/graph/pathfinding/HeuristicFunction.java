@@ -11,7 +11,9 @@ public interface HeuristicFunction {
 
     /**
      * Provides an optimistic (underestimated) distance between {@code nodeId1}
-     * and {@code nodeId2} using a specific distance metric.
+     * and {@code nodeId2} using a specific distance metric. For asymmetric 
+     * metrics, the estimate is for paths leading from {@code nodeId1} to 
+     * {@code nodeId2}.
      * 
      * @param nodeId1 the first node.
      * @param nodeId2 the second node.
@@ -0,0 +1,171 @@
+package net.coderodde.graph.pathfinding;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class implements a latency histogram in the spirit of HdrHistogram.
+ * Values below 64 get a bucket of their own. Every larger power-of-two range
+ * [2^k, 2^(k + 1)) is split into 32 buckets of equal width, so a reported
+ * value is never off by more than about 3 percent. Recording a value takes
+ * constant time and allocates nothing.
+ * <p>
+ * <b>This class is not thread-safe.</b> Use a histogram per thread and
+ * {@link #add(LatencyHistogram)} them together.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The largest possible shift is the one of {@link Long#MAX_VALUE}.
+     */
+    private static final int BUCKET_COUNT =
+            (63 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + 2 * SUB_BUCKET_COUNT;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long totalValue;
+    private long minimumValue = Long.MAX_VALUE;
+    private long maximumValue;
+
+    /**
+     * Records a single value. Negative values are recorded as zero.
+     *
+     * @param value the value to record.
+     */
+    public void record(long value) {
+        value = Math.max(value, 0L);
+        ++counts[bucketOf(value)];
+        ++totalCount;
+        totalValue += value;
+        minimumValue = Math.min(minimumValue, value);
+        maximumValue = Math.max(maximumValue, value);
+    }
+
+    /**
+     * Adds all the values recorded in {@code other} to this histogram.
+     *
+     * @param other the histogram to add.
+     */
+    public void add(LatencyHistogram other) {
+        Objects.requireNonNull(other, "The input histogram is null.");
+
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            counts[i] += other.counts[i];
+        }
+
+        totalCount += other.totalCount;
+        totalValue += other.totalValue;
+        minimumValue = Math.min(minimumValue, other.minimumValue);
+        maximumValue = Math.max(maximumValue, other.maximumValue);
+    }
+
+    /**
+     * Removes all the recorded values.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0L);
+        totalCount = 0L;
+        totalValue = 0L;
+        minimumValue = Long.MAX_VALUE;
+        maximumValue = 0L;
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the smallest recorded value, or zero if there is none.
+     *
+     * @return the minimum value.
+     */
+    public long getMinimum() {
+        return totalCount == 0L ? 0L : minimumValue;
+    }
+
+    /**
+     * Returns the largest recorded value, or zero if there is none.
+     *
+     * @return the maximum value.
+     */
+    public long getMaximum() {
+        return maximumValue;
+    }
+
+    /**
+     * Returns the exact mean of the recorded values, or zero if there is
+     * none.
+     *
+     * @return the mean value.
+     */
+    public double getMean() {
+        return totalCount == 0L ? 0.0 : (double) totalValue / totalCount;
+    }
+
+    /**
+     * Returns a value such that {@code percentile} percent of the recorded
+     * values are not larger than it, up to the precision of the buckets.
+     *
+     * @param percentile the percentile within [0, 100].
+     * @return the value at the percentile, or zero if there is no value.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (!(percentile >= 0.0 && percentile <= 100.0)) {
+            throw new IllegalArgumentException(
+                    "The percentile is not within [0, 100]: " +
+                    percentile + ".");
+        }
+
+        if (totalCount == 0L) {
+            return 0L;
+        }
+
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 *
+                                                  totalCount));
+        long seen = 0L;
+
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            seen += counts[i];
+
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), maximumValue);
+            }
+        }
+
+        return maximumValue;
+    }
+
+    @Override
+    public String toString() {
+        return "[count: " + getCount() +
+               ", min: " + getMinimum() +
+               ", mean: " + String.format("%.1f", getMean()) +
+               ", p50: " + getValueAtPercentile(50.0) +
+               ", p90: " + getValueAtPercentile(90.0) +
+               ", p99: " + getValueAtPercentile(99.0) +
+               ", p99.9: " + getValueAtPercentile(99.9) +
+               ", max: " + getMaximum() + "]";
+    }
+
+    private static int bucketOf(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value)
+                                   - SUB_BUCKET_BITS);
+        return shift * SUB_BUCKET_COUNT + (int) (value >>> shift);
+    }
+
+    private static long highestValueIn(int bucket) {
+        if (bucket < 2 * SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+
+        int shift = bucket / SUB_BUCKET_COUNT - 1;
+        long top = bucket - shift * SUB_BUCKET_COUNT;
+        return ((top + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,541 @@
+package net.coderodde.graph.pathfinding;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import net.coderodde.graph.CompactDirectedGraph;
+import net.coderodde.graph.DirectedGraph;
+import net.coderodde.graph.DirectedGraphWeightFunction;
+
+/**
+ * This class renumbers the nodes of a graph so that the nodes close to each
+ * other in the graph get close identifiers, and thus their search state and
+ * arcs land close to each other in memory. The new identifiers are
+ * {@code 0, 1, ..., n - 1}. The orderings available are
+ * <ul>
+ *   <li>the breadth-first order,</li>
+ *   <li>the reverse Cuthill-McKee order, a breadth-first order visiting the
+ *       neighbours by ascending degree, reversed, which keeps the arcs short
+ *       in terms of identifier differences,</li>
+ *   <li>the order along a Hilbert curve over the node coordinates.</li>
+ * </ul>
+ * The reordering renumbers the graph, the weight function and the coordinates
+ * consistently, and translates the paths found in the renumbered graph back
+ * to the original identifiers; see {@link ReorderingPathfinder}.
+ * <p>
+ * Instances of this class are immutable and thus thread-safe.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class NodeReordering {
+
+    /**
+     * The number of bits per coordinate of the Hilbert curve grid.
+     */
+    private static final int HILBERT_ORDER = 16;
+
+    /**
+     * The original identifier of each new identifier.
+     */
+    private final int[] oldIds;
+
+    /**
+     * The number of the identifiers beyond twice the number of the nodes the
+     * dense translation array may cover.
+     */
+    private static final int DENSE_ID_SLACK = 64;
+
+    /**
+     * The new identifier of each original identifier, or -1 if the original
+     * identifier is not reordered. Is {@code null} if the original identifiers
+     * are negative or too sparse to index an array.
+     */
+    private final int[] newIds;
+
+    /**
+     * The original identifiers in ascending order, if {@link #newIds} is
+     * {@code null}.
+     */
+    private final int[] sortedOldIds;
+
+    /**
+     * The new identifiers of {@link #sortedOldIds}.
+     */
+    private final int[] sortedNewIds;
+
+    /**
+     * Constructs a reordering giving the new identifier {@code i} to the node
+     * {@code oldIds[i]}. The original identifiers may be arbitrary; if they
+     * are negative or sparse, they are translated by binary search.
+     *
+     * @param oldIds the original nodes in their new order.
+     */
+    public NodeReordering(int[] oldIds) {
+        Objects.requireNonNull(oldIds, "The input node array is null.");
+        int minimumId = 0;
+        int maximumId = -1;
+
+        for (int oldId : oldIds) {
+            minimumId = Math.min(minimumId, oldId);
+            maximumId = Math.max(maximumId, oldId);
+        }
+
+        this.oldIds = oldIds.clone();
+
+        if (minimumId >= 0 &&
+                maximumId < 2L * oldIds.length + DENSE_ID_SLACK) {
+            this.newIds = new int[maximumId + 1];
+            this.sortedOldIds = null;
+            this.sortedNewIds = null;
+            Arrays.fill(newIds, -1);
+
+            for (int newId = 0; newId < oldIds.length; ++newId) {
+                if (newIds[oldIds[newId]] != -1) {
+                    throw new IllegalArgumentException(
+                            "The node " + oldIds[newId] + " appears twice.");
+                }
+
+                newIds[oldIds[newId]] = newId;
+            }
+
+            return;
+        }
+
+        // The original identifier in the upper half, so the keys sort by it.
+        long[] keys = new long[oldIds.length];
+
+        for (int newId = 0; newId < oldIds.length; ++newId) {
+            keys[newId] = ((long) oldIds[newId] << 32) | newId;
+        }
+
+        Arrays.sort(keys);
+        this.newIds = null;
+        this.sortedOldIds = new int[keys.length];
+        this.sortedNewIds = new int[keys.length];
+
+        for (int i = 0; i < keys.length; ++i) {
+            sortedOldIds[i] = (int)(keys[i] >> 32);
+            sortedNewIds[i] = (int) keys[i];
+
+            if (i > 0 && sortedOldIds[i] == sortedOldIds[i - 1]) {
+                throw new IllegalArgumentException(
+                        "The node " + sortedOldIds[i] + " appears twice.");
+            }
+        }
+    }
+
+    /**
+     * Orders the nodes of {@code graph} breadth-first, ignoring the arc
+     * directions. The roots are taken in ascending order.
+     *
+     * @param graph the graph.
+     * @return the reordering.
+     */
+    public static NodeReordering breadthFirst(DirectedGraph graph) {
+        Objects.requireNonNull(graph, "The input graph is null.");
+        return new NodeReordering(
+                new OrderBuilder(graph).build(getSortedNodes(graph), false));
+    }
+
+    /**
+     * Orders the nodes of {@code graph} in the reverse Cuthill-McKee order,
+     * ignoring the arc directions. Each connected component is started from
+     * its node of the smallest degree.
+     *
+     * @param graph the graph.
+     * @return the reordering.
+     */
+    public static NodeReordering reverseCuthillMcKee(DirectedGraph graph) {
+        Objects.requireNonNull(graph, "The input graph is null.");
+        OrderBuilder builder = new OrderBuilder(graph);
+        int[] order = builder.build(
+                builder.sortByDegree(getSortedNodes(graph)),
+                true);
+
+        for (int i = 0, j = order.length - 1; i < j; ++i, --j) {
+            int node = order[i];
+            order[i] = order[j];
+            order[j] = node;
+        }
+
+        return new NodeReordering(order);
+    }
+
+    /**
+     * Orders the nodes of {@code graph} along a Hilbert curve over the
+     * bounding box of their coordinates.
+     *
+     * @param graph       the graph.
+     * @param coordinates the coordinates of all the nodes of the graph.
+     * @return the reordering.
+     */
+    public static NodeReordering hilbertCurve(
+            DirectedGraph graph,
+            DirectedGraphNodeCoordinates coordinates) {
+        Objects.requireNonNull(graph, "The input graph is null.");
+        Objects.requireNonNull(coordinates,
+                               "The input coordinate map is null.");
+        int[] nodes = getSortedNodes(graph);
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+
+        for (int node : nodes) {
+            if (!coordinates.contains(node)) {
+                throw new IllegalArgumentException(
+                        "The node " + node + " has no coordinates.");
+            }
+
+            minX = Math.min(minX, coordinates.getX(node));
+            minY = Math.min(minY, coordinates.getY(node));
+            maxX = Math.max(maxX, coordinates.getX(node));
+            maxY = Math.max(maxY, coordinates.getY(node));
+        }
+
+        int side = 1 << HILBERT_ORDER;
+        double scaleX = maxX > minX ? (side - 1) / (maxX - minX) : 0.0;
+        double scaleY = maxY > minY ? (side - 1) / (maxY - minY) : 0.0;
+        long[] keys = new long[nodes.length];
+
+        for (int i = 0; i < nodes.length; ++i) {
+            int x = (int)((coordinates.getX(nodes[i]) - minX) * scaleX);
+            int y = (int)((coordinates.getY(nodes[i]) - minY) * scaleY);
+            // The curve index takes 32 bits and the node index 31.
+            keys[i] = (getHilbertIndex(x, y, side) << 31) | i;
+        }
+
+        Arrays.sort(keys);
+        int[] order = new int[nodes.length];
+
+        for (int i = 0; i < nodes.length; ++i) {
+            order[i] = nodes[(int)(keys[i] & Integer.MAX_VALUE)];
+        }
+
+        return new NodeReordering(order);
+    }
+
+    /**
+     * Returns the number of the reordered nodes.
+     *
+     * @return the number of the nodes.
+     */
+    public int size() {
+        return oldIds.length;
+    }
+
+    /**
+     * Returns the new identifier of the original node {@code oldId}.
+     *
+     * @param oldId the original node.
+     * @return the new identifier.
+     */
+    public int getNewId(int oldId) {
+        if (newIds != null) {
+            if (oldId >= 0 && oldId < newIds.length && newIds[oldId] != -1) {
+                return newIds[oldId];
+            }
+        } else {
+            int index = Arrays.binarySearch(sortedOldIds, oldId);
+
+            if (index >= 0) {
+                return sortedNewIds[index];
+            }
+        }
+
+        throw new IllegalArgumentException(
+                "The node " + oldId + " is not in the reordering.");
+    }
+
+    /**
+     * Returns the original identifier of the node {@code newId}.
+     *
+     * @param newId the new identifier.
+     * @return the original node.
+     */
+    public int getOldId(int newId) {
+        if (newId < 0 || newId >= oldIds.length) {
+            throw new IllegalArgumentException(
+                    "No node has the new ID " + newId + ".");
+        }
+
+        return oldIds[newId];
+    }
+
+    /**
+     * Returns a copy of {@code graph} with the nodes renumbered.
+     *
+     * @param graph the graph to renumber.
+     * @return the renumbered graph.
+     */
+    public DirectedGraph reorder(DirectedGraph graph) {
+        Objects.requireNonNull(graph, "The input graph is null.");
+        DirectedGraph reorderedGraph = new DirectedGraph(oldIds.length);
+
+        for (int newId = 0; newId < oldIds.length; ++newId) {
+            reorderedGraph.addNode(newId);
+        }
+
+        for (int oldId : getSortedNodes(graph)) {
+            int newId = getNewId(oldId);
+
+            for (Integer childNode : graph.getChildrenOf(oldId)) {
+                reorderedGraph.addArc(newId, getNewId(childNode));
+            }
+        }
+
+        return reorderedGraph;
+    }
+
+    /**
+     * Returns a copy of the weight function {@code weightFunction} of the
+     * graph {@code graph} with the arcs renumbered.
+     *
+     * @param graph          the original graph.
+     * @param weightFunction the weight function of the original graph.
+     * @return the renumbered weight function.
+     */
+    public DirectedGraphWeightFunction reorder(
+            DirectedGraph graph,
+            DirectedGraphWeightFunction weightFunction) {
+        Objects.requireNonNull(graph, "The input graph is null.");
+        Objects.requireNonNull(weightFunction,
+                               "The input weight function is null.");
+        DirectedGraphWeightFunction reorderedWeightFunction =
+                new DirectedGraphWeightFunction(oldIds.length);
+
+        for (int oldId : getSortedNodes(graph)) {
+            int newId = getNewId(oldId);
+
+            for (Integer childNode : graph.getChildrenOf(oldId)) {
+                reorderedWeightFunction.put(newId,
+                                            getNewId(childNode),
+                                            weightFunction.get(oldId,
+                                                               childNode));
+            }
+        }
+
+        return reorderedWeightFunction;
+    }
+
+    /**
+     * Returns a copy of {@code graph} with the nodes renumbered. The
+     * reordering must cover all the nodes of the graph.
+     *
+     * @param graph the graph to renumber.
+     * @return the renumbered graph.
+     */
+    public CompactDirectedGraph reorder(CompactDirectedGraph graph) {
+        Objects.requireNonNull(graph, "The input graph is null.");
+        CompactDirectedGraph.Builder builder =
+                new CompactDirectedGraph.Builder();
+
+        for (int newId = 0; newId < oldIds.length; ++newId) {
+            builder.addNode(newId);
+        }
+
+        for (int newId = 0; newId < oldIds.length; ++newId) {
+            int oldId = oldIds[newId];
+
+            if (oldId >= graph.getNodeCount()) {
+                continue;
+            }
+
+            for (int arc = graph.getOutgoingArcsBegin(oldId),
+                    end = graph.getOutgoingArcsEnd(oldId);
+                    arc < end;
+                    ++arc) {
+                builder.addArc(newId,
+                               getNewId(graph.getOutgoingArcHead(arc)),
+                               graph.getOutgoingArcWeight(arc));
+            }
+        }
+
+        for (int oldId = 0; oldId < graph.getNodeCount(); ++oldId) {
+            getNewId(oldId);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Returns a copy of the coordinates {@code coordinates} with the nodes
+     * renumbered. The nodes not in the reordering are dropped.
+     *
+     * @param coordinates the coordinates to renumber.
+     * @return the renumbered coordinates.
+     */
+    public DirectedGraphNodeCoordinates reorder(
+            DirectedGraphNodeCoordinates coordinates) {
+        Objects.requireNonNull(coordinates,
+                               "The input coordinate map is null.");
+        DirectedGraphNodeCoordinates reorderedCoordinates =
+                new DirectedGraphNodeCoordinates(oldIds.length);
+
+        for (int newId = 0; newId < oldIds.length; ++newId) {
+            int oldId = oldIds[newId];
+
+            if (coordinates.contains(oldId)) {
+                reorderedCoordinates.put(newId,
+                                         coordinates.getX(oldId),
+                                         coordinates.getY(oldId));
+            }
+        }
+
+        return reorderedCoordinates;
+    }
+
+    /**
+     * Translates the path {@code path} in the renumbered graph back to the
+     * original identifiers.
+     *
+     * @param path the path in the renumbered graph.
+     * @return the path in the original graph.
+     */
+    public DirectedGraphPath restore(DirectedGraphPath path) {
+        Objects.requireNonNull(path, "The input path is null.");
+        int[] nodes = new int[path.size()];
+
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = getOldId(path.getNode(i));
+        }
+
+        return new DirectedGraphPath(nodes, path.getCost());
+    }
+
+    private static int[] getSortedNodes(DirectedGraph graph) {
+        Set<Integer> nodeSet = graph.getNodeList();
+        int[] nodes = new int[nodeSet.size()];
+        int size = 0;
+
+        for (Integer node : nodeSet) {
+            nodes[size++] = node;
+        }
+
+        Arrays.sort(nodes);
+        return nodes;
+    }
+
+    /**
+     * Returns the index of the point <tt>(x, y)</tt> along the Hilbert curve
+     * filling the {@code side x side} grid.
+     */
+    private static long getHilbertIndex(int x, int y, int side) {
+        long index = 0L;
+
+        for (int s = side >>> 1; s > 0; s >>>= 1) {
+            int rx = (x & s) != 0 ? 1 : 0;
+            int ry = (y & s) != 0 ? 1 : 0;
+            index += (long) s * s * ((3 * rx) ^ ry);
+
+            // Rotate the quadrant so that the curve continues from it.
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = side - 1 - x;
+                    y = side - 1 - y;
+                }
+
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * This class computes breadth-first orders of the nodes of a graph,
+     * ignoring the arc directions.
+     */
+    private static final class OrderBuilder {
+
+        private final DirectedGraph graph;
+
+        OrderBuilder(DirectedGraph graph) {
+            this.graph = graph;
+        }
+
+        /**
+         * Visits the nodes breadth-first, taking the unvisited nodes of
+         * {@code roots} as roots, and visiting the neighbours of each node by
+         * ascending degree if {@code byDegree} is set.
+         */
+        int[] build(int[] roots, boolean byDegree) {
+            int[] order = new int[roots.length];
+            Set<Integer> visited = new HashSet<>(2 * roots.length);
+            int[] neighbours = new int[16];
+            int head = 0;
+            int tail = 0;
+
+            for (int root : roots) {
+                if (!visited.add(root)) {
+                    continue;
+                }
+
+                order[tail++] = root;
+
+                while (head < tail) {
+                    int node = order[head++];
+                    int neighbourCount = 0;
+
+                    for (int pass = 0; pass < 2; ++pass) {
+                        for (Integer neighbour : pass == 0 ?
+                                graph.getChildrenOf(node) :
+                                graph.getParentsOf(node)) {
+                            if (visited.add(neighbour)) {
+                                if (neighbourCount == neighbours.length) {
+                                    neighbours = Arrays.copyOf(
+                                            neighbours,
+                                            2 * neighbourCount);
+                                }
+
+                                neighbours[neighbourCount++] = neighbour;
+                            }
+                        }
+                    }
+
+                    int[] sortedNeighbours = byDegree ?
+                            sortByDegree(Arrays.copyOf(neighbours,
+                                                       neighbourCount)) :
+                            neighbours;
+
+                    for (int i = 0; i < neighbourCount; ++i) {
+                        order[tail++] = sortedNeighbours[i];
+                    }
+                }
+            }
+
+            return order;
+        }
+
+        /**
+         * Sorts {@code nodes} by ascending degree, breaking the ties by the
+         * node identifiers compared as unsigned integers.
+         */
+        int[] sortByDegree(int[] nodes) {
+            long[] keys = new long[nodes.length];
+
+            for (int i = 0; i < nodes.length; ++i) {
+                // Mask the node so that a negative one keeps the degree half.
+                keys[i] = ((long) getDegree(nodes[i]) << 32) |
+                          (nodes[i] & 0xffffffffL);
+            }
+
+            Arrays.sort(keys);
+
+            for (int i = 0; i < nodes.length; ++i) {
+                nodes[i] = (int) keys[i];
+            }
+
+            return nodes;
+        }
+
+        private int getDegree(int node) {
+            return graph.getChildrenOf(node).size() +
+                   graph.getParentsOf(node).size();
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package net.coderodde.graph.pathfinding;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class implements a static two-dimensional k-d tree over the nodes with
+ * coordinates, answering nearest node, k-nearest nodes and rectangle queries
+ * in logarithmic expected time instead of scanning all the nodes.
+ * <p>
+ * The tree is implicit: the nodes and their coordinates are stored in three
+ * parallel arrays permuted so that the median of each index range splits the
+ * range by the x-coordinate on even depths and by the y-coordinate on odd
+ * depths. Ranges of at most {@code LEAF_SIZE} nodes are scanned linearly.
+ * <p>
+ * The index is a snapshot: the coordinates changed after building it are not
+ * seen. Instances of this class are immutable and thus thread-safe.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class NodeSpatialIndex {
+
+    private static final int LEAF_SIZE = 8;
+    private static final int[] NO_NODES = new int[0];
+
+    private final int[] nodes;
+    private final double[] xs;
+    private final double[] ys;
+
+    /**
+     * Builds the index of all the nodes having coordinates in
+     * {@code coordinates}.
+     *
+     * @param coordinates the node coordinates.
+     */
+    public NodeSpatialIndex(DirectedGraphNodeCoordinates coordinates) {
+        Objects.requireNonNull(coordinates,
+                               "The input coordinate map is null.");
+        int size = coordinates.size();
+        this.nodes = new int[size];
+        this.xs = new double[size];
+        this.ys = new double[size];
+        int index = 0;
+
+        for (int nodeId = 0;
+                nodeId < coordinates.getNodeIdBound() && index < size;
+                ++nodeId) {
+            if (coordinates.contains(nodeId)) {
+                nodes[index] = nodeId;
+                xs[index] = coordinates.getX(nodeId);
+                ys[index] = coordinates.getY(nodeId);
+                ++index;
+            }
+        }
+
+        build(0, size, 0);
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * Returns the node closest to the point <tt>(x, y)</tt>.
+     *
+     * @param x the x-coordinate of the query point.
+     * @param y the y-coordinate of the query point.
+     * @return the closest node, or {@code -1} if the index is empty.
+     */
+    public int nearestNode(double x, double y) {
+        int[] nearest = kNearest(x, y, 1);
+        return nearest.length == 0 ? -1 : nearest[0];
+    }
+
+    /**
+     * Returns the (at most) {@code k} nodes closest to the point
+     * <tt>(x, y)</tt>.
+     *
+     * @param x the x-coordinate of the query point.
+     * @param y the y-coordinate of the query point.
+     * @param k the maximum number of nodes to return.
+     * @return the closest nodes in ascending order of distance.
+     */
+    public int[] kNearest(double x, double y, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException(
+                    "The input k is negative: " + k + ".");
+        }
+
+        Neighbours neighbours = new Neighbours(Math.min(k, nodes.length));
+
+        if (neighbours.capacity > 0) {
+            searchNearest(0, nodes.length, 0, x, y, neighbours);
+        }
+
+        return neighbours.toSortedNodes();
+    }
+
+    /**
+     * Returns all the nodes within the axis-aligned rectangle
+     * <tt>[minX, maxX] x [minY, maxY]</tt>.
+     *
+     * @param minX the smallest x-coordinate.
+     * @param minY the smallest y-coordinate.
+     * @param maxX the largest x-coordinate.
+     * @param maxY the largest y-coordinate.
+     * @return the nodes in the rectangle, in no particular order.
+     */
+    public int[] rangeQuery(double minX, double minY, double maxX, double maxY) {
+        NodeList result = new NodeList();
+        searchRange(0, nodes.length, 0, minX, minY, maxX, maxY, result);
+        return result.toArray();
+    }
+
+    private void build(int fromIndex, int toIndex, int depth) {
+        while (toIndex - fromIndex > LEAF_SIZE) {
+            int middleIndex = (fromIndex + toIndex) >>> 1;
+            select(fromIndex, toIndex, middleIndex, depth & 1);
+            build(fromIndex, middleIndex, depth + 1);
+            fromIndex = middleIndex + 1;
+            ++depth;
+        }
+    }
+
+    /**
+     * Reorders the range so that the entry at {@code k} is the one that would
+     * be there if the range were sorted by the coordinate {@code axis}, with
+     * no greater entries before it and no smaller after it.
+     */
+    private void select(int fromIndex, int toIndex, int k, int axis) {
+        double[] keys = axis == 0 ? xs : ys;
+        int left = fromIndex;
+        int right = toIndex - 1;
+
+        while (left < right) {
+            double pivot = keys[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    ++i;
+                }
+
+                while (keys[j] > pivot) {
+                    --j;
+                }
+
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        int node = nodes[i];
+        nodes[i] = nodes[j];
+        nodes[j] = node;
+        double x = xs[i];
+        xs[i] = xs[j];
+        xs[j] = x;
+        double y = ys[i];
+        ys[i] = ys[j];
+        ys[j] = y;
+    }
+
+    private void searchNearest(int fromIndex,
+                               int toIndex,
+                               int depth,
+                               double x,
+                               double y,
+                               Neighbours neighbours) {
+        if (toIndex - fromIndex <= LEAF_SIZE) {
+            for (int i = fromIndex; i < toIndex; ++i) {
+                neighbours.offer(i, distanceSquared(i, x, y));
+            }
+
+            return;
+        }
+
+        int middleIndex = (fromIndex + toIndex) >>> 1;
+        neighbours.offer(middleIndex, distanceSquared(middleIndex, x, y));
+        double delta = (depth & 1) == 0 ? x - xs[middleIndex]
+                                        : y - ys[middleIndex];
+
+        if (delta < 0.0) {
+            searchNearest(fromIndex, middleIndex, depth + 1, x, y, neighbours);
+
+            if (delta * delta < neighbours.getBound()) {
+                searchNearest(middleIndex + 1,
+                              toIndex,
+                              depth + 1,
+                              x,
+                              y,
+                              neighbours);
+            }
+        } else {
+            searchNearest(middleIndex + 1,
+                          toIndex,
+                          depth + 1,
+                          x,
+                          y,
+                          neighbours);
+
+            if (delta * delta < neighbours.getBound()) {
+                searchNearest(fromIndex,
+                              middleIndex,
+                              depth + 1,
+                              x,
+                              y,
+                              neighbours);
+            }
+        }
+    }
+
+    private void searchRange(int fromIndex,
+                             int toIndex,
+                             int depth,
+                             double minX,
+                             double minY,
+                             double maxX,
+                             double maxY,
+                             NodeList result) {
+        if (toIndex - fromIndex <= LEAF_SIZE) {
+            for (int i = fromIndex; i < toIndex; ++i) {
+                if (xs[i] >= minX && xs[i] <= maxX &&
+                        ys[i] >= minY && ys[i] <= maxY) {
+                    result.add(nodes[i]);
+                }
+            }
+
+            return;
+        }
+
+        int middleIndex = (fromIndex + toIndex) >>> 1;
+        double x = xs[middleIndex];
+        double y = ys[middleIndex];
+
+        if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+            result.add(nodes[middleIndex]);
+        }
+
+        double split = (depth & 1) == 0 ? x : y;
+        double min = (depth & 1) == 0 ? minX : minY;
+        double max = (depth & 1) == 0 ? maxX : maxY;
+
+        if (min <= split) {
+            searchRange(fromIndex, middleIndex, depth + 1,
+                        minX, minY, maxX, maxY, result);
+        }
+
+        if (max >= split) {
+            searchRange(middleIndex + 1, toIndex, depth + 1,
+                        minX, minY, maxX, maxY, result);
+        }
+    }
+
+    private double distanceSquared(int index, double x, double y) {
+        double dx = xs[index] - x;
+        double dy = ys[index] - y;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * This class implements a bounded binary max-heap of the best candidates
+     * found so far, keyed by the squared distance.
+     */
+    private final class Neighbours {
+
+        private final int capacity;
+        private final int[] indices;
+        private final double[] distances;
+        private int size;
+
+        Neighbours(int capacity) {
+            this.capacity = capacity;
+            this.indices = new int[capacity];
+            this.distances = new double[capacity];
+        }
+
+        /**
+         * Returns the squared distance a candidate must beat.
+         */
+        double getBound() {
+            return size < capacity ? Double.POSITIVE_INFINITY : distances[0];
+        }
+
+        void offer(int index, double distance) {
+            if (size < capacity) {
+                siftUp(size++, index, distance);
+            } else if (distance < distances[0]) {
+                siftDown(index, distance);
+            }
+        }
+
+        int[] toSortedNodes() {
+            int[] result = new int[size];
+
+            while (size > 0) {
+                int topIndex = indices[0];
+                --size;
+                result[size] = nodes[topIndex];
+
+                if (size > 0) {
+                    siftDown(indices[size], distances[size]);
+                }
+            }
+
+            return result;
+        }
+
+        private void siftUp(int position, int index, double distance) {
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+
+                if (distances[parent] >= distance) {
+                    break;
+                }
+
+                indices[position] = indices[parent];
+                distances[position] = distances[parent];
+                position = parent;
+            }
+
+            indices[position] = index;
+            distances[position] = distance;
+        }
+
+        private void siftDown(int index, double distance) {
+            int position = 0;
+
+            while (true) {
+                int child = 2 * position + 1;
+
+                if (child >= size) {
+                    break;
+                }
+
+                if (child + 1 < size && distances[child + 1] > distances[child]) {
+                    ++child;
+                }
+
+                if (distances[child] <= distance) {
+                    break;
+                }
+
+                indices[position] = indices[child];
+                distances[position] = distances[child];
+                position = child;
+            }
+
+            indices[position] = index;
+            distances[position] = distance;
+        }
+    }
+
+    /**
+     * This class implements a growable list of nodes.
+     */
+    private static final class NodeList {
+
+        private int[] nodes = NO_NODES;
+        private int size;
+
+        void add(int node) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, Math.max(8, 2 * size));
+            }
+
+            nodes[size++] = node;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(nodes, size);
+        }
+    }
+}
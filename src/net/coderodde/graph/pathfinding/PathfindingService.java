@@ -0,0 +1,231 @@
+package net.coderodde.graph.pathfinding;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * This class serves shortest path queries from many threads at once. Since a
+ * pathfinder keeps its search state in instance fields, each query borrows a
+ * pathfinder from a bounded pool and returns it when done. The pathfinders are
+ * created lazily by the given factory, which should make all of them share the
+ * same graph, weight function and heuristic function. Those must not be
+ * modified while the service is in use.
+ * <p>
+ * If all the pathfinders in the pool are busy, a synchronous query waits until
+ * one is returned. The wait is announced to the fork/join pool running the
+ * query, if any, so that the pool may compensate for the blocked worker.
+ * <p>
+ * By default, the asynchronous queries run on a dedicated executor with as
+ * many threads as there are pathfinders, so they never wait for a pathfinder
+ * and never occupy the common fork/join pool, which the batch computations of
+ * this library use.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class PathfindingService {
+
+    /**
+     * The seconds an idle thread of the default executor waits for a new
+     * query before it terminates.
+     */
+    private static final long IDLE_THREAD_SECONDS = 60L;
+
+    private final Supplier<? extends AbstractPathfinder> pathfinderFactory;
+    private final Executor executor;
+    private final int poolCapacity;
+    private final BlockingQueue<AbstractPathfinder> idlePathfinders;
+    private final AtomicInteger createdPathfinderCount = new AtomicInteger();
+
+    /**
+     * Constructs a service holding at most as many pathfinders as there are
+     * available processors and running the asynchronous queries in a
+     * dedicated executor with as many threads.
+     *
+     * @param pathfinderFactory the pathfinder factory.
+     */
+    public PathfindingService(
+            Supplier<? extends AbstractPathfinder> pathfinderFactory) {
+        this(pathfinderFactory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a service holding at most {@code poolCapacity} pathfinders
+     * and running the asynchronous queries in a dedicated executor with as
+     * many threads.
+     *
+     * @param pathfinderFactory the pathfinder factory.
+     * @param poolCapacity      the maximum number of pathfinders.
+     */
+    public PathfindingService(
+            Supplier<? extends AbstractPathfinder> pathfinderFactory,
+            int poolCapacity) {
+        this(pathfinderFactory,
+             poolCapacity,
+             createExecutor(Math.max(1, poolCapacity)));
+    }
+
+    /**
+     * Constructs a service holding at most {@code poolCapacity} pathfinders
+     * and running the asynchronous queries in {@code executor}.
+     *
+     * @param pathfinderFactory the pathfinder factory.
+     * @param poolCapacity      the maximum number of pathfinders.
+     * @param executor          the executor for asynchronous queries.
+     */
+    public PathfindingService(
+            Supplier<? extends AbstractPathfinder> pathfinderFactory,
+            int poolCapacity,
+            Executor executor) {
+        this.pathfinderFactory =
+                Objects.requireNonNull(pathfinderFactory,
+                                       "The input pathfinder factory is null.");
+        this.executor = Objects.requireNonNull(executor,
+                                               "The input executor is null.");
+
+        if (poolCapacity < 1) {
+            throw new IllegalArgumentException(
+                    "The pool capacity is less than 1: " + poolCapacity + ".");
+        }
+
+        this.poolCapacity = poolCapacity;
+        this.idlePathfinders = new ArrayBlockingQueue<>(poolCapacity);
+    }
+
+    /**
+     * Searches for a shortest path from {@code sourceNodeId} to
+     * {@code targetNodeId} in the calling thread.
+     *
+     * @param sourceNodeId the source node.
+     * @param targetNodeId the target node.
+     * @return a shortest path.
+     */
+    public DirectedGraphPath search(int sourceNodeId, int targetNodeId) {
+        AbstractPathfinder pathfinder = acquirePathfinder();
+
+        try {
+            return pathfinder.search(sourceNodeId, targetNodeId);
+        } finally {
+            idlePathfinders.add(pathfinder);
+        }
+    }
+
+    /**
+     * Searches for a shortest path from {@code sourceNodeId} to
+     * {@code targetNodeId} in the executor of this service. If the search
+     * fails, the returned future completes exceptionally.
+     *
+     * @param sourceNodeId the source node.
+     * @param targetNodeId the target node.
+     * @return the future of a shortest path.
+     */
+    public CompletableFuture<DirectedGraphPath> searchAsync(int sourceNodeId,
+                                                            int targetNodeId) {
+        return CompletableFuture.supplyAsync(
+                () -> search(sourceNodeId, targetNodeId),
+                executor);
+    }
+
+    /**
+     * Returns the maximum number of pathfinders this service may hold.
+     *
+     * @return the pool capacity.
+     */
+    public int getPoolCapacity() {
+        return poolCapacity;
+    }
+
+    private AbstractPathfinder acquirePathfinder() {
+        AbstractPathfinder pathfinder = idlePathfinders.poll();
+
+        if (pathfinder != null) {
+            return pathfinder;
+        }
+
+        for (int count = createdPathfinderCount.get();
+                count < poolCapacity;
+                count = createdPathfinderCount.get()) {
+            if (createdPathfinderCount.compareAndSet(count, count + 1)) {
+                return createPathfinder();
+            }
+        }
+
+        try {
+            PathfinderWait wait = new PathfinderWait();
+            ForkJoinPool.managedBlock(wait);
+            return wait.pathfinder;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                    "Interrupted while waiting for a pathfinder.", ex);
+        }
+    }
+
+    /**
+     * Creates an executor of at most {@code threadCount} daemon threads, which
+     * terminate when idle.
+     */
+    private static Executor createExecutor(int threadCount) {
+        ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(threadCount,
+                                       threadCount,
+                                       IDLE_THREAD_SECONDS,
+                                       TimeUnit.SECONDS,
+                                       new LinkedBlockingQueue<>(),
+                                       runnable -> {
+                                           Thread thread =
+                                                   new Thread(runnable);
+                                           thread.setDaemon(true);
+                                           return thread;
+                                       });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private AbstractPathfinder createPathfinder() {
+        try {
+            return Objects.requireNonNull(pathfinderFactory.get(),
+                                          "The factory returned null.");
+        } catch (RuntimeException ex) {
+            // Give the slot back so that a later query may try again.
+            createdPathfinderCount.decrementAndGet();
+            throw ex;
+        }
+    }
+
+    /**
+     * Waits for an idle pathfinder, letting a fork/join pool compensate for
+     * the blocked worker.
+     */
+    private final class PathfinderWait implements ForkJoinPool.ManagedBlocker {
+
+        private AbstractPathfinder pathfinder;
+
+        @Override
+        public boolean block() throws InterruptedException {
+            if (pathfinder == null) {
+                pathfinder = idlePathfinders.take();
+            }
+
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            if (pathfinder == null) {
+                pathfinder = idlePathfinders.poll();
+            }
+
+            return pathfinder != null;
+        }
+    }
+}
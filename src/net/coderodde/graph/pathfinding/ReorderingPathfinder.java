@@ -0,0 +1,91 @@
+package net.coderodde.graph.pathfinding;
+
+import java.util.Objects;
+import net.coderodde.graph.DirectedGraph;
+
+/**
+ * This class decorates a pathfinder running on a graph renumbered by a
+ * {@link NodeReordering}, so that the callers keep using the original node
+ * identifiers: the terminal nodes are renumbered before the search, and the
+ * path found is translated back.
+ * <p>
+ * This class is as thread-safe as the decorated pathfinder.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class ReorderingPathfinder extends AbstractPathfinder {
+
+    private final DirectedGraph originalGraph;
+    private final NodeReordering reordering;
+    private final AbstractPathfinder pathfinder;
+
+    /**
+     * Constructs a reordering pathfinder over a renumbered compact graph.
+     *
+     * @param reordering the reordering of the graph of {@code pathfinder}.
+     * @param pathfinder the pathfinder running on the renumbered graph.
+     */
+    public ReorderingPathfinder(NodeReordering reordering,
+                                AbstractPathfinder pathfinder) {
+        this(null, reordering, pathfinder);
+    }
+
+    /**
+     * Constructs a reordering pathfinder.
+     *
+     * @param originalGraph the graph before renumbering, reported by the
+     *                      failed searches.
+     * @param reordering    the reordering of the graph of {@code pathfinder}.
+     * @param pathfinder    the pathfinder running on the renumbered graph.
+     */
+    public ReorderingPathfinder(DirectedGraph originalGraph,
+                                NodeReordering reordering,
+                                AbstractPathfinder pathfinder) {
+        this.originalGraph = originalGraph;
+        this.reordering = Objects.requireNonNull(reordering,
+                                                 "The input reordering is null.");
+        this.pathfinder = Objects.requireNonNull(pathfinder,
+                                                 "The input pathfinder is null.");
+    }
+
+    @Override
+    public DirectedGraphPath search(int sourceNodeId, int targetNodeId) {
+        int reorderedSourceNodeId = reordering.getNewId(sourceNodeId);
+        int reorderedTargetNodeId = reordering.getNewId(targetNodeId);
+
+        try {
+            return reordering.restore(
+                    pathfinder.search(reorderedSourceNodeId,
+                                      reorderedTargetNodeId));
+        } catch (TargetUnreachableException ex) {
+            throw new TargetUnreachableException(originalGraph,
+                                                 sourceNodeId,
+                                                 targetNodeId);
+        }
+    }
+
+    public NodeReordering getReordering() {
+        return reordering;
+    }
+
+    @Override
+    public void setStatisticsEnabled(boolean enabled) {
+        pathfinder.setStatisticsEnabled(enabled);
+    }
+
+    @Override
+    public boolean isStatisticsEnabled() {
+        return pathfinder.isStatisticsEnabled();
+    }
+
+    @Override
+    public SearchStatistics getSearchStatistics() {
+        return pathfinder.getSearchStatistics();
+    }
+
+    @Override
+    public LatencyHistogram getLatencyHistogram() {
+        return pathfinder.getLatencyHistogram();
+    }
+}
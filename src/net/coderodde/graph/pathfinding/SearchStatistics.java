@@ -0,0 +1,141 @@
+package net.coderodde.graph.pathfinding;
+
+/**
+ * This class holds the work counters of the most recent search of a
+ * pathfinder, and the number of searches recorded so far. The counters are
+ * published by the pathfinder at the end of each search, so reading them
+ * during a search returns the values of the previous one.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class SearchStatistics {
+
+    private long searchCount;
+    private int expandedNodes;
+    private int relaxedArcs;
+    private int heapPushes;
+    private int heapPops;
+    private int stalePops;
+    private int peakOpenSize;
+    private int prunedNodes;
+    private long latencyNanos;
+
+    SearchStatistics() {}
+
+    /**
+     * Returns the number of searches recorded.
+     *
+     * @return the number of searches.
+     */
+    public long getSearchCount() {
+        return searchCount;
+    }
+
+    /**
+     * Returns the number of nodes whose outgoing (or, in a backward search,
+     * incoming) arcs were scanned.
+     *
+     * @return the number of expanded nodes.
+     */
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    /**
+     * Returns the number of arcs considered for relaxation.
+     *
+     * @return the number of relaxed arcs.
+     */
+    public int getRelaxedArcs() {
+        return relaxedArcs;
+    }
+
+    /**
+     * Returns the number of nodes added to the open sets. Decreasing the
+     * priority of a node already in an open set is not counted.
+     *
+     * @return the number of heap insertions.
+     */
+    public int getHeapPushes() {
+        return heapPushes;
+    }
+
+    /**
+     * Returns the number of nodes removed from the open sets.
+     *
+     * @return the number of heap extractions.
+     */
+    public int getHeapPops() {
+        return heapPops;
+    }
+
+    /**
+     * Returns the number of removed nodes that were skipped because they had
+     * already been closed, for example by the opposite search direction.
+     *
+     * @return the number of stale extractions.
+     */
+    public int getStalePops() {
+        return stalePops;
+    }
+
+    /**
+     * Returns the largest total size of the open sets during the search.
+     *
+     * @return the peak open set size.
+     */
+    public int getPeakOpenSize() {
+        return peakOpenSize;
+    }
+
+    /**
+     * Returns the number of nodes closed without expansion because they could
+     * not improve the best path found so far.
+     *
+     * @return the number of pruned nodes.
+     */
+    public int getPrunedNodes() {
+        return prunedNodes;
+    }
+
+    /**
+     * Returns the duration of the search in nanoseconds.
+     *
+     * @return the search latency.
+     */
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "[expanded: " + expandedNodes +
+               ", relaxed: " + relaxedArcs +
+               ", pushes: " + heapPushes +
+               ", pops: " + heapPops +
+               ", stale pops: " + stalePops +
+               ", peak open: " + peakOpenSize +
+               ", pruned: " + prunedNodes +
+               ", latency: " + latencyNanos + " ns]";
+    }
+
+    void record(int expandedNodes,
+                int relaxedArcs,
+                int heapPushes,
+                int heapPops,
+                int stalePops,
+                int peakOpenSize,
+                int prunedNodes,
+                long latencyNanos) {
+        ++this.searchCount;
+        this.expandedNodes = expandedNodes;
+        this.relaxedArcs   = relaxedArcs;
+        this.heapPushes    = heapPushes;
+        this.heapPops      = heapPops;
+        this.stalePops     = stalePops;
+        this.peakOpenSize  = peakOpenSize;
+        this.prunedNodes   = prunedNodes;
+        this.latencyNanos  = latencyNanos;
+    }
+}
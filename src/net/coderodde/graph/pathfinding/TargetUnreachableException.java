@@ -15,6 +15,18 @@ public class TargetUnreachableException extends RuntimeException {
         this.sourceNode = sourceNode;
         this.targetNode = targetNode;
     }
+
+    /**
+     * Constructs the exception for a search that does not run on a
+     * {@link DirectedGraph}, such as a search over a compact graph or over
+     * precomputed data. {@link #getGraph()} returns {@code null}.
+     *
+     * @param sourceNode the source node.
+     * @param targetNode the target node.
+     */
+    public TargetUnreachableException(Integer sourceNode, Integer targetNode) {
+        this(null, sourceNode, targetNode);
+    }
     
     public DirectedGraph getGraph() {
         return graph;
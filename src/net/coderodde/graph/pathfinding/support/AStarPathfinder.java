@@ -1,13 +1,10 @@
 package net.coderodde.graph.pathfinding.support;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Objects;
-import java.util.PriorityQueue;
-import java.util.Set;
+import java.util.function.IntPredicate;
+import net.coderodde.graph.CompactDirectedGraph;
 import net.coderodde.graph.DirectedGraph;
 import net.coderodde.graph.DirectedGraphWeightFunction;
 import net.coderodde.graph.pathfinding.AbstractPathfinder;
@@ -18,72 +15,459 @@ import net.coderodde.graph.pathfinding.TargetUnreachableException;
 public final class AStarPathfinder extends AbstractPathfinder {
 
     private final HeuristicFunction heuristicFunction;
-    private final PriorityQueue<HeapEntry> OPEN = new PriorityQueue<>();
-    private final Set<Integer> CLOSED = new HashSet<>();
-    private final Map<Integer, Double> DISTANCE = new HashMap<>();
-    private final Map<Integer, Integer> PARENTS = new HashMap<>();
+    private final IndexedHeap OPEN;
+    private final SearchState STATE;
+
+    /**
+     * Gives the nodes of a hash-based graph the slots indexing the heap and
+     * the search state, or {@code null} on a compact graph, whose nodes are
+     * the slots themselves.
+     */
+    private final NodeIndex nodeIndex;
+
+    /**
+     * The target nodes of the current one-to-many search are stamped with the
+     * current value of {@code targetStamp}.
+     */
+    private int[] targetStamps = new int[0];
+    private int targetStamp;
+
+    /**
+     * The mask hiding nodes and arcs from the current search, or {@code null}.
+     */
+    private SearchMask mask;
+
+    /**
+     * The arc flags pruning the searches, or {@code null}.
+     */
+    private ArcFlags arcFlags;
+
+    /**
+     * The region whose arc flags prune the current search, or {@code -1} if
+     * the current search is not pruned.
+     */
+    private int flagRegion = -1;
 
     public AStarPathfinder(DirectedGraph graph,
                            DirectedGraphWeightFunction weightFunction,
                            HeuristicFunction heuristicFunction) {
+        this(graph, weightFunction, heuristicFunction, new DaryHeap());
+    }
+
+    public AStarPathfinder(DirectedGraph graph,
+                           DirectedGraphWeightFunction weightFunction,
+                           HeuristicFunction heuristicFunction,
+                           IndexedHeap heap) {
         super(graph, weightFunction);
         this.heuristicFunction = 
                 Objects.requireNonNull(heuristicFunction,
                                        "The input heuristic function is null.");
+        this.OPEN = Objects.requireNonNull(heap, "The input heap is null.");
+        this.STATE = new SearchState();
+        this.nodeIndex = new NodeIndex();
+    }
+
+    public AStarPathfinder(CompactDirectedGraph graph,
+                           HeuristicFunction heuristicFunction) {
+        this(graph, heuristicFunction, new DaryHeap());
+    }
+
+    public AStarPathfinder(CompactDirectedGraph graph,
+                           HeuristicFunction heuristicFunction,
+                           IndexedHeap heap) {
+        super(graph);
+        this.heuristicFunction = 
+                Objects.requireNonNull(heuristicFunction,
+                                       "The input heuristic function is null.");
+        this.OPEN = Objects.requireNonNull(heap, "The input heap is null.");
+        this.STATE = new SearchState(graph.getNodeCount());
+        this.nodeIndex = null;
+    }
+
+    /**
+     * Makes the point-to-point searches skip the arcs not flagged for the
+     * region of the target node. Only a compact graph has the arc indices the
+     * flags refer to.
+     *
+     * @param arcFlags the arc flags of the graph, or {@code null} to stop
+     *                 pruning.
+     */
+    public void setArcFlags(ArcFlags arcFlags) {
+        if (arcFlags != null && arcFlags.getGraph() != compactGraph) {
+            throw new IllegalArgumentException(
+                    "The arc flags are not computed for the graph of this " +
+                    "pathfinder.");
+        }
+
+        this.arcFlags = arcFlags;
+    }
+
+    public ArcFlags getArcFlags() {
+        return arcFlags;
     }
 
     @Override
     public DirectedGraphPath search(int sourceNodeId, int targetNodeId) {
-        init(sourceNodeId);
+        checkNodeId(sourceNodeId);
+        checkNodeId(targetNodeId);
+        beginSearch();
 
-        while (!OPEN.isEmpty()) {
-            Integer currentNodeId = OPEN.remove().getNode();
+        try {
+            trimNodeIndex();
+            init(sourceNodeId);
+            int targetSlot = toSlot(targetNodeId);
 
-            if (currentNodeId.equals(targetNodeId)) {
-                return tracebackPath(currentNodeId, PARENTS);
+            if (arcFlags != null) {
+                flagRegion = arcFlags.getRegion(targetNodeId);
             }
 
-            if (CLOSED.contains(currentNodeId)) {
-                continue;
+            while (!OPEN.isEmpty()) {
+                int currentSlot = OPEN.extractMinimum();
+                ++heapPopCount;
+
+                if (currentSlot == targetSlot) {
+                    return tracebackPath(currentSlot,
+                                         STATE.getParents(),
+                                         null,
+                                         STATE.getDistance(currentSlot),
+                                         getSlotNodes());
+                }
+
+                STATE.close(currentSlot);
+                expand(currentSlot, targetNodeId);
             }
 
-            CLOSED.add(currentNodeId);
+            throw new TargetUnreachableException(graph,
+                                                 sourceNodeId, 
+                                                 targetNodeId);
+        } finally {
+            endSearch();
+        }
+    }
 
-            for (Integer childNodeId : graph.getChildrenOf(currentNodeId)) {
-                if (CLOSED.contains(childNodeId)) {
-                    continue;
+    /**
+     * Returns the slot of the node {@code nodeId}, by which the search masks
+     * refer to it. The slots stay valid as long as the graph loses no nodes.
+     *
+     * @param nodeId the node.
+     * @return the slot of the node.
+     */
+    int getSlot(int nodeId) {
+        checkNodeId(nodeId);
+        return toSlot(nodeId);
+    }
+
+    /**
+     * Searches a shortest path avoiding the nodes and arcs hidden by the mask
+     * {@code mask}, which is keyed by the slots of {@link #getSlot(int)}.
+     * 
+     * @param sourceNodeId the source node.
+     * @param targetNodeId the target node.
+     * @param mask         the search mask.
+     * @return a shortest path in the masked graph.
+     */
+    DirectedGraphPath search(int sourceNodeId, 
+                             int targetNodeId, 
+                             SearchMask mask) {
+        this.mask = mask;
+
+        try {
+            return search(sourceNodeId, targetNodeId);
+        } finally {
+            this.mask = null;
+        }
+    }
+
+    /**
+     * Returns the distance of the node {@code nodeId} from the source node of
+     * the most recent search. Valid for the nodes of the path found.
+     * 
+     * @param nodeId the node.
+     * @return the distance from the source node.
+     */
+    double getDistance(int nodeId) {
+        if (nodeIndex == null) {
+            return STATE.getDistance(nodeId);
+        }
+
+        int slot = nodeIndex.findSlot(nodeId);
+        return slot == SearchState.NO_NODE ? Double.POSITIVE_INFINITY
+                                           : STATE.getDistance(slot);
+    }
+
+    /**
+     * Computes the shortest path distances from {@code sourceNodeId} to each
+     * node in {@code targetNodeIds} and stores them in {@code distances}
+     * starting from the index {@code offset}. The search stops as soon as all
+     * the target nodes are settled. Unreachable targets receive positive
+     * infinity. The result is correct only if the heuristic function is
+     * constant zero, that is, if this pathfinder implements Dijkstra's
+     * algorithm.
+     * 
+     * @param sourceNodeId  the source node.
+     * @param targetNodeIds the target nodes.
+     * @param distances     the output array.
+     * @param offset        the index of the distance to the first target.
+     */
+    void computeDistances(int sourceNodeId,
+                          int[] targetNodeIds,
+                          double[] distances,
+                          int offset) {
+        checkNodeId(sourceNodeId);
+        trimNodeIndex();
+        int unsettledTargets = stampTargets(targetNodeIds);
+        beginSearch();
+
+        try {
+            init(sourceNodeId);
+
+            while (unsettledTargets > 0 && !OPEN.isEmpty()) {
+                int currentSlot = OPEN.extractMinimum();
+                ++heapPopCount;
+
+                if (isStampedTarget(currentSlot)) {
+                    --unsettledTargets;
                 }
 
-                double tentativeDistance = 
-                        DISTANCE.get(currentNodeId) +
-                        weightFunction.get(currentNodeId, childNodeId);
-
-                if (!DISTANCE.containsKey(childNodeId)
-                        || DISTANCE.get(childNodeId) > tentativeDistance) {
-                    DISTANCE.put(childNodeId, tentativeDistance);
-                    PARENTS.put(childNodeId, currentNodeId);
-                    OPEN.add(
-                        new HeapEntry(
-                            childNodeId, 
-                            tentativeDistance +
-                            heuristicFunction
-                                    .estimateDistanceBetween(childNodeId, 
-                                                             targetNodeId)));
+                STATE.close(currentSlot);
+                expand(currentSlot, SearchState.NO_NODE);
+            }
+
+            for (int i = 0; i < targetNodeIds.length; ++i) {
+                distances[offset + i] = getDistance(targetNodeIds[i]);
+            }
+        } finally {
+            endSearch();
+        }
+    }
+
+    /**
+     * Finds the (at most) {@code k} target nodes closest to
+     * {@code sourceNodeId}, stopping as soon as the {@code k}th target is 
+     * settled. The result is correct only if the heuristic function is
+     * constant zero.
+     * 
+     * @param sourceNodeId  the source node.
+     * @param targetNodeIds the target nodes.
+     * @param k             the maximum number of target nodes to find.
+     * @return the nearest target nodes in ascending order of distance.
+     */
+    NearestTargets findNearestTargets(int sourceNodeId,
+                                      int[] targetNodeIds,
+                                      int k) {
+        checkNodeId(sourceNodeId);
+        trimNodeIndex();
+        int targetCount = stampTargets(targetNodeIds);
+        return findNearestTargets(sourceNodeId,
+                                  Math.min(k, targetCount),
+                                  this::isStampedTarget);
+    }
+
+    /**
+     * Finds the (at most) {@code k} target nodes closest to
+     * {@code sourceNodeId}, the target nodes being the set bits of
+     * {@code targetNodeIds}.
+     * 
+     * @param sourceNodeId  the source node.
+     * @param targetNodeIds the set of target nodes.
+     * @param k             the maximum number of target nodes to find.
+     * @return the nearest target nodes in ascending order of distance.
+     */
+    NearestTargets findNearestTargets(int sourceNodeId,
+                                      BitSet targetNodeIds,
+                                      int k) {
+        checkNodeId(sourceNodeId);
+        trimNodeIndex();
+        return findNearestTargets(sourceNodeId,
+                                  Math.min(k, targetNodeIds.cardinality()),
+                                  slot -> {
+                                      int nodeId = toNodeId(slot);
+                                      return nodeId >= 0 &&
+                                             targetNodeIds.get(nodeId);
+                                  });
+    }
+
+    /**
+     * Finds the (at most) {@code k} nearest target nodes, the target slots
+     * being those accepted by {@code isTarget}.
+     */
+    private NearestTargets findNearestTargets(int sourceNodeId,
+                                              int k,
+                                              IntPredicate isTarget) {
+        int[] targets = new int[k];
+        double[] distances = new double[k];
+        DirectedGraphPath[] paths = new DirectedGraphPath[k];
+        int foundTargets = 0;
+        beginSearch();
+
+        try {
+            init(sourceNodeId);
+
+            while (foundTargets < k && !OPEN.isEmpty()) {
+                int currentSlot = OPEN.extractMinimum();
+                ++heapPopCount;
+
+                if (isTarget.test(currentSlot)) {
+                    targets[foundTargets] = toNodeId(currentSlot);
+                    distances[foundTargets] = STATE.getDistance(currentSlot);
+                    paths[foundTargets] = 
+                            tracebackPath(currentSlot,
+                                          STATE.getParents(),
+                                          null,
+                                          distances[foundTargets],
+                                          getSlotNodes());
+
+                    if (++foundTargets == k) {
+                        break;
+                    }
                 }
+
+                STATE.close(currentSlot);
+                expand(currentSlot, SearchState.NO_NODE);
+            }
+
+            return new NearestTargets(targets, distances, paths, foundTargets);
+        } finally {
+            endSearch();
+        }
+    }
+
+    /**
+     * Stamps the slots of the target nodes with a new value of
+     * {@code targetStamp}.
+     * 
+     * @param targetNodeIds the target nodes.
+     * @return the number of distinct target nodes.
+     */
+    private int stampTargets(int[] targetNodeIds) {
+        if (++targetStamp == Integer.MAX_VALUE) {
+            Arrays.fill(targetStamps, 0);
+            targetStamp = 1;
+        }
+
+        int distinctTargets = 0;
+
+        for (int targetNodeId : targetNodeIds) {
+            checkNodeId(targetNodeId);
+            int targetSlot = toSlot(targetNodeId);
+
+            if (targetSlot >= targetStamps.length) {
+                targetStamps = Arrays.copyOf(
+                        targetStamps,
+                        Math.max(targetSlot + 1, 2 * targetStamps.length));
+            }
+
+            if (targetStamps[targetSlot] != targetStamp) {
+                targetStamps[targetSlot] = targetStamp;
+                ++distinctTargets;
             }
         }
 
-        throw new TargetUnreachableException(graph, sourceNodeId, targetNodeId);
+        return distinctTargets;
+    }
+
+    private boolean isStampedTarget(int slot) {
+        return slot < targetStamps.length 
+                && targetStamps[slot] == targetStamp;
+    }
+
+    /**
+     * Frees the slots of the nodes once there are many more of them than the
+     * nodes in the graph, as after removing many nodes, so that the arrays
+     * indexed by the slots stay proportional to the node count.
+     */
+    private void trimNodeIndex() {
+        if (nodeIndex != null &&
+                nodeIndex.size() > 2L * graph.getNodeCount() +
+                                   NodeIndex.DENSE_NODE_SLACK) {
+            nodeIndex.clear();
+        }
+    }
+
+    private int toSlot(int nodeId) {
+        return nodeIndex == null ? nodeId : nodeIndex.getSlot(nodeId);
+    }
+
+    private int toNodeId(int slot) {
+        return nodeIndex == null ? slot : nodeIndex.getNodeId(slot);
+    }
+
+    private int[] getSlotNodes() {
+        return nodeIndex == null ? null : nodeIndex.getNodeIds();
+    }
+
+    private void expand(int currentSlot, int targetNodeId) {
+        ++expandedNodeCount;
+
+        if (compactGraph != null) {
+            for (int arc = compactGraph.getOutgoingArcsBegin(currentSlot),
+                    end = compactGraph.getOutgoingArcsEnd(currentSlot);
+                    arc < end;
+                    ++arc) {
+                if (flagRegion >= 0 &&
+                        !arcFlags.isOutgoingArcFlagged(arc, flagRegion)) {
+                    continue;
+                }
+
+                relax(currentSlot,
+                      compactGraph.getOutgoingArcHead(arc),
+                      compactGraph.getOutgoingArcWeight(arc),
+                      targetNodeId);
+            }
+        } else {
+            int currentNodeId = nodeIndex.getNodeId(currentSlot);
+
+            for (Integer childNodeId : graph.getChildrenOf(currentNodeId)) {
+                relax(currentSlot,
+                      nodeIndex.getSlot(childNodeId),
+                      weightFunction.get(currentNodeId, childNodeId),
+                      targetNodeId);
+            }
+        }
+    }
+
+    private void relax(int currentSlot,
+                       int childSlot,
+                       double arcWeight,
+                       int targetNodeId) {
+        ++relaxedArcCount;
+
+        if (STATE.isClosed(childSlot)) {
+            return;
+        }
+
+        if (mask != null && !mask.isArcAllowed(currentSlot, childSlot)) {
+            return;
+        }
+
+        double tentativeDistance = STATE.getDistance(currentSlot) + arcWeight;
+
+        if (STATE.getDistance(childSlot) > tentativeDistance) {
+            double priority = 
+                    tentativeDistance +
+                    heuristicFunction.estimateDistanceBetween(
+                            toNodeId(childSlot),
+                            targetNodeId);
+
+            if (OPEN.contains(childSlot)) {
+                OPEN.decreasePriority(childSlot, priority);
+            } else {
+                OPEN.add(childSlot, priority);
+                countHeapPush();
+            }
+
+            STATE.put(childSlot, tentativeDistance, currentSlot);
+        }
     }
 
     private void init(int sourceNodeId) {
         OPEN.clear();
-        CLOSED.clear();
-        PARENTS.clear();
-        DISTANCE.clear();
+        STATE.reset();
+        flagRegion = -1;
+        int sourceSlot = toSlot(sourceNodeId);
 
-        OPEN.add(new HeapEntry(sourceNodeId, 0.0));
-        PARENTS.put(sourceNodeId, null);
-        DISTANCE.put(sourceNodeId, 0.0);
+        OPEN.add(sourceSlot, 0.0);
+        countHeapPush();
+        STATE.put(sourceSlot, 0.0, SearchState.NO_NODE);
     }
 }
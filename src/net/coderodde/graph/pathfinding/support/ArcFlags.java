@@ -0,0 +1,400 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import net.coderodde.graph.CompactDirectedGraph;
+import net.coderodde.graph.pathfinding.DirectedGraphNodeCoordinates;
+
+/**
+ * This class implements the arc-flags preprocessing for goal-directed pruning.
+ * The nodes are partitioned into regions, and each arc receives a bit vector
+ * with one flag per region, telling whether the arc lies on some shortest path
+ * into the region. A search towards a target node may then skip all the arcs
+ * whose flag for the region of the target is off, and still find a shortest
+ * path.
+ * <p>
+ * An arc is flagged for its own region if both of its end nodes are in it.
+ * Otherwise, a backward Dijkstra search is run from each boundary node, that
+ * is, each node entered by an arc from another region, and every arc on the
+ * resulting shortest path graph towards the boundary node is flagged for the
+ * region of the boundary node. The boundary searches run in parallel in a
+ * fork/join pool.
+ * <p>
+ * The flags are stored in one {@code long} array parallel to the outgoing arc
+ * arrays of the graph, and in another one parallel to the incoming arc arrays,
+ * so that both the forward and the backward search directions may be pruned
+ * without translating the arc indices. Both hold the same flags: an incoming
+ * arc is flagged for a region if it lies on some shortest path into the region
+ * as well.
+ * <p>
+ * The flags are a snapshot of the graph. Instances of this class are immutable
+ * and thus thread-safe.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class ArcFlags {
+
+    private final CompactDirectedGraph graph;
+    private final int[] regions;
+    private final int regionCount;
+    private final int wordsPerArc;
+    private final long[] outgoingFlags;
+    private final long[] incomingFlags;
+
+    public ArcFlags(CompactDirectedGraph graph, int[] regions) {
+        this(graph, regions, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Preprocesses the arc flags of {@code graph} over the partition
+     * {@code regions}.
+     *
+     * @param graph   the graph to preprocess.
+     * @param regions the region of each node; the regions are numbered
+     *                {@code 0, 1, ..., R - 1}.
+     * @param pool    the pool running the boundary node searches.
+     */
+    public ArcFlags(CompactDirectedGraph graph,
+                    int[] regions,
+                    ForkJoinPool pool) {
+        this.graph = Objects.requireNonNull(graph, "The input graph is null.");
+        Objects.requireNonNull(regions, "The input region array is null.");
+        Objects.requireNonNull(pool, "The input pool is null.");
+
+        if (regions.length != graph.getNodeCount()) {
+            throw new IllegalArgumentException(
+                    "The region array length " + regions.length +
+                    " does not match the node count " +
+                    graph.getNodeCount() + ".");
+        }
+
+        int maximumRegion = -1;
+
+        for (int region : regions) {
+            if (region < 0) {
+                throw new IllegalArgumentException(
+                        "The region array contains a negative region: " +
+                        region + ".");
+            }
+
+            maximumRegion = Math.max(maximumRegion, region);
+        }
+
+        this.regions = regions.clone();
+        this.regionCount = maximumRegion + 1;
+        this.wordsPerArc = (regionCount + 63) >>> 6;
+
+        AtomicLongArray flags =
+                new AtomicLongArray(graph.getArcCount() * wordsPerArc);
+
+        flagIntraRegionArcs(flags);
+        flagBoundaryNodeSearches(flags, getBoundaryNodes(), pool);
+
+        this.outgoingFlags = new long[flags.length()];
+
+        for (int i = 0; i < outgoingFlags.length; ++i) {
+            outgoingFlags[i] = flags.get(i);
+        }
+
+        this.incomingFlags = mapToIncomingArcs(outgoingFlags);
+    }
+
+    /**
+     * Partitions the nodes of {@code graph} into the cells of a
+     * {@code columns x rows} grid laid over the bounding box of their
+     * coordinates. The cells are numbered row by row.
+     *
+     * @param graph       the graph whose nodes to partition.
+     * @param coordinates the node coordinates.
+     * @param columns     the number of grid columns.
+     * @param rows        the number of grid rows.
+     * @return the region of each node.
+     */
+    public static int[] partitionByGrid(CompactDirectedGraph graph,
+                                        DirectedGraphNodeCoordinates coordinates,
+                                        int columns,
+                                        int rows) {
+        Objects.requireNonNull(graph, "The input graph is null.");
+        Objects.requireNonNull(coordinates,
+                               "The input coordinate map is null.");
+
+        if (columns < 1 || rows < 1) {
+            throw new IllegalArgumentException(
+                    "The grid size is not positive: " + columns + " x " +
+                    rows + ".");
+        }
+
+        int nodeCount = graph.getNodeCount();
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+
+        for (int node = 0; node < nodeCount; ++node) {
+            if (!coordinates.contains(node)) {
+                throw new IllegalArgumentException(
+                        "The node " + node + " has no coordinates.");
+            }
+
+            minX = Math.min(minX, coordinates.getX(node));
+            minY = Math.min(minY, coordinates.getY(node));
+            maxX = Math.max(maxX, coordinates.getX(node));
+            maxY = Math.max(maxY, coordinates.getY(node));
+        }
+
+        double cellWidth  = (maxX - minX) / columns;
+        double cellHeight = (maxY - minY) / rows;
+        int[] regions = new int[nodeCount];
+
+        for (int node = 0; node < nodeCount; ++node) {
+            int column = getCell(coordinates.getX(node), minX, cellWidth,
+                                 columns);
+            int row = getCell(coordinates.getY(node), minY, cellHeight, rows);
+            regions[node] = row * columns + column;
+        }
+
+        return regions;
+    }
+
+    public CompactDirectedGraph getGraph() {
+        return graph;
+    }
+
+    public int getRegionCount() {
+        return regionCount;
+    }
+
+    public int getRegion(int nodeId) {
+        return regions[nodeId];
+    }
+
+    /**
+     * Returns {@code true} if the outgoing arc {@code arc} lies on some
+     * shortest path into the region {@code region}.
+     *
+     * @param arc    the index of the outgoing arc.
+     * @param region the region.
+     * @return {@code true} if the arc may not be skipped.
+     */
+    public boolean isOutgoingArcFlagged(int arc, int region) {
+        return isFlagged(outgoingFlags, arc, region);
+    }
+
+    /**
+     * Returns {@code true} if the incoming arc {@code arc} lies on some
+     * shortest path into the region {@code region}.
+     *
+     * @param arc    the index of the incoming arc.
+     * @param region the region.
+     * @return {@code true} if the arc may not be skipped.
+     */
+    public boolean isIncomingArcFlagged(int arc, int region) {
+        return isFlagged(incomingFlags, arc, region);
+    }
+
+    /**
+     * Returns the fraction of the arc flags that are on. The lower, the more
+     * a search is pruned.
+     *
+     * @return the fraction of flags on.
+     */
+    public double getFlagDensity() {
+        long count = 0L;
+
+        for (long word : outgoingFlags) {
+            count += Long.bitCount(word);
+        }
+
+        long total = (long) graph.getArcCount() * regionCount;
+        return total == 0L ? 0.0 : (double) count / total;
+    }
+
+    private boolean isFlagged(long[] flags, int arc, int region) {
+        return (flags[arc * wordsPerArc + (region >>> 6)] & (1L << region))
+                != 0L;
+    }
+
+    private static int getCell(double coordinate,
+                               double minimum,
+                               double cellSize,
+                               int cellCount) {
+        if (cellSize == 0.0) {
+            return 0;
+        }
+
+        return Math.min(cellCount - 1, (int)((coordinate - minimum) / cellSize));
+    }
+
+    private void flagIntraRegionArcs(AtomicLongArray flags) {
+        for (int node = 0; node < graph.getNodeCount(); ++node) {
+            int region = regions[node];
+
+            for (int arc = graph.getOutgoingArcsBegin(node),
+                    end = graph.getOutgoingArcsEnd(node);
+                    arc < end;
+                    ++arc) {
+                if (regions[graph.getOutgoingArcHead(arc)] == region) {
+                    setFlag(flags, arc, region);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the nodes entered by at least one arc from another region.
+     */
+    private int[] getBoundaryNodes() {
+        int[] boundaryNodes = new int[graph.getNodeCount()];
+        int size = 0;
+
+        for (int node = 0; node < graph.getNodeCount(); ++node) {
+            for (int arc = graph.getIncomingArcsBegin(node),
+                    end = graph.getIncomingArcsEnd(node);
+                    arc < end;
+                    ++arc) {
+                if (regions[graph.getIncomingArcTail(arc)] != regions[node]) {
+                    boundaryNodes[size++] = node;
+                    break;
+                }
+            }
+        }
+
+        return Arrays.copyOf(boundaryNodes, size);
+    }
+
+    private void flagBoundaryNodeSearches(AtomicLongArray flags,
+                                          int[] boundaryNodes,
+                                          ForkJoinPool pool) {
+        ParallelTasks.RangeTask task = (fromIndex, toIndex) -> {
+            double[] distances = new double[graph.getNodeCount()];
+            int[] settledNodes = new int[graph.getNodeCount()];
+            DaryHeap heap = new DaryHeap();
+
+            for (int i = fromIndex; i < toIndex; ++i) {
+                flagShortestPathsTo(boundaryNodes[i],
+                                    flags,
+                                    distances,
+                                    settledNodes,
+                                    heap);
+            }
+        };
+
+        ParallelTasks.runInParallel(pool, boundaryNodes.length, task);
+    }
+
+    /**
+     * Computes the distances of all nodes to {@code boundaryNode} and flags
+     * each arc <tt>(u, v)</tt> with <tt>d(u) = w(u, v) + d(v)</tt> for the
+     * region of {@code boundaryNode}. The arcs of the shortest path tree
+     * satisfy the equality exactly, since their distances were computed by
+     * the same sum.
+     */
+    private void flagShortestPathsTo(int boundaryNode,
+                                     AtomicLongArray flags,
+                                     double[] distances,
+                                     int[] settledNodes,
+                                     DaryHeap heap) {
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        distances[boundaryNode] = 0.0;
+        heap.clear();
+        heap.add(boundaryNode, 0.0);
+        int settledNodeCount = 0;
+
+        while (!heap.isEmpty()) {
+            int currentNode = heap.extractMinimum();
+            settledNodes[settledNodeCount++] = currentNode;
+            double currentDistance = distances[currentNode];
+
+            for (int arc = graph.getIncomingArcsBegin(currentNode),
+                    end = graph.getIncomingArcsEnd(currentNode);
+                    arc < end;
+                    ++arc) {
+                int parentNode = graph.getIncomingArcTail(arc);
+                double tentativeDistance = currentDistance +
+                                           graph.getIncomingArcWeight(arc);
+
+                if (distances[parentNode] > tentativeDistance) {
+                    if (heap.contains(parentNode)) {
+                        heap.decreasePriority(parentNode, tentativeDistance);
+                    } else {
+                        heap.add(parentNode, tentativeDistance);
+                    }
+
+                    distances[parentNode] = tentativeDistance;
+                }
+            }
+        }
+
+        int region = regions[boundaryNode];
+
+        for (int i = 0; i < settledNodeCount; ++i) {
+            int node = settledNodes[i];
+            double distance = distances[node];
+
+            for (int arc = graph.getOutgoingArcsBegin(node),
+                    end = graph.getOutgoingArcsEnd(node);
+                    arc < end;
+                    ++arc) {
+                if (distances[graph.getOutgoingArcHead(arc)] +
+                        graph.getOutgoingArcWeight(arc) == distance) {
+                    setFlag(flags, arc, region);
+                }
+            }
+        }
+    }
+
+    private void setFlag(AtomicLongArray flags, int arc, int region) {
+        int index = arc * wordsPerArc + (region >>> 6);
+        long bit = 1L << region;
+
+        if ((flags.get(index) & bit) == 0L) {
+            flags.getAndAccumulate(index, bit, (a, b) -> a | b);
+        }
+    }
+
+    /**
+     * Copies the flags of each outgoing arc to the index of the same arc in
+     * the incoming arc arrays. Parallel arcs of equal weight have equal flags,
+     * so any of them may be matched.
+     */
+    private long[] mapToIncomingArcs(long[] flags) {
+        long[] mappedFlags = new long[flags.length];
+
+        for (int node = 0; node < graph.getNodeCount(); ++node) {
+            for (int arc = graph.getIncomingArcsBegin(node),
+                    end = graph.getIncomingArcsEnd(node);
+                    arc < end;
+                    ++arc) {
+                int outgoingArc = findOutgoingArc(graph.getIncomingArcTail(arc),
+                                                  node,
+                                                  graph.getIncomingArcWeight(arc));
+                System.arraycopy(flags,
+                                 outgoingArc * wordsPerArc,
+                                 mappedFlags,
+                                 arc * wordsPerArc,
+                                 wordsPerArc);
+            }
+        }
+
+        return mappedFlags;
+    }
+
+    private int findOutgoingArc(int tailNode, int headNode, double weight) {
+        for (int arc = graph.getOutgoingArcsBegin(tailNode),
+                end = graph.getOutgoingArcsEnd(tailNode);
+                arc < end;
+                ++arc) {
+            if (graph.getOutgoingArcHead(arc) == headNode &&
+                    graph.getOutgoingArcWeight(arc) == weight) {
+                return arc;
+            }
+        }
+
+        throw new IllegalStateException(
+                "The incoming arc (" + tailNode + ", " + headNode +
+                ") has no outgoing counterpart.");
+    }
+}
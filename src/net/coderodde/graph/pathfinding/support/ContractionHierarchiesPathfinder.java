@@ -0,0 +1,822 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import net.coderodde.graph.CompactDirectedGraph;
+import net.coderodde.graph.DirectedGraph;
+import net.coderodde.graph.DirectedGraphWeightFunction;
+import net.coderodde.graph.pathfinding.AbstractPathfinder;
+import net.coderodde.graph.pathfinding.DirectedGraphPath;
+import net.coderodde.graph.pathfinding.TargetUnreachableException;
+
+/**
+ * This class implements contraction hierarchies due to Robert Geisberger,
+ * Peter Sanders, Dominik Schultes and Daniel Delling in "Contraction
+ * Hierarchies: Faster and Simpler Hierarchical Routing in Road Networks."
+ * <p>
+ * The preprocessing contracts the nodes one by one in the order of their
+ * importance, which is the edge difference (the number of shortcuts needed
+ * minus the number of arcs removed) plus the number of already contracted
+ * neighbours plus the level of the node in the hierarchy. A shortcut is added
+ * whenever a bounded witness search fails to find a path at least as short
+ * that avoids the contracted node. The initial importance of all nodes is
+ * computed in parallel; afterwards, the importance of a node is recomputed
+ * lazily, as the node is extracted from the queue. A query runs a
+ * bidirectional Dijkstra's algorithm that relaxes only the arcs leading to
+ * more important nodes, after which the shortcuts in the found path are
+ * unpacked into the original arcs.
+ * <p>
+ * The contracted graph may be saved to a file and loaded back.
+ * <p>
+ * <b>This class is not thread-safe.</b> If you need it in different threads,
+ * make sure each thread has its own object of this class.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class ContractionHierarchiesPathfinder extends AbstractPathfinder {
+
+    /**
+     * The magic number identifying contraction hierarchy files ("CH01").
+     */
+    private static final int MAGIC = 0x43483031;
+
+    /**
+     * The middle node value of arcs that are not shortcuts.
+     */
+    private static final int NO_MIDDLE_NODE = -1;
+
+    /**
+     * The maximum number of nodes a single witness search may settle.
+     */
+    private static final int WITNESS_SEARCH_SETTLE_LIMIT = 100;
+
+    private final int nodeCount;
+
+    /**
+     * The contraction order of each node. The more important the node, the
+     * higher the rank.
+     */
+    private final int[] ranks;
+
+    /**
+     * The arcs leading to more important nodes, grouped by their tails.
+     */
+    private final ArcArray upwardArcs;
+
+    /**
+     * The arcs coming from more important nodes, grouped by their heads.
+     */
+    private final ArcArray downwardArcs;
+
+    private final DaryHeap OPENA = new DaryHeap();
+    private final DaryHeap OPENB = new DaryHeap();
+    private final SearchState STATEA;
+    private final SearchState STATEB;
+
+    /**
+     * Contracts the input graph.
+     *
+     * @param graph the graph to contract.
+     */
+    public ContractionHierarchiesPathfinder(CompactDirectedGraph graph) {
+        Contractor contractor = new Contractor(graph);
+        contractor.contract();
+        this.nodeCount    = graph.getNodeCount();
+        this.ranks        = contractor.ranks;
+        this.upwardArcs   = contractor.upwardArcs.build(nodeCount);
+        this.downwardArcs = contractor.downwardArcs.build(nodeCount);
+        this.STATEA = new SearchState(nodeCount);
+        this.STATEB = new SearchState(nodeCount);
+    }
+
+    public ContractionHierarchiesPathfinder(
+            DirectedGraph graph,
+            DirectedGraphWeightFunction weightFunction) {
+        this(CompactDirectedGraph.freeze(graph, weightFunction));
+    }
+
+    private ContractionHierarchiesPathfinder(int nodeCount,
+                                             int[] ranks,
+                                             ArcArray upwardArcs,
+                                             ArcArray downwardArcs) {
+        this.nodeCount    = nodeCount;
+        this.ranks        = ranks;
+        this.upwardArcs   = upwardArcs;
+        this.downwardArcs = downwardArcs;
+        this.STATEA = new SearchState(nodeCount);
+        this.STATEB = new SearchState(nodeCount);
+    }
+
+    @Override
+    public DirectedGraphPath search(int sourceNodeId, int targetNodeId) {
+        checkNode(sourceNodeId);
+        checkNode(targetNodeId);
+
+        beginSearch();
+
+        try {
+            return searchInHierarchy(sourceNodeId, targetNodeId);
+        } finally {
+            endSearch();
+        }
+    }
+
+    private DirectedGraphPath searchInHierarchy(int sourceNodeId,
+                                                int targetNodeId) {
+        OPENA.clear();
+        OPENB.clear();
+        STATEA.reset();
+        STATEB.reset();
+        OPENA.add(sourceNodeId, 0.0);
+        OPENB.add(targetNodeId, 0.0);
+        countHeapPush();
+        countHeapPush();
+        STATEA.put(sourceNodeId, 0.0, SearchState.NO_NODE);
+        STATEB.put(targetNodeId, 0.0, SearchState.NO_NODE);
+
+        double bestPathLength = sourceNodeId == targetNodeId ?
+                                0.0 :
+                                Double.POSITIVE_INFINITY;
+        int touchNode = sourceNodeId == targetNodeId ?
+                        sourceNodeId :
+                        SearchState.NO_NODE;
+
+        while (true) {
+            double minimumA = OPENA.isEmpty() ? Double.POSITIVE_INFINITY
+                                              : OPENA.getMinimumPriority();
+            double minimumB = OPENB.isEmpty() ? Double.POSITIVE_INFINITY
+                                              : OPENB.getMinimumPriority();
+
+            if (Math.min(minimumA, minimumB) >= bestPathLength) {
+                break;
+            }
+
+            boolean forward = minimumA <= minimumB;
+            DaryHeap open = forward ? OPENA : OPENB;
+            SearchState state = forward ? STATEA : STATEB;
+            SearchState oppositeState = forward ? STATEB : STATEA;
+            ArcArray arcs = forward ? upwardArcs : downwardArcs;
+            int currentNode = open.extractMinimum();
+            double currentDistance = state.getDistance(currentNode);
+            ++heapPopCount;
+            ++expandedNodeCount;
+
+            for (int arc = arcs.offsets[currentNode],
+                    end = arcs.offsets[currentNode + 1];
+                    arc < end;
+                    ++arc) {
+                int nextNode = arcs.nodes[arc];
+                ++relaxedArcCount;
+                double tentativeDistance = currentDistance + arcs.weights[arc];
+
+                if (state.getDistance(nextNode) > tentativeDistance) {
+                    state.put(nextNode, tentativeDistance, currentNode);
+
+                    if (open.contains(nextNode)) {
+                        open.decreasePriority(nextNode, tentativeDistance);
+                    } else {
+                        open.add(nextNode, tentativeDistance);
+                        countHeapPush();
+                    }
+
+                    double pathLength = tentativeDistance +
+                                        oppositeState.getDistance(nextNode);
+
+                    if (bestPathLength > pathLength) {
+                        bestPathLength = pathLength;
+                        touchNode = nextNode;
+                    }
+                }
+            }
+        }
+
+        if (touchNode == SearchState.NO_NODE) {
+            throw new TargetUnreachableException(sourceNodeId, targetNodeId);
+        }
+
+        return unpackPath(touchNode, bestPathLength);
+    }
+
+    /**
+     * Writes the contracted graph to the file {@code file}.
+     *
+     * @param file the file to write.
+     * @throws IOException if writing fails.
+     */
+    public void save(Path file) throws IOException {
+        try (DataOutputStream out =
+                new DataOutputStream(
+                        new BufferedOutputStream(
+                                Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(nodeCount);
+
+            for (int rank : ranks) {
+                out.writeInt(rank);
+            }
+
+            upwardArcs.writeTo(out);
+            downwardArcs.writeTo(out);
+        }
+    }
+
+    /**
+     * Reads the contracted graph written by {@link #save(Path)}.
+     *
+     * @param file the file to read.
+     * @return the contraction hierarchies pathfinder.
+     * @throws IOException if reading fails or the file is malformed.
+     */
+    public static ContractionHierarchiesPathfinder load(Path file)
+            throws IOException {
+        try (DataInputStream in =
+                new DataInputStream(
+                        new BufferedInputStream(
+                                Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(
+                        "'" + file + "' is not a contraction hierarchy file.");
+            }
+
+            int nodeCount = in.readInt();
+            int[] ranks = new int[nodeCount];
+
+            for (int i = 0; i < nodeCount; ++i) {
+                ranks[i] = in.readInt();
+            }
+
+            ArcArray upwardArcs = ArcArray.readFrom(in, nodeCount);
+            ArcArray downwardArcs = ArcArray.readFrom(in, nodeCount);
+            return new ContractionHierarchiesPathfinder(nodeCount,
+                                                        ranks,
+                                                        upwardArcs,
+                                                        downwardArcs);
+        }
+    }
+
+    /**
+     * Returns the number of arcs, including shortcuts, in the contracted
+     * graph.
+     *
+     * @return the number of arcs.
+     */
+    public int getArcCount() {
+        return upwardArcs.nodes.length + downwardArcs.nodes.length;
+    }
+
+    /**
+     * Returns the nodes in descending order of their importance, that is, in
+     * the reverse contraction order. This is a good hub order for
+     * {@link HubLabels}.
+     *
+     * @return the nodes, the most important first.
+     */
+    public int[] getNodesByImportance() {
+        int[] nodes = new int[nodeCount];
+
+        for (int node = 0; node < nodeCount; ++node) {
+            nodes[nodeCount - 1 - ranks[node]] = node;
+        }
+
+        return nodes;
+    }
+
+    private DirectedGraphPath unpackPath(int touchNode, double pathLength) {
+        DirectedGraphPath hierarchyPath = tracebackPath(touchNode,
+                                                        STATEA.getParents(),
+                                                        STATEB.getParents(),
+                                                        pathLength);
+        int[] path = new int[2 * hierarchyPath.size()];
+        int pathSize = 0;
+        path[pathSize++] = hierarchyPath.getNode(0);
+        int[] stack = new int[16];
+
+        for (int i = 0; i < hierarchyPath.size() - 1; ++i) {
+            // Unpack the arc from the tail to the head: a stack of pending
+            // heads, each unpacked against the last node in the path.
+            int stackSize = 0;
+            stack[stackSize++] = hierarchyPath.getNode(i + 1);
+
+            while (stackSize > 0) {
+                int tailNode = path[pathSize - 1];
+                int headNode = stack[stackSize - 1];
+                int middleNode = getMiddleNode(tailNode, headNode);
+
+                if (middleNode == NO_MIDDLE_NODE) {
+                    if (pathSize == path.length) {
+                        path = Arrays.copyOf(path, 2 * pathSize);
+                    }
+
+                    path[pathSize++] = headNode;
+                    --stackSize;
+                } else {
+                    if (stackSize == stack.length) {
+                        stack = Arrays.copyOf(stack, 2 * stackSize);
+                    }
+
+                    stack[stackSize++] = middleNode;
+                }
+            }
+        }
+
+        return new DirectedGraphPath(Arrays.copyOf(path, pathSize),
+                                     pathLength);
+    }
+
+    /**
+     * Returns the middle node of the arc <tt>(tailNode, headNode)</tt> in the
+     * contracted graph.
+     */
+    private int getMiddleNode(int tailNode, int headNode) {
+        if (ranks[tailNode] < ranks[headNode]) {
+            return upwardArcs.getMiddleNode(tailNode, headNode);
+        } else {
+            return downwardArcs.getMiddleNode(headNode, tailNode);
+        }
+    }
+
+    private void checkNode(int nodeId) {
+        if (nodeId < 0 || nodeId >= nodeCount) {
+            throw new IllegalArgumentException(
+                    "The input node ID is out of range: " + nodeId + ".");
+        }
+    }
+
+    /**
+     * This class stores the arcs of the contracted graph in the CSR format.
+     * For each owner node, the arcs list the opposite node, the weight and
+     * the middle node of the arc.
+     */
+    private static final class ArcArray {
+
+        final int[] offsets;
+        final int[] nodes;
+        final double[] weights;
+        final int[] middleNodes;
+
+        ArcArray(int[] offsets,
+                 int[] nodes,
+                 double[] weights,
+                 int[] middleNodes) {
+            this.offsets     = offsets;
+            this.nodes       = nodes;
+            this.weights     = weights;
+            this.middleNodes = middleNodes;
+        }
+
+        int getMiddleNode(int ownerNode, int oppositeNode) {
+            for (int arc = offsets[ownerNode];
+                    arc < offsets[ownerNode + 1];
+                    ++arc) {
+                if (nodes[arc] == oppositeNode) {
+                    return middleNodes[arc];
+                }
+            }
+
+            throw new IllegalStateException(
+                    "No arc between " + ownerNode + " and " + oppositeNode +
+                    ".");
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(nodes.length);
+
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+
+            for (int i = 0; i < nodes.length; ++i) {
+                out.writeInt(nodes[i]);
+                out.writeDouble(weights[i]);
+                out.writeInt(middleNodes[i]);
+            }
+        }
+
+        static ArcArray readFrom(DataInputStream in, int nodeCount)
+                throws IOException {
+            int arcCount = in.readInt();
+            int[] offsets = new int[nodeCount + 1];
+            int[] nodes = new int[arcCount];
+            double[] weights = new double[arcCount];
+            int[] middleNodes = new int[arcCount];
+
+            for (int i = 0; i <= nodeCount; ++i) {
+                offsets[i] = in.readInt();
+            }
+
+            for (int i = 0; i < arcCount; ++i) {
+                nodes[i] = in.readInt();
+                weights[i] = in.readDouble();
+                middleNodes[i] = in.readInt();
+            }
+
+            return new ArcArray(offsets, nodes, weights, middleNodes);
+        }
+    }
+
+    /**
+     * This class accumulates the arcs of the contracted graph in arbitrary
+     * order.
+     */
+    private static final class ArcArrayBuilder {
+
+        private int size;
+        private int[] ownerNodes = new int[16];
+        private int[] nodes = new int[16];
+        private double[] weights = new double[16];
+        private int[] middleNodes = new int[16];
+
+        void add(int ownerNode, int node, double weight, int middleNode) {
+            if (size == nodes.length) {
+                ownerNodes  = Arrays.copyOf(ownerNodes, 2 * size);
+                nodes       = Arrays.copyOf(nodes, 2 * size);
+                weights     = Arrays.copyOf(weights, 2 * size);
+                middleNodes = Arrays.copyOf(middleNodes, 2 * size);
+            }
+
+            ownerNodes [size] = ownerNode;
+            nodes      [size] = node;
+            weights    [size] = weight;
+            middleNodes[size] = middleNode;
+            ++size;
+        }
+
+        ArcArray build(int nodeCount) {
+            int[] offsets = new int[nodeCount + 1];
+
+            for (int i = 0; i < size; ++i) {
+                offsets[ownerNodes[i] + 1]++;
+            }
+
+            for (int i = 0; i < nodeCount; ++i) {
+                offsets[i + 1] += offsets[i];
+            }
+
+            int[] cursors = Arrays.copyOf(offsets, nodeCount);
+            int[] sortedNodes = new int[size];
+            double[] sortedWeights = new double[size];
+            int[] sortedMiddleNodes = new int[size];
+
+            for (int i = 0; i < size; ++i) {
+                int index = cursors[ownerNodes[i]]++;
+                sortedNodes      [index] = nodes[i];
+                sortedWeights    [index] = weights[i];
+                sortedMiddleNodes[index] = middleNodes[i];
+            }
+
+            return new ArcArray(offsets,
+                                sortedNodes,
+                                sortedWeights,
+                                sortedMiddleNodes);
+        }
+    }
+
+    /**
+     * This class holds the arcs incident to a node that is not yet
+     * contracted.
+     */
+    private static final class EdgeList {
+
+        int size;
+        int[] nodes = new int[4];
+        double[] weights = new double[4];
+        int[] middleNodes = new int[4];
+
+        /**
+         * Adds the edge to {@code node}, or lowers the weight of the existing
+         * one.
+         */
+        void put(int node, double weight, int middleNode) {
+            for (int i = 0; i < size; ++i) {
+                if (nodes[i] == node) {
+                    if (weights[i] > weight) {
+                        weights[i] = weight;
+                        middleNodes[i] = middleNode;
+                    }
+
+                    return;
+                }
+            }
+
+            if (size == nodes.length) {
+                nodes       = Arrays.copyOf(nodes, 2 * size);
+                weights     = Arrays.copyOf(weights, 2 * size);
+                middleNodes = Arrays.copyOf(middleNodes, 2 * size);
+            }
+
+            nodes      [size] = node;
+            weights    [size] = weight;
+            middleNodes[size] = middleNode;
+            ++size;
+        }
+
+        void remove(int node) {
+            for (int i = 0; i < size; ++i) {
+                if (nodes[i] == node) {
+                    --size;
+                    nodes      [i] = nodes[size];
+                    weights    [i] = weights[size];
+                    middleNodes[i] = middleNodes[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * This class holds the data structures of a witness search.
+     */
+    private static final class WitnessSearch {
+
+        final DaryHeap heap = new DaryHeap();
+        final SearchState state;
+
+        /**
+         * The target nodes of the current search are stamped with the current
+         * value of {@code targetStamp}.
+         */
+        private final int[] targetStamps;
+        private int targetStamp;
+
+        WitnessSearch(int nodeCount) {
+            this.state = new SearchState(nodeCount);
+            this.targetStamps = new int[nodeCount];
+        }
+
+        /**
+         * Computes the distances from {@code sourceNode} avoiding
+         * {@code excludedNode} up to {@code maximumDistance}. The search stops
+         * early as soon as all the nodes in {@code targets} are settled.
+         */
+        void run(EdgeList[] outgoingEdges,
+                 int sourceNode,
+                 int excludedNode,
+                 EdgeList targets,
+                 double maximumDistance) {
+            heap.clear();
+            state.reset();
+            heap.add(sourceNode, 0.0);
+            state.put(sourceNode, 0.0, SearchState.NO_NODE);
+            int settledNodes = 0;
+            int unsettledTargets = 0;
+            ++targetStamp;
+
+            for (int i = 0; i < targets.size; ++i) {
+                if (targets.nodes[i] != sourceNode) {
+                    targetStamps[targets.nodes[i]] = targetStamp;
+                    ++unsettledTargets;
+                }
+            }
+
+            while (!heap.isEmpty()
+                    && unsettledTargets > 0
+                    && heap.getMinimumPriority() <= maximumDistance
+                    && settledNodes++ < WITNESS_SEARCH_SETTLE_LIMIT) {
+                int currentNode = heap.extractMinimum();
+                double currentDistance = state.getDistance(currentNode);
+
+                if (targetStamps[currentNode] == targetStamp) {
+                    --unsettledTargets;
+                }
+                EdgeList edges = outgoingEdges[currentNode];
+
+                for (int i = 0; i < edges.size; ++i) {
+                    int nextNode = edges.nodes[i];
+
+                    if (nextNode == excludedNode) {
+                        continue;
+                    }
+
+                    double tentativeDistance = currentDistance +
+                                               edges.weights[i];
+
+                    if (state.getDistance(nextNode) > tentativeDistance) {
+                        state.put(nextNode, tentativeDistance, currentNode);
+
+                        if (heap.contains(nextNode)) {
+                            heap.decreasePriority(nextNode, tentativeDistance);
+                        } else {
+                            heap.add(nextNode, tentativeDistance);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * This class performs the node contraction.
+     */
+    private static final class Contractor {
+
+        private final int nodeCount;
+        private final EdgeList[] outgoingEdges;
+        private final EdgeList[] incomingEdges;
+        private final int[] contractedNeighbourCounts;
+        private final int[] levels;
+        private final int[] ranks;
+        private final WitnessSearch witnessSearch;
+        private final ArcArrayBuilder upwardArcs = new ArcArrayBuilder();
+        private final ArcArrayBuilder downwardArcs = new ArcArrayBuilder();
+
+        Contractor(CompactDirectedGraph graph) {
+            this.nodeCount = graph.getNodeCount();
+            this.outgoingEdges = new EdgeList[nodeCount];
+            this.incomingEdges = new EdgeList[nodeCount];
+            this.contractedNeighbourCounts = new int[nodeCount];
+            this.levels = new int[nodeCount];
+            this.ranks = new int[nodeCount];
+            this.witnessSearch = new WitnessSearch(nodeCount);
+
+            for (int node = 0; node < nodeCount; ++node) {
+                outgoingEdges[node] = new EdgeList();
+                incomingEdges[node] = new EdgeList();
+            }
+
+            for (int node = 0; node < nodeCount; ++node) {
+                for (int arc = graph.getOutgoingArcsBegin(node),
+                        end = graph.getOutgoingArcsEnd(node);
+                        arc < end;
+                        ++arc) {
+                    int headNode = graph.getOutgoingArcHead(arc);
+                    double weight = graph.getOutgoingArcWeight(arc);
+
+                    if (headNode != node) {
+                        outgoingEdges[node].put(headNode,
+                                                weight,
+                                                NO_MIDDLE_NODE);
+                        incomingEdges[headNode].put(node,
+                                                    weight,
+                                                    NO_MIDDLE_NODE);
+                    }
+                }
+            }
+        }
+
+        void contract() {
+            double[] priorities = new double[nodeCount];
+
+            ParallelTasks.RangeTask computePriorities = (fromNode, toNode) -> {
+                WitnessSearch search = new WitnessSearch(nodeCount);
+
+                for (int node = fromNode; node < toNode; ++node) {
+                    priorities[node] = computePriority(node, search);
+                }
+            };
+
+            ParallelTasks.runInParallel(ForkJoinPool.commonPool(),
+                                        nodeCount,
+                                        computePriorities);
+
+            DaryHeap queue = new DaryHeap();
+
+            for (int node = 0; node < nodeCount; ++node) {
+                queue.add(node, priorities[node]);
+            }
+
+            int rank = 0;
+
+            while (!queue.isEmpty()) {
+                int node = queue.extractMinimum();
+                double priority = computePriority(node, witnessSearch);
+
+                if (!queue.isEmpty() && priority > queue.getMinimumPriority()) {
+                    // Lazy update: the node is no longer the least important.
+                    queue.add(node, priority);
+                    continue;
+                }
+
+                contractNode(node);
+                ranks[node] = rank++;
+                updateNeighbours(node);
+            }
+        }
+
+        /**
+         * Detaches the contracted {@code node} from its neighbours and raises
+         * their levels. The priorities of the neighbours are not recomputed
+         * here; they are fixed lazily, as the nodes are extracted from the
+         * queue.
+         */
+        private void updateNeighbours(int node) {
+            EdgeList outgoing = outgoingEdges[node];
+            EdgeList incoming = incomingEdges[node];
+
+            for (int i = 0; i < outgoing.size; ++i) {
+                contractedNeighbourCounts[outgoing.nodes[i]]++;
+                updateLevel(outgoing.nodes[i], node);
+                incomingEdges[outgoing.nodes[i]].remove(node);
+            }
+
+            for (int i = 0; i < incoming.size; ++i) {
+                contractedNeighbourCounts[incoming.nodes[i]]++;
+                updateLevel(incoming.nodes[i], node);
+                outgoingEdges[incoming.nodes[i]].remove(node);
+            }
+        }
+
+        private void updateLevel(int neighbour, int node) {
+            levels[neighbour] = Math.max(levels[neighbour], levels[node] + 1);
+        }
+
+        /**
+         * Computes the edge difference plus the number of contracted
+         * neighbours plus the level of {@code node} by simulating its
+         * contraction.
+         */
+        private double computePriority(int node, WitnessSearch search) {
+            int shortcutCount = processShortcuts(node, search, false);
+            int removedArcCount = outgoingEdges[node].size +
+                                  incomingEdges[node].size;
+            return shortcutCount - removedArcCount +
+                   contractedNeighbourCounts[node] + levels[node];
+        }
+
+        private void contractNode(int node) {
+            processShortcuts(node, witnessSearch, true);
+            EdgeList outgoing = outgoingEdges[node];
+            EdgeList incoming = incomingEdges[node];
+
+            for (int i = 0; i < outgoing.size; ++i) {
+                upwardArcs.add(node,
+                               outgoing.nodes[i],
+                               outgoing.weights[i],
+                               outgoing.middleNodes[i]);
+            }
+
+            for (int i = 0; i < incoming.size; ++i) {
+                downwardArcs.add(node,
+                                 incoming.nodes[i],
+                                 incoming.weights[i],
+                                 incoming.middleNodes[i]);
+            }
+        }
+
+        /**
+         * Finds the shortcuts needed when contracting {@code node}, and adds
+         * them if {@code add} is {@code true}.
+         *
+         * @return the number of shortcuts needed.
+         */
+        private int processShortcuts(int node,
+                                     WitnessSearch search,
+                                     boolean add) {
+            EdgeList incoming = incomingEdges[node];
+            EdgeList outgoing = outgoingEdges[node];
+            int shortcutCount = 0;
+
+            for (int i = 0; i < incoming.size; ++i) {
+                int tailNode = incoming.nodes[i];
+                double tailWeight = incoming.weights[i];
+                double maximumDistance = 0.0;
+
+                for (int j = 0; j < outgoing.size; ++j) {
+                    if (outgoing.nodes[j] != tailNode) {
+                        maximumDistance =
+                                Math.max(maximumDistance,
+                                         tailWeight + outgoing.weights[j]);
+                    }
+                }
+
+                search.run(outgoingEdges,
+                           tailNode,
+                           node,
+                           outgoing,
+                           maximumDistance);
+
+                for (int j = 0; j < outgoing.size; ++j) {
+                    int headNode = outgoing.nodes[j];
+
+                    if (headNode == tailNode) {
+                        continue;
+                    }
+
+                    double shortcutWeight = tailWeight + outgoing.weights[j];
+
+                    if (search.state.getDistance(headNode) > shortcutWeight) {
+                        ++shortcutCount;
+
+                        if (add) {
+                            outgoingEdges[tailNode].put(headNode,
+                                                        shortcutWeight,
+                                                        node);
+                            incomingEdges[headNode].put(tailNode,
+                                                        shortcutWeight,
+                                                        node);
+                        }
+                    }
+                }
+            }
+
+            return shortcutCount;
+        }
+    }
+}
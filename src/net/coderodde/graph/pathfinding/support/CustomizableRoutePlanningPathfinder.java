@@ -0,0 +1,1159 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import net.coderodde.graph.DirectedGraph;
+import net.coderodde.graph.DirectedGraphWeightFunction;
+import net.coderodde.graph.pathfinding.AbstractPathfinder;
+import net.coderodde.graph.pathfinding.DirectedGraphPath;
+import net.coderodde.graph.pathfinding.TargetUnreachableException;
+
+/**
+ * This class implements customizable route planning due to Daniel Delling,
+ * Andrew V. Goldberg, Thomas Pajor and Renato F. Werneck in "Customizable
+ * Route Planning." The preprocessing is split in two phases:
+ * <ol>
+ *   <li>the metric-independent phase, run once in the constructor, partitions
+ *       the nodes into nested cells on several levels, and finds the boundary
+ *       nodes of each cell: the entry nodes, entered by an arc from another
+ *       cell, and the exit nodes, left by an arc to another cell,</li>
+ *   <li>the customization phase computes for each cell the clique of the
+ *       shortest distances within the cell from each of its entry nodes to
+ *       each of its exit nodes. The cells of a level are customized in
+ *       parallel, each by searching the overlay graph of the level below.</li>
+ * </ol>
+ * The cells are grown by breadth-first search, the cells of each level out of
+ * whole cells of the level below, so that the partition depends only on the
+ * topology of the graph.
+ * <p>
+ * A query runs a bidirectional Dijkstra's algorithm. The nodes in the lowest
+ * level cells of the source and the target node are scanned in the original
+ * graph; any other node is scanned on the highest level on which its cell
+ * contains neither of them, where only the clique arcs and the arcs leaving
+ * the cell are relaxed. The clique arcs of the found path are then unpacked
+ * level by level by searching within their cells.
+ * <p>
+ * The arc weights are read from the weight function on customization. A
+ * search after the weight function has changed customizes the cells anew, so
+ * a batch of weight changes costs a single customization. The topology of the
+ * graph must not change after construction.
+ * <p>
+ * The node identifiers may be any {@code int} values, negative or sparse. The
+ * nodes are given dense slots in the ascending order of their identifiers on
+ * construction, and all the arrays of this pathfinder are indexed by the
+ * slots, so their sizes depend on the number of the nodes only.
+ * <p>
+ * <b>This class is not thread-safe.</b> If you need it in different threads,
+ * make sure each thread has its own object of this class.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class CustomizableRoutePlanningPathfinder
+        extends AbstractPathfinder {
+
+    /**
+     * The default maximum numbers of nodes in a cell on each level.
+     */
+    private static final int[] DEFAULT_CELL_SIZES = { 64, 1024, 16384 };
+
+    private final ForkJoinPool pool;
+    private final int nodeCount;
+
+    /**
+     * Gives each node of the graph a dense slot, by which all the arrays of
+     * this pathfinder are indexed.
+     */
+    private final NodeIndex nodeIndex = new NodeIndex();
+
+    /**
+     * Maps each slot to its node.
+     */
+    private final int[] nodeIds;
+    private final long topologyVersion;
+    private long customizedWeightVersion = -1L;
+
+    private final int[] outgoingArcOffsets;
+    private final int[] outgoingArcHeads;
+    private final int[] incomingArcOffsets;
+    private final int[] incomingArcTails;
+
+    /**
+     * The index of each incoming arc in the outgoing arc arrays.
+     */
+    private final int[] incomingToOutgoingArcs;
+
+    /**
+     * The customized weights of the outgoing arcs.
+     */
+    private final double[] arcWeights;
+
+    /**
+     * The cell levels. The level 0 is the original graph, and has no entry.
+     */
+    private final Level[] levels;
+
+    private final DaryHeap OPENA = new DaryHeap();
+    private final DaryHeap OPENB = new DaryHeap();
+    private final SearchState STATEA;
+    private final SearchState STATEB;
+    private final CellSearch unpackSearch;
+
+    private int sourceNode;
+    private int targetNode;
+    private double bestPathLength;
+    private int touchNode;
+
+    public CustomizableRoutePlanningPathfinder(
+            DirectedGraph graph,
+            DirectedGraphWeightFunction weightFunction) {
+        this(graph, weightFunction, DEFAULT_CELL_SIZES);
+    }
+
+    public CustomizableRoutePlanningPathfinder(
+            DirectedGraph graph,
+            DirectedGraphWeightFunction weightFunction,
+            int[] cellSizes) {
+        this(graph, weightFunction, cellSizes, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Partitions the graph and customizes the cells.
+     *
+     * @param graph          the graph.
+     * @param weightFunction the weight function.
+     * @param cellSizes      the maximum number of nodes in a cell on each
+     *                       level, from the lowest level up. Must be
+     *                       increasing.
+     * @param pool           the pool running the customizations.
+     */
+    public CustomizableRoutePlanningPathfinder(
+            DirectedGraph graph,
+            DirectedGraphWeightFunction weightFunction,
+            int[] cellSizes,
+            ForkJoinPool pool) {
+        super(Objects.requireNonNull(graph, "The input graph is null."),
+              Objects.requireNonNull(weightFunction,
+                                     "The input weight function is null."));
+        this.pool = Objects.requireNonNull(pool, "The input pool is null.");
+        checkCellSizes(cellSizes);
+
+        this.topologyVersion = graph.getVersion();
+        this.nodeIds = getSortedNodeIds(graph);
+        this.nodeCount = nodeIds.length;
+
+        for (int nodeId : nodeIds) {
+            nodeIndex.getSlot(nodeId);
+        }
+
+        this.outgoingArcOffsets = new int[nodeCount + 1];
+        this.outgoingArcHeads = new int[graph.getArcCount()];
+        this.incomingArcOffsets = new int[nodeCount + 1];
+        this.incomingArcTails = new int[graph.getArcCount()];
+        this.incomingToOutgoingArcs = new int[graph.getArcCount()];
+        this.arcWeights = new double[graph.getArcCount()];
+        buildArcArrays();
+
+        this.levels = new Level[cellSizes.length + 1];
+        int[] unitCells = growCells(nodeCount,
+                                    null,
+                                    getNodeAdjacencyOffsets(),
+                                    getNodeAdjacency(),
+                                    cellSizes[0]);
+        levels[1] = new Level(unitCells);
+
+        for (int level = 2; level < levels.length; ++level) {
+            Level lowerLevel = levels[level - 1];
+            int[] adjacencyOffsets = new int[lowerLevel.cellCount + 1];
+            int[] adjacency = getCellAdjacency(lowerLevel, adjacencyOffsets);
+            unitCells = growCells(lowerLevel.cellCount,
+                                  lowerLevel.getCellSizes(),
+                                  adjacencyOffsets,
+                                  adjacency,
+                                  cellSizes[level - 1]);
+            int[] cells = new int[nodeCount];
+
+            for (int node = 0; node < nodeCount; ++node) {
+                cells[node] = unitCells[lowerLevel.cells[node]];
+            }
+
+            levels[level] = new Level(cells);
+        }
+
+        this.STATEA = new SearchState(nodeCount);
+        this.STATEB = new SearchState(nodeCount);
+        this.unpackSearch = new CellSearch();
+        customize();
+    }
+
+    /**
+     * Recomputes the cell cliques from the current arc weights. Called
+     * automatically by the first search after the weight function changes.
+     */
+    public void customize() {
+        checkTopology();
+        long weightVersion = weightFunction.getVersion();
+
+        ParallelTasks.runInParallel(pool, nodeCount, (fromNode, toNode) -> {
+            for (int node = fromNode; node < toNode; ++node) {
+                for (int arc = outgoingArcOffsets[node];
+                        arc < outgoingArcOffsets[node + 1];
+                        ++arc) {
+                    arcWeights[arc] = checkWeight(
+                            weightFunction.get(
+                                    nodeIds[node],
+                                    nodeIds[outgoingArcHeads[arc]]));
+                }
+            }
+        });
+
+        for (int level = 1; level < levels.length; ++level) {
+            int currentLevel = level;
+            ParallelTasks.RangeTask customizeCells = (fromCell, toCell) -> {
+                CellSearch search = new CellSearch();
+
+                for (int cell = fromCell; cell < toCell; ++cell) {
+                    customizeCell(currentLevel, cell, search);
+                }
+            };
+
+            ParallelTasks.runInParallel(pool,
+                                        levels[level].cellCount,
+                                        customizeCells);
+        }
+
+        customizedWeightVersion = weightVersion;
+    }
+
+    /**
+     * Returns the number of cell levels above the original graph.
+     *
+     * @return the number of levels.
+     */
+    public int getLevelCount() {
+        return levels.length - 1;
+    }
+
+    /**
+     * Returns the number of cells on the level {@code level}.
+     *
+     * @param level the level, starting from 1.
+     * @return the number of cells.
+     */
+    public int getCellCount(int level) {
+        if (level < 1 || level >= levels.length) {
+            throw new IllegalArgumentException(
+                    "No such level: " + level + ".");
+        }
+
+        return levels[level].cellCount;
+    }
+
+    @Override
+    public DirectedGraphPath search(int sourceNodeId, int targetNodeId) {
+        checkTopology();
+        int sourceSlot = getSlot(sourceNodeId);
+        int targetSlot = getSlot(targetNodeId);
+
+        if (customizedWeightVersion != weightFunction.getVersion()) {
+            customize();
+        }
+
+        if (sourceNodeId == targetNodeId) {
+            return new DirectedGraphPath(new int[]{ sourceNodeId }, 0.0);
+        }
+
+        beginSearch();
+
+        try {
+            init(sourceSlot, targetSlot);
+
+            while (!OPENA.isEmpty() && !OPENB.isEmpty()) {
+                if (OPENA.getMinimumPriority() + OPENB.getMinimumPriority()
+                        >= bestPathLength) {
+                    break;
+                }
+
+                if (OPENA.size() <= OPENB.size()) {
+                    expandInForwardDirection();
+                } else {
+                    expandInBackwardDirection();
+                }
+            }
+
+            if (touchNode == SearchState.NO_NODE) {
+                throw new TargetUnreachableException(graph,
+                                                     sourceNodeId,
+                                                     targetNodeId);
+            }
+
+            return unpackPath(tracebackPath(touchNode,
+                                            STATEA.getParents(),
+                                            STATEB.getParents(),
+                                            bestPathLength));
+        } finally {
+            endSearch();
+        }
+    }
+
+    private void init(int sourceNode, int targetNode) {
+        OPENA.clear();
+        OPENB.clear();
+        STATEA.reset();
+        STATEB.reset();
+
+        this.sourceNode = sourceNode;
+        this.targetNode = targetNode;
+        this.bestPathLength = Double.POSITIVE_INFINITY;
+        this.touchNode = SearchState.NO_NODE;
+
+        OPENA.add(sourceNode, 0.0);
+        OPENB.add(targetNode, 0.0);
+        countHeapPush();
+        countHeapPush();
+        STATEA.put(sourceNode, 0.0, SearchState.NO_NODE);
+        STATEB.put(targetNode, 0.0, SearchState.NO_NODE);
+    }
+
+    /**
+     * Returns the highest level on which the cell of {@code node} contains
+     * neither the source nor the target node, or 0 if there is none.
+     */
+    private int getQueryLevel(int node) {
+        for (int level = levels.length - 1; level > 0; --level) {
+            int[] cells = levels[level].cells;
+            int cell = cells[node];
+
+            if (cell != cells[sourceNode] && cell != cells[targetNode]) {
+                return level;
+            }
+        }
+
+        return 0;
+    }
+
+    private void expandInForwardDirection() {
+        int currentNode = OPENA.extractMinimum();
+        ++heapPopCount;
+        ++expandedNodeCount;
+        STATEA.close(currentNode);
+        int level = getQueryLevel(currentNode);
+
+        if (level == 0) {
+            for (int arc = outgoingArcOffsets[currentNode];
+                    arc < outgoingArcOffsets[currentNode + 1];
+                    ++arc) {
+                relaxInForwardDirection(currentNode,
+                                        outgoingArcHeads[arc],
+                                        arcWeights[arc]);
+            }
+
+            return;
+        }
+
+        Level currentLevel = levels[level];
+        int cell = currentLevel.cells[currentNode];
+        int entryIndex = currentLevel.entryIndices[currentNode];
+
+        if (entryIndex >= 0) {
+            for (int exitIndex = 0;
+                    exitIndex < currentLevel.getExitCount(cell);
+                    ++exitIndex) {
+                relaxInForwardDirection(
+                        currentNode,
+                        currentLevel.getExit(cell, exitIndex),
+                        currentLevel.getCliqueWeight(cell,
+                                                     entryIndex,
+                                                     exitIndex));
+            }
+        }
+
+        if (currentLevel.exitIndices[currentNode] >= 0) {
+            for (int arc = outgoingArcOffsets[currentNode];
+                    arc < outgoingArcOffsets[currentNode + 1];
+                    ++arc) {
+                int headNode = outgoingArcHeads[arc];
+
+                if (currentLevel.cells[headNode] != cell) {
+                    relaxInForwardDirection(currentNode,
+                                            headNode,
+                                            arcWeights[arc]);
+                }
+            }
+        }
+    }
+
+    private void expandInBackwardDirection() {
+        int currentNode = OPENB.extractMinimum();
+        ++heapPopCount;
+        ++expandedNodeCount;
+        STATEB.close(currentNode);
+        int level = getQueryLevel(currentNode);
+
+        if (level == 0) {
+            for (int arc = incomingArcOffsets[currentNode];
+                    arc < incomingArcOffsets[currentNode + 1];
+                    ++arc) {
+                relaxInBackwardDirection(
+                        currentNode,
+                        incomingArcTails[arc],
+                        arcWeights[incomingToOutgoingArcs[arc]]);
+            }
+
+            return;
+        }
+
+        Level currentLevel = levels[level];
+        int cell = currentLevel.cells[currentNode];
+        int exitIndex = currentLevel.exitIndices[currentNode];
+
+        if (exitIndex >= 0) {
+            for (int entryIndex = 0;
+                    entryIndex < currentLevel.getEntryCount(cell);
+                    ++entryIndex) {
+                relaxInBackwardDirection(
+                        currentNode,
+                        currentLevel.getEntry(cell, entryIndex),
+                        currentLevel.getCliqueWeight(cell,
+                                                     entryIndex,
+                                                     exitIndex));
+            }
+        }
+
+        if (currentLevel.entryIndices[currentNode] >= 0) {
+            for (int arc = incomingArcOffsets[currentNode];
+                    arc < incomingArcOffsets[currentNode + 1];
+                    ++arc) {
+                int tailNode = incomingArcTails[arc];
+
+                if (currentLevel.cells[tailNode] != cell) {
+                    relaxInBackwardDirection(
+                            currentNode,
+                            tailNode,
+                            arcWeights[incomingToOutgoingArcs[arc]]);
+                }
+            }
+        }
+    }
+
+    private void relaxInForwardDirection(int currentNode,
+                                         int childNode,
+                                         double arcWeight) {
+        ++relaxedArcCount;
+
+        if (STATEA.isClosed(childNode)) {
+            return;
+        }
+
+        double tentativeDistance = STATEA.getDistance(currentNode) + arcWeight;
+
+        if (STATEA.getDistance(childNode) > tentativeDistance) {
+            if (OPENA.contains(childNode)) {
+                OPENA.decreasePriority(childNode, tentativeDistance);
+            } else {
+                OPENA.add(childNode, tentativeDistance);
+                countHeapPush();
+            }
+
+            STATEA.put(childNode, tentativeDistance, currentNode);
+            updateBestPath(childNode,
+                           tentativeDistance + STATEB.getDistance(childNode));
+        }
+    }
+
+    private void relaxInBackwardDirection(int currentNode,
+                                          int parentNode,
+                                          double arcWeight) {
+        ++relaxedArcCount;
+
+        if (STATEB.isClosed(parentNode)) {
+            return;
+        }
+
+        double tentativeDistance = STATEB.getDistance(currentNode) + arcWeight;
+
+        if (STATEB.getDistance(parentNode) > tentativeDistance) {
+            if (OPENB.contains(parentNode)) {
+                OPENB.decreasePriority(parentNode, tentativeDistance);
+            } else {
+                OPENB.add(parentNode, tentativeDistance);
+                countHeapPush();
+            }
+
+            STATEB.put(parentNode, tentativeDistance, currentNode);
+            updateBestPath(parentNode,
+                           tentativeDistance + STATEA.getDistance(parentNode));
+        }
+    }
+
+    private void updateBestPath(int node, double pathLength) {
+        if (bestPathLength > pathLength) {
+            bestPathLength = pathLength;
+            touchNode = node;
+        }
+    }
+
+    /**
+     * Replaces each clique arc in the overlay path {@code overlayPath} of
+     * slots by the original arcs it stands for, and the slots by their nodes.
+     */
+    private DirectedGraphPath unpackPath(DirectedGraphPath overlayPath) {
+        List<Integer> path = new ArrayList<>();
+        path.add(overlayPath.getNode(0));
+
+        for (int i = 1; i < overlayPath.size(); ++i) {
+            int tailNode = overlayPath.getNode(i - 1);
+            int headNode = overlayPath.getNode(i);
+            int level = getQueryLevel(tailNode);
+
+            if (level > 0 &&
+                    getQueryLevel(headNode) == level &&
+                    levels[level].cells[tailNode] ==
+                    levels[level].cells[headNode]) {
+                unpackCliqueArc(level,
+                                levels[level].cells[tailNode],
+                                tailNode,
+                                headNode,
+                                path);
+            } else {
+                path.add(headNode);
+            }
+        }
+
+        int[] pathNodeIds = new int[path.size()];
+
+        for (int i = 0; i < pathNodeIds.length; ++i) {
+            pathNodeIds[i] = nodeIds[path.get(i)];
+        }
+
+        return new DirectedGraphPath(pathNodeIds, overlayPath.getCost());
+    }
+
+    /**
+     * Appends to {@code path} the nodes after {@code tailNode} on a shortest
+     * path within the cell {@code cell} of the level {@code level} from
+     * {@code tailNode} to {@code headNode}.
+     */
+    private void unpackCliqueArc(int level,
+                                 int cell,
+                                 int tailNode,
+                                 int headNode,
+                                 List<Integer> path) {
+        unpackSearch.run(level, cell, tailNode, headNode);
+        int[] overlayNodes = unpackSearch.tracebackPath(headNode);
+
+        for (int i = 1; i < overlayNodes.length; ++i) {
+            int a = overlayNodes[i - 1];
+            int b = overlayNodes[i];
+
+            // Within the cell, only the clique arcs of the level below stay
+            // within a cell of that level.
+            if (level > 1 && levels[level - 1].cells[a] ==
+                             levels[level - 1].cells[b]) {
+                unpackCliqueArc(level - 1,
+                                levels[level - 1].cells[a],
+                                a,
+                                b,
+                                path);
+            } else {
+                path.add(b);
+            }
+        }
+    }
+
+    private void customizeCell(int level, int cell, CellSearch search) {
+        Level currentLevel = levels[level];
+        int exitCount = currentLevel.getExitCount(cell);
+
+        for (int entryIndex = 0;
+                entryIndex < currentLevel.getEntryCount(cell);
+                ++entryIndex) {
+            search.run(level,
+                       cell,
+                       currentLevel.getEntry(cell, entryIndex),
+                       SearchState.NO_NODE);
+
+            for (int exitIndex = 0; exitIndex < exitCount; ++exitIndex) {
+                currentLevel.setCliqueWeight(
+                        cell,
+                        entryIndex,
+                        exitIndex,
+                        search.getDistance(
+                                currentLevel.getExit(cell, exitIndex)));
+            }
+        }
+    }
+
+    private void buildArcArrays() {
+        int arc = 0;
+
+        for (int node = 0; node < nodeCount; ++node) {
+            outgoingArcOffsets[node] = arc;
+
+            for (Integer childNodeId : graph.getChildrenOf(nodeIds[node])) {
+                int childNode = nodeIndex.findSlot(childNodeId);
+                outgoingArcHeads[arc++] = childNode;
+                ++incomingArcOffsets[childNode + 1];
+            }
+        }
+
+        outgoingArcOffsets[nodeCount] = arc;
+
+        for (int node = 0; node < nodeCount; ++node) {
+            incomingArcOffsets[node + 1] += incomingArcOffsets[node];
+        }
+
+        int[] positions = Arrays.copyOf(incomingArcOffsets, nodeCount);
+
+        for (int node = 0; node < nodeCount; ++node) {
+            for (arc = outgoingArcOffsets[node];
+                    arc < outgoingArcOffsets[node + 1];
+                    ++arc) {
+                int position = positions[outgoingArcHeads[arc]]++;
+                incomingArcTails[position] = node;
+                incomingToOutgoingArcs[position] = arc;
+            }
+        }
+    }
+
+    private int[] getNodeAdjacencyOffsets() {
+        int[] offsets = new int[nodeCount + 1];
+
+        for (int node = 0; node < nodeCount; ++node) {
+            offsets[node + 1] = offsets[node] +
+                    outgoingArcOffsets[node + 1] - outgoingArcOffsets[node] +
+                    incomingArcOffsets[node + 1] - incomingArcOffsets[node];
+        }
+
+        return offsets;
+    }
+
+    /**
+     * Returns the neighbours of each node, ignoring the arc directions.
+     */
+    private int[] getNodeAdjacency() {
+        int[] adjacency = new int[2 * outgoingArcHeads.length];
+        int size = 0;
+
+        for (int node = 0; node < nodeCount; ++node) {
+            for (int arc = outgoingArcOffsets[node];
+                    arc < outgoingArcOffsets[node + 1];
+                    ++arc) {
+                adjacency[size++] = outgoingArcHeads[arc];
+            }
+
+            for (int arc = incomingArcOffsets[node];
+                    arc < incomingArcOffsets[node + 1];
+                    ++arc) {
+                adjacency[size++] = incomingArcTails[arc];
+            }
+        }
+
+        return adjacency;
+    }
+
+    /**
+     * Returns the neighbouring cells of each cell of the level {@code level},
+     * ignoring the arc directions, and storing the start offset of the
+     * neighbours of each cell in {@code offsets}. A neighbour may appear
+     * several times.
+     */
+    private int[] getCellAdjacency(Level level, int[] offsets) {
+        for (int node = 0; node < nodeCount; ++node) {
+            int cell = level.cells[node];
+
+            for (int arc = outgoingArcOffsets[node];
+                    arc < outgoingArcOffsets[node + 1];
+                    ++arc) {
+                int headCell = level.cells[outgoingArcHeads[arc]];
+
+                if (headCell != cell) {
+                    ++offsets[cell + 1];
+                    ++offsets[headCell + 1];
+                }
+            }
+        }
+
+        for (int cell = 0; cell < level.cellCount; ++cell) {
+            offsets[cell + 1] += offsets[cell];
+        }
+
+        int[] positions = Arrays.copyOf(offsets, level.cellCount);
+        int[] adjacency = new int[offsets[level.cellCount]];
+
+        for (int node = 0; node < nodeCount; ++node) {
+            int cell = level.cells[node];
+
+            for (int arc = outgoingArcOffsets[node];
+                    arc < outgoingArcOffsets[node + 1];
+                    ++arc) {
+                int headCell = level.cells[outgoingArcHeads[arc]];
+
+                if (headCell != cell) {
+                    adjacency[positions[cell]++] = headCell;
+                    adjacency[positions[headCell]++] = cell;
+                }
+            }
+        }
+
+        return adjacency;
+    }
+
+    /**
+     * Groups the units (nodes or lower level cells) into cells of at most
+     * {@code maximumCellSize} nodes by breadth-first search. The seed of each
+     * cell is the first unassigned unit in the breadth-first order of all the
+     * units, so that the cells grow next to each other.
+     *
+     * @param unitCount        the number of units.
+     * @param unitSizes        the number of nodes in each unit, or
+     *                         {@code null} if each unit is a single node.
+     * @param adjacencyOffsets the start offset of the neighbours of each unit.
+     * @param adjacency        the neighbours of the units.
+     * @param maximumCellSize  the maximum number of nodes in a cell.
+     * @return the cell of each unit.
+     */
+    private static int[] growCells(int unitCount,
+                                   int[] unitSizes,
+                                   int[] adjacencyOffsets,
+                                   int[] adjacency,
+                                   int maximumCellSize) {
+        int[] order = getBreadthFirstOrder(unitCount,
+                                           adjacencyOffsets,
+                                           adjacency);
+        int[] cells = new int[unitCount];
+        int[] stamps = new int[unitCount];
+        int[] queue = new int[unitCount];
+        int cellCount = 0;
+        Arrays.fill(cells, -1);
+
+        for (int seed : order) {
+            if (cells[seed] != -1) {
+                continue;
+            }
+
+            int cell = cellCount++;
+            int stamp = cellCount;
+            int head = 0;
+            int tail = 0;
+            int cellSize = 0;
+            queue[tail++] = seed;
+            stamps[seed] = stamp;
+
+            while (head < tail) {
+                int unit = queue[head++];
+                int unitSize = unitSizes == null ? 1 : unitSizes[unit];
+
+                if (cellSize > 0 && cellSize + unitSize > maximumCellSize) {
+                    continue;
+                }
+
+                cells[unit] = cell;
+                cellSize += unitSize;
+
+                for (int i = adjacencyOffsets[unit];
+                        i < adjacencyOffsets[unit + 1];
+                        ++i) {
+                    int neighbour = adjacency[i];
+
+                    if (cells[neighbour] == -1 && stamps[neighbour] != stamp) {
+                        stamps[neighbour] = stamp;
+                        queue[tail++] = neighbour;
+                    }
+                }
+            }
+        }
+
+        return cells;
+    }
+
+    private static int[] getBreadthFirstOrder(int unitCount,
+                                              int[] adjacencyOffsets,
+                                              int[] adjacency) {
+        int[] order = new int[unitCount];
+        boolean[] visited = new boolean[unitCount];
+        int head = 0;
+        int tail = 0;
+
+        for (int root = 0; root < unitCount; ++root) {
+            if (visited[root]) {
+                continue;
+            }
+
+            visited[root] = true;
+            order[tail++] = root;
+
+            while (head < tail) {
+                int unit = order[head++];
+
+                for (int i = adjacencyOffsets[unit];
+                        i < adjacencyOffsets[unit + 1];
+                        ++i) {
+                    int neighbour = adjacency[i];
+
+                    if (!visited[neighbour]) {
+                        visited[neighbour] = true;
+                        order[tail++] = neighbour;
+                    }
+                }
+            }
+        }
+
+        return order;
+    }
+
+    /**
+     * Returns the slot of the node {@code nodeId}, making sure that the node
+     * is in the graph.
+     */
+    private int getSlot(int nodeId) {
+        checkNodeId(nodeId);
+        return nodeIndex.findSlot(nodeId);
+    }
+
+    private static int[] getSortedNodeIds(DirectedGraph graph) {
+        int[] nodeIds = new int[graph.getNodeCount()];
+        int size = 0;
+
+        for (Integer nodeId : graph.getNodeList()) {
+            nodeIds[size++] = nodeId;
+        }
+
+        Arrays.sort(nodeIds);
+        return nodeIds;
+    }
+
+    private void checkTopology() {
+        if (graph.getVersion() != topologyVersion) {
+            throw new IllegalStateException(
+                    "The topology of the graph has changed since the " +
+                    "partition was computed.");
+        }
+    }
+
+    private static double checkWeight(double weight) {
+        if (Double.isNaN(weight)) {
+            throw new IllegalArgumentException("The arc weight is NaN.");
+        }
+
+        if (weight < 0.0) {
+            throw new IllegalArgumentException(
+                    "The arc weight is negative: " + weight + ".");
+        }
+
+        return weight;
+    }
+
+    private static void checkCellSizes(int[] cellSizes) {
+        Objects.requireNonNull(cellSizes, "The input cell sizes are null.");
+
+        if (cellSizes.length == 0) {
+            throw new IllegalArgumentException("No cell sizes given.");
+        }
+
+        for (int i = 0; i < cellSizes.length; ++i) {
+            if (cellSizes[i] < 1 ||
+                    (i > 0 && cellSizes[i] <= cellSizes[i - 1])) {
+                throw new IllegalArgumentException(
+                        "The cell sizes are not positive and increasing: " +
+                        Arrays.toString(cellSizes) + ".");
+            }
+        }
+    }
+
+    /**
+     * This class holds the cells of a single level together with their
+     * boundary nodes and cliques.
+     */
+    private final class Level {
+
+        private final int[] cells;
+        private final int cellCount;
+        private final int[] entryOffsets;
+        private final int[] entryNodes;
+        private final int[] exitOffsets;
+        private final int[] exitNodes;
+
+        /**
+         * The index of each node among the entry nodes of its cell, or -1 if
+         * the node is not an entry node.
+         */
+        private final int[] entryIndices;
+
+        /**
+         * The index of each node among the exit nodes of its cell, or -1 if
+         * the node is not an exit node.
+         */
+        private final int[] exitIndices;
+
+        /**
+         * The start offset of the clique of each cell. The weight from the
+         * {@code i}th entry node to the {@code j}th exit node of the cell
+         * {@code c} is at {@code cliqueOffsets[c] + i * X + j}, where
+         * {@code X} is the number of exit nodes of {@code c}.
+         */
+        private final int[] cliqueOffsets;
+        private final double[] cliqueWeights;
+
+        Level(int[] cells) {
+            int maximumCell = -1;
+
+            for (int cell : cells) {
+                maximumCell = Math.max(maximumCell, cell);
+            }
+
+            this.cells = cells;
+            this.cellCount = maximumCell + 1;
+            this.entryIndices = new int[nodeCount];
+            this.exitIndices = new int[nodeCount];
+            Arrays.fill(entryIndices, -1);
+            Arrays.fill(exitIndices, -1);
+
+            int[] entryCounts = new int[cellCount];
+            int[] exitCounts = new int[cellCount];
+
+            for (int node = 0; node < nodeCount; ++node) {
+                for (int arc = outgoingArcOffsets[node];
+                        arc < outgoingArcOffsets[node + 1];
+                        ++arc) {
+                    int headNode = outgoingArcHeads[arc];
+
+                    if (cells[node] != cells[headNode]) {
+                        if (exitIndices[node] == -1) {
+                            exitIndices[node] = exitCounts[cells[node]]++;
+                        }
+
+                        if (entryIndices[headNode] == -1) {
+                            entryIndices[headNode] =
+                                    entryCounts[cells[headNode]]++;
+                        }
+                    }
+                }
+            }
+
+            this.entryOffsets = toOffsets(entryCounts);
+            this.exitOffsets = toOffsets(exitCounts);
+            this.entryNodes = new int[entryOffsets[cellCount]];
+            this.exitNodes = new int[exitOffsets[cellCount]];
+            this.cliqueOffsets = new int[cellCount + 1];
+
+            for (int node = 0; node < nodeCount; ++node) {
+                if (entryIndices[node] >= 0) {
+                    entryNodes[entryOffsets[cells[node]] + entryIndices[node]] =
+                            node;
+                }
+
+                if (exitIndices[node] >= 0) {
+                    exitNodes[exitOffsets[cells[node]] + exitIndices[node]] =
+                            node;
+                }
+            }
+
+            long cliqueSize = 0L;
+
+            for (int cell = 0; cell < cellCount; ++cell) {
+                cliqueOffsets[cell] = (int) cliqueSize;
+                cliqueSize += (long) entryCounts[cell] * exitCounts[cell];
+
+                if (cliqueSize > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException(
+                            "The cell cliques are too large. Use smaller " +
+                            "cells.");
+                }
+            }
+
+            cliqueOffsets[cellCount] = (int) cliqueSize;
+            this.cliqueWeights = new double[(int) cliqueSize];
+        }
+
+        int[] getCellSizes() {
+            int[] cellSizes = new int[cellCount];
+
+            for (int cell : cells) {
+                ++cellSizes[cell];
+            }
+
+            return cellSizes;
+        }
+
+        int getEntryCount(int cell) {
+            return entryOffsets[cell + 1] - entryOffsets[cell];
+        }
+
+        int getExitCount(int cell) {
+            return exitOffsets[cell + 1] - exitOffsets[cell];
+        }
+
+        int getEntry(int cell, int entryIndex) {
+            return entryNodes[entryOffsets[cell] + entryIndex];
+        }
+
+        int getExit(int cell, int exitIndex) {
+            return exitNodes[exitOffsets[cell] + exitIndex];
+        }
+
+        double getCliqueWeight(int cell, int entryIndex, int exitIndex) {
+            return cliqueWeights[cliqueOffsets[cell] +
+                                 entryIndex * getExitCount(cell) +
+                                 exitIndex];
+        }
+
+        void setCliqueWeight(int cell,
+                             int entryIndex,
+                             int exitIndex,
+                             double weight) {
+            cliqueWeights[cliqueOffsets[cell] +
+                          entryIndex * getExitCount(cell) +
+                          exitIndex] = weight;
+        }
+
+        private int[] toOffsets(int[] counts) {
+            int[] offsets = new int[counts.length + 1];
+
+            for (int i = 0; i < counts.length; ++i) {
+                offsets[i + 1] = offsets[i] + counts[i];
+            }
+
+            return offsets;
+        }
+    }
+
+    /**
+     * This class runs a Dijkstra search within a single cell over the
+     * overlay graph of the level below the cell: the original arcs within the
+     * cell for the lowest level, and otherwise the clique arcs of the
+     * subcells and the arcs between the subcells.
+     */
+    private final class CellSearch {
+
+        private final double[] distances = new double[nodeCount];
+        private final int[] parents = new int[nodeCount];
+        private final int[] reachedNodes = new int[nodeCount];
+        private final DaryHeap heap = new DaryHeap();
+        private int reachedNodeCount;
+
+        CellSearch() {
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        }
+
+        /**
+         * Searches from {@code sourceNode} within the cell {@code cell} of the
+         * level {@code level}, stopping early once {@code targetNode} is
+         * settled.
+         */
+        void run(int level, int cell, int sourceNode, int targetNode) {
+            for (int i = 0; i < reachedNodeCount; ++i) {
+                distances[reachedNodes[i]] = Double.POSITIVE_INFINITY;
+            }
+
+            reachedNodeCount = 0;
+            heap.clear();
+            relax(sourceNode, 0.0, SearchState.NO_NODE);
+            int[] cells = levels[level].cells;
+
+            while (!heap.isEmpty()) {
+                int currentNode = heap.extractMinimum();
+
+                if (currentNode == targetNode) {
+                    return;
+                }
+
+                double currentDistance = distances[currentNode];
+
+                if (level == 1) {
+                    for (int arc = outgoingArcOffsets[currentNode];
+                            arc < outgoingArcOffsets[currentNode + 1];
+                            ++arc) {
+                        int headNode = outgoingArcHeads[arc];
+
+                        if (cells[headNode] == cell) {
+                            relax(headNode,
+                                  currentDistance + arcWeights[arc],
+                                  currentNode);
+                        }
+                    }
+
+                    continue;
+                }
+
+                Level subLevel = levels[level - 1];
+                int subcell = subLevel.cells[currentNode];
+                int entryIndex = subLevel.entryIndices[currentNode];
+
+                if (entryIndex >= 0) {
+                    for (int exitIndex = 0;
+                            exitIndex < subLevel.getExitCount(subcell);
+                            ++exitIndex) {
+                        relax(subLevel.getExit(subcell, exitIndex),
+                              currentDistance +
+                              subLevel.getCliqueWeight(subcell,
+                                                       entryIndex,
+                                                       exitIndex),
+                              currentNode);
+                    }
+                }
+
+                if (subLevel.exitIndices[currentNode] >= 0) {
+                    for (int arc = outgoingArcOffsets[currentNode];
+                            arc < outgoingArcOffsets[currentNode + 1];
+                            ++arc) {
+                        int headNode = outgoingArcHeads[arc];
+
+                        if (cells[headNode] == cell &&
+                                subLevel.cells[headNode] != subcell) {
+                            relax(headNode,
+                                  currentDistance + arcWeights[arc],
+                                  currentNode);
+                        }
+                    }
+                }
+            }
+        }
+
+        double getDistance(int node) {
+            return distances[node];
+        }
+
+        /**
+         * Returns the nodes on the found path to {@code node}.
+         */
+        int[] tracebackPath(int node) {
+            int length = 0;
+
+            for (int current = node;
+                    current != SearchState.NO_NODE;
+                    current = parents[current]) {
+                ++length;
+            }
+
+            int[] path = new int[length];
+
+            for (int current = node;
+                    current != SearchState.NO_NODE;
+                    current = parents[current]) {
+                path[--length] = current;
+            }
+
+            return path;
+        }
+
+        private void relax(int node, double distance, int parentNode) {
+            if (distances[node] <= distance) {
+                return;
+            }
+
+            if (distances[node] == Double.POSITIVE_INFINITY) {
+                reachedNodes[reachedNodeCount++] = node;
+                heap.add(node, distance);
+            } else {
+                heap.decreasePriority(node, distance);
+            }
+
+            distances[node] = distance;
+            parents[node] = parentNode;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements an indexed d-ary heap. The heap itself is stored in
+ * two parallel primitive arrays, and the position of each node in the heap is
+ * tracked in an array indexed by node identifiers, which makes
+ * {@link #decreasePriority(int, double)} run in logarithmic time without
+ * allocating anything.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class DaryHeap implements IndexedHeap {
+
+    private static final int DEFAULT_DEGREE = 4;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int ABSENT = -1;
+
+    private final int degree;
+    private int size;
+    private int[] nodes = new int[INITIAL_CAPACITY];
+    private double[] priorities = new double[INITIAL_CAPACITY];
+    private int[] positions = new int[0];
+
+    public DaryHeap() {
+        this(DEFAULT_DEGREE);
+    }
+
+    public DaryHeap(int degree) {
+        if (degree < 2) {
+            throw new IllegalArgumentException(
+                    "The heap degree is less than 2: " + degree + ".");
+        }
+
+        this.degree = degree;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void add(int nodeId, double priority) {
+        if (nodeId >= positions.length) {
+            int oldLength = positions.length;
+            positions = Arrays.copyOf(positions,
+                                      Math.max(nodeId + 1, 2 * oldLength));
+            Arrays.fill(positions, oldLength, positions.length, ABSENT);
+        }
+
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, 2 * size);
+            priorities = Arrays.copyOf(priorities, 2 * size);
+        }
+
+        siftUp(size++, nodeId, priority);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void decreasePriority(int nodeId, double priority) {
+        siftUp(positions[nodeId], nodeId, priority);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean contains(int nodeId) {
+        return nodeId < positions.length && positions[nodeId] != ABSENT;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getMinimum() {
+        checkNotEmpty();
+        return nodes[0];
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public double getMinimumPriority() {
+        checkNotEmpty();
+        return priorities[0];
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int extractMinimum() {
+        checkNotEmpty();
+        int minimumNode = nodes[0];
+        positions[minimumNode] = ABSENT;
+
+        if (--size > 0) {
+            siftDown(nodes[size], priorities[size]);
+        }
+
+        return minimumNode;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; ++i) {
+            positions[nodes[i]] = ABSENT;
+        }
+
+        size = 0;
+    }
+
+    /**
+     * Moves the hole at {@code index} towards the root until
+     * {@code nodeId} with {@code priority} fits in it.
+     */
+    private void siftUp(int index, int nodeId, double priority) {
+        while (index > 0) {
+            int parentIndex = (index - 1) / degree;
+
+            if (priorities[parentIndex] <= priority) {
+                break;
+            }
+
+            place(index, nodes[parentIndex], priorities[parentIndex]);
+            index = parentIndex;
+        }
+
+        place(index, nodeId, priority);
+    }
+
+    /**
+     * Moves the hole at the root towards the leaves until {@code nodeId} with
+     * {@code priority} fits in it.
+     */
+    private void siftDown(int nodeId, double priority) {
+        int index = 0;
+
+        while (true) {
+            int firstChildIndex = degree * index + 1;
+
+            if (firstChildIndex >= size) {
+                break;
+            }
+
+            int lastChildIndex = Math.min(firstChildIndex + degree, size);
+            int minimumChildIndex = firstChildIndex;
+
+            for (int i = firstChildIndex + 1; i < lastChildIndex; ++i) {
+                if (priorities[minimumChildIndex] > priorities[i]) {
+                    minimumChildIndex = i;
+                }
+            }
+
+            if (priority <= priorities[minimumChildIndex]) {
+                break;
+            }
+
+            place(index,
+                  nodes[minimumChildIndex],
+                  priorities[minimumChildIndex]);
+            index = minimumChildIndex;
+        }
+
+        place(index, nodeId, priority);
+    }
+
+    private void place(int index, int nodeId, double priority) {
+        nodes[index] = nodeId;
+        priorities[index] = priority;
+        positions[nodeId] = index;
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new NoSuchElementException("The heap is empty.");
+        }
+    }
+}
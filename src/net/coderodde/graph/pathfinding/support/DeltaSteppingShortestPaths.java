@@ -0,0 +1,359 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import net.coderodde.graph.CompactDirectedGraph;
+
+/**
+ * This class computes the shortest paths from a source node to all the other
+ * nodes with the delta-stepping algorithm of Meyer and Sanders. The nodes are
+ * kept in buckets of width {@code delta} by their tentative distance. The
+ * smallest nonempty bucket is emptied by relaxing the light arcs (of weight at
+ * most {@code delta}) of its nodes until no node falls back into it, after
+ * which the heavy arcs of all the nodes removed from the bucket are relaxed
+ * once. The relaxations of each round are spread over a fork/join pool.
+ * <p>
+ * A small {@code delta} approaches Dijkstra's algorithm with little
+ * parallelism per round, and a large one approaches the Bellman-Ford algorithm
+ * with many redundant relaxations. The average arc weight is a reasonable
+ * starting point.
+ * <p>
+ * The input graph is only read, and it must not be modified while the shortest
+ * paths are being computed. Instances of this class may be used from several
+ * threads.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class DeltaSteppingShortestPaths {
+
+    private static final long INFINITY_BITS =
+            Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+
+    /**
+     * The number of nodes below which a relaxation round is not split.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 256;
+
+    /**
+     * The number of the locks guarding the distance and parent updates. Must
+     * be a power of two.
+     */
+    private static final int LOCK_COUNT = 1024;
+
+    private final CompactDirectedGraph graph;
+    private final double delta;
+    private final ForkJoinPool pool;
+    private final Object[] locks = new Object[LOCK_COUNT];
+
+    public DeltaSteppingShortestPaths(CompactDirectedGraph graph,
+                                      double delta) {
+        this(graph, delta, ForkJoinPool.commonPool());
+    }
+
+    public DeltaSteppingShortestPaths(CompactDirectedGraph graph,
+                                      double delta,
+                                      ForkJoinPool pool) {
+        this.graph = Objects.requireNonNull(graph, "The input graph is null.");
+        this.pool = Objects.requireNonNull(pool, "The input pool is null.");
+
+        if (Double.isNaN(delta) || delta <= 0.0) {
+            throw new IllegalArgumentException(
+                    "The input delta is not positive: " + delta + ".");
+        }
+
+        this.delta = delta;
+
+        for (int i = 0; i < LOCK_COUNT; ++i) {
+            locks[i] = new Object();
+        }
+    }
+
+    public double getDelta() {
+        return delta;
+    }
+
+    /**
+     * Computes the shortest paths from the node {@code sourceNode} to all the
+     * nodes of the graph.
+     *
+     * @param sourceNode the source node.
+     * @return the shortest path tree rooted at the source node.
+     */
+    public ShortestPathTree computeShortestPaths(int sourceNode) {
+        if (sourceNode < 0 || sourceNode >= graph.getNodeCount()) {
+            throw new IllegalArgumentException(
+                    "The node ID is out of range: " + sourceNode + ".");
+        }
+
+        return new Search().run(sourceNode);
+    }
+
+    /**
+     * This class holds the state of a single shortest path computation.
+     */
+    private final class Search {
+
+        private final AtomicLongArray DISTANCES;
+        private final int[] parents;
+
+        /**
+         * Maps the bucket indices to the nonempty buckets. The buckets may
+         * contain stale entries of the nodes whose distance has since
+         * decreased into a smaller bucket.
+         */
+        private final TreeMap<Long, Bucket> buckets = new TreeMap<>();
+
+        private final int[] frontier;
+        private final int[] frontierStamps;
+        private int frontierStamp;
+
+        /**
+         * The nodes removed from the current bucket, whose heavy arcs are yet
+         * to be relaxed.
+         */
+        private final int[] settledNodes;
+        private final int[] settledStamps;
+        private int settledStamp;
+        private int settledNodeCount;
+
+        /**
+         * The nodes whose distance decreased in the current relaxation round.
+         */
+        private final int[] changedNodes;
+        private final AtomicInteger changedNodeCount = new AtomicInteger();
+        private final AtomicIntegerArray changedStamps;
+        private int changedStamp;
+
+        Search() {
+            int nodeCount = graph.getNodeCount();
+            this.DISTANCES = new AtomicLongArray(nodeCount);
+            this.parents = new int[nodeCount];
+            this.frontier = new int[nodeCount];
+            this.frontierStamps = new int[nodeCount];
+            this.settledNodes = new int[nodeCount];
+            this.settledStamps = new int[nodeCount];
+            this.changedNodes = new int[nodeCount];
+            this.changedStamps = new AtomicIntegerArray(nodeCount);
+
+            for (int i = 0; i < nodeCount; ++i) {
+                DISTANCES.lazySet(i, INFINITY_BITS);
+            }
+
+            Arrays.fill(parents, SearchState.NO_NODE);
+        }
+
+        ShortestPathTree run(int sourceNode) {
+            DISTANCES.set(sourceNode, Double.doubleToRawLongBits(0.0));
+            addToBucket(sourceNode);
+
+            while (!buckets.isEmpty()) {
+                Map.Entry<Long, Bucket> entry = buckets.pollFirstEntry();
+                long bucketIndex = entry.getKey();
+                Bucket bucket = entry.getValue();
+                ++settledStamp;
+                settledNodeCount = 0;
+
+                while (bucket != null) {
+                    int frontierSize = loadFrontier(bucket, bucketIndex);
+                    relaxArcs(frontier, frontierSize, true);
+                    // Light arcs may have put nodes back into this bucket.
+                    bucket = buckets.remove(bucketIndex);
+                }
+
+                relaxArcs(settledNodes, settledNodeCount, false);
+            }
+
+            double[] distances = new double[DISTANCES.length()];
+
+            for (int i = 0; i < distances.length; ++i) {
+                distances[i] = getDistance(i);
+            }
+
+            return new ShortestPathTree(sourceNode, distances, parents);
+        }
+
+        /**
+         * Copies the nodes still belonging to the bucket to the frontier
+         * without duplicates, and remembers them as settled.
+         */
+        private int loadFrontier(Bucket bucket, long bucketIndex) {
+            int frontierSize = 0;
+            ++frontierStamp;
+
+            for (int i = 0; i < bucket.size; ++i) {
+                int node = bucket.nodes[i];
+
+                if (frontierStamps[node] == frontierStamp ||
+                        getBucketIndex(node) != bucketIndex) {
+                    continue;
+                }
+
+                frontierStamps[node] = frontierStamp;
+                frontier[frontierSize++] = node;
+
+                if (settledStamps[node] != settledStamp) {
+                    settledStamps[node] = settledStamp;
+                    settledNodes[settledNodeCount++] = node;
+                }
+            }
+
+            return frontierSize;
+        }
+
+        /**
+         * Relaxes either the light or the heavy arcs leaving the first
+         * {@code nodeCount} nodes of {@code nodes}, and moves the nodes whose
+         * distance decreased to their new buckets.
+         */
+        private void relaxArcs(int[] nodes, int nodeCount, boolean light) {
+            if (nodeCount == 0) {
+                return;
+            }
+
+            ++changedStamp;
+            changedNodeCount.set(0);
+
+            if (nodeCount <= SEQUENTIAL_THRESHOLD) {
+                relaxArcs(nodes, 0, nodeCount, light);
+            } else {
+                pool.invoke(new RelaxationTask(nodes, 0, nodeCount, light));
+            }
+
+            for (int i = 0, count = changedNodeCount.get(); i < count; ++i) {
+                addToBucket(changedNodes[i]);
+            }
+        }
+
+        private void relaxArcs(int[] nodes,
+                               int fromIndex,
+                               int toIndex,
+                               boolean light) {
+            for (int i = fromIndex; i < toIndex; ++i) {
+                int node = nodes[i];
+                double distance = getDistance(node);
+
+                for (int arc = graph.getOutgoingArcsBegin(node),
+                        end = graph.getOutgoingArcsEnd(node);
+                        arc < end;
+                        ++arc) {
+                    double weight = graph.getOutgoingArcWeight(arc);
+
+                    if ((weight <= delta) == light) {
+                        relax(node,
+                              graph.getOutgoingArcHead(arc),
+                              distance + weight);
+                    }
+                }
+            }
+        }
+
+        private void relax(int node, int childNode, double tentativeDistance) {
+            if (tentativeDistance >= getDistance(childNode)) {
+                return;
+            }
+
+            synchronized (locks[childNode & (LOCK_COUNT - 1)]) {
+                if (tentativeDistance >= getDistance(childNode)) {
+                    return;
+                }
+
+                DISTANCES.set(childNode,
+                              Double.doubleToRawLongBits(tentativeDistance));
+                parents[childNode] = node;
+            }
+
+            if (changedStamps.getAndSet(childNode, changedStamp)
+                    != changedStamp) {
+                changedNodes[changedNodeCount.getAndIncrement()] = childNode;
+            }
+        }
+
+        private void addToBucket(int node) {
+            long bucketIndex = getBucketIndex(node);
+            Bucket bucket = buckets.get(bucketIndex);
+
+            if (bucket == null) {
+                bucket = new Bucket();
+                buckets.put(bucketIndex, bucket);
+            }
+
+            bucket.add(node);
+        }
+
+        private long getBucketIndex(int node) {
+            return (long) (getDistance(node) / delta);
+        }
+
+        private double getDistance(int node) {
+            return Double.longBitsToDouble(DISTANCES.get(node));
+        }
+
+        /**
+         * This task relaxes the arcs leaving the nodes {@code fromIndex}
+         * (inclusive) through {@code toIndex} (exclusive), splitting the range
+         * in halves until it is small enough.
+         */
+        private final class RelaxationTask extends RecursiveAction {
+
+            private static final long serialVersionUID = 1L;
+
+            private final int[] nodes;
+            private final int fromIndex;
+            private final int toIndex;
+            private final boolean light;
+
+            RelaxationTask(int[] nodes,
+                           int fromIndex,
+                           int toIndex,
+                           boolean light) {
+                this.nodes = nodes;
+                this.fromIndex = fromIndex;
+                this.toIndex = toIndex;
+                this.light = light;
+            }
+
+            @Override
+            protected void compute() {
+                if (toIndex - fromIndex <= SEQUENTIAL_THRESHOLD) {
+                    relaxArcs(nodes, fromIndex, toIndex, light);
+                    return;
+                }
+
+                int middleIndex = (fromIndex + toIndex) >>> 1;
+                invokeAll(new RelaxationTask(nodes,
+                                             fromIndex,
+                                             middleIndex,
+                                             light),
+                          new RelaxationTask(nodes,
+                                             middleIndex,
+                                             toIndex,
+                                             light));
+            }
+        }
+    }
+
+    /**
+     * This class implements a growable list of nodes.
+     */
+    private static final class Bucket {
+
+        private int[] nodes = new int[8];
+        private int size;
+
+        void add(int node) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2 * size);
+            }
+
+            nodes[size++] = node;
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package net.coderodde.graph.pathfinding.support;
 
+import java.util.BitSet;
+import java.util.Objects;
+import net.coderodde.graph.CompactDirectedGraph;
 import net.coderodde.graph.DirectedGraph;
 import net.coderodde.graph.DirectedGraphWeightFunction;
 import net.coderodde.graph.pathfinding.AbstractPathfinder;
 import net.coderodde.graph.pathfinding.DirectedGraphPath;
+import net.coderodde.graph.pathfinding.LatencyHistogram;
+import net.coderodde.graph.pathfinding.SearchStatistics;
 
 public final class DijkstraPathfinder extends AbstractPathfinder {
 
@@ -11,14 +16,142 @@ public final class DijkstraPathfinder extends AbstractPathfinder {
 
     public DijkstraPathfinder(DirectedGraph graph,
                               DirectedGraphWeightFunction weightFunction) {
+        this(graph, weightFunction, new DaryHeap());
+    }
+
+    public DijkstraPathfinder(DirectedGraph graph,
+                              DirectedGraphWeightFunction weightFunction,
+                              IndexedHeap heap) {
+        super(graph, weightFunction);
         this.finderImplementation = 
                 new AStarPathfinder(graph, 
                                     weightFunction,
-                                    (a, b) -> { return 0.0; });
+                                    (a, b) -> { return 0.0; },
+                                    heap);
+    }
+
+    public DijkstraPathfinder(CompactDirectedGraph graph) {
+        this(graph, new DaryHeap());
+    }
+
+    public DijkstraPathfinder(CompactDirectedGraph graph, IndexedHeap heap) {
+        super(graph);
+        this.finderImplementation = 
+                new AStarPathfinder(graph, (a, b) -> { return 0.0; }, heap);
+    }
+
+    /**
+     * Makes the point-to-point searches skip the arcs not flagged for the
+     * region of the target node.
+     *
+     * @param arcFlags the arc flags of the graph, or {@code null} to stop
+     *                 pruning.
+     * @see AStarPathfinder#setArcFlags(ArcFlags)
+     */
+    public void setArcFlags(ArcFlags arcFlags) {
+        finderImplementation.setArcFlags(arcFlags);
+    }
+
+    public ArcFlags getArcFlags() {
+        return finderImplementation.getArcFlags();
     }
 
     @Override
     public DirectedGraphPath search(int sourceNodeId, int targetNodeId) {
         return finderImplementation.search(sourceNodeId, targetNodeId);
     }
+
+    @Override
+    public void setStatisticsEnabled(boolean enabled) {
+        finderImplementation.setStatisticsEnabled(enabled);
+    }
+
+    @Override
+    public boolean isStatisticsEnabled() {
+        return finderImplementation.isStatisticsEnabled();
+    }
+
+    @Override
+    public SearchStatistics getSearchStatistics() {
+        return finderImplementation.getSearchStatistics();
+    }
+
+    @Override
+    public LatencyHistogram getLatencyHistogram() {
+        return finderImplementation.getLatencyHistogram();
+    }
+
+    /**
+     * Computes the shortest path distances from {@code sourceNodeId} to each
+     * node in {@code targetNodeIds}. The search stops as soon as all the
+     * target nodes are settled. Unreachable targets receive positive infinity.
+     * 
+     * @param sourceNodeId  the source node.
+     * @param targetNodeIds the target nodes.
+     * @return the array of distances in the order of {@code targetNodeIds}.
+     */
+    public double[] computeDistances(int sourceNodeId, int[] targetNodeIds) {
+        Objects.requireNonNull(targetNodeIds, "The input target array is null.");
+        double[] distances = new double[targetNodeIds.length];
+        computeDistances(sourceNodeId, targetNodeIds, distances, 0);
+        return distances;
+    }
+
+    /**
+     * Finds the (at most) {@code k} nodes of {@code targetNodeIds} closest to
+     * {@code sourceNodeId}. A single search is run, and it stops as soon as
+     * the {@code k}th nearest target node is settled. The search state of
+     * this pathfinder is reused, so only the result is allocated.
+     * 
+     * @param sourceNodeId  the source node.
+     * @param targetNodeIds the target nodes.
+     * @param k             the maximum number of target nodes to find.
+     * @return the nearest target nodes in ascending order of distance. Fewer
+     *         than {@code k} are returned if fewer are reachable.
+     */
+    public NearestTargets findNearestTargets(int sourceNodeId,
+                                             int[] targetNodeIds,
+                                             int k) {
+        Objects.requireNonNull(targetNodeIds, "The input target array is null.");
+        checkK(k);
+        return finderImplementation.findNearestTargets(sourceNodeId,
+                                                       targetNodeIds,
+                                                       k);
+    }
+
+    /**
+     * Finds the (at most) {@code k} nodes closest to {@code sourceNodeId}
+     * among the set bits of {@code targetNodeIds}.
+     * 
+     * @param sourceNodeId  the source node.
+     * @param targetNodeIds the set of target nodes.
+     * @param k             the maximum number of target nodes to find.
+     * @return the nearest target nodes in ascending order of distance.
+     */
+    public NearestTargets findNearestTargets(int sourceNodeId,
+                                             BitSet targetNodeIds,
+                                             int k) {
+        Objects.requireNonNull(targetNodeIds, "The input target set is null.");
+        checkK(k);
+        return finderImplementation.findNearestTargets(sourceNodeId,
+                                                       targetNodeIds,
+                                                       k);
+    }
+
+    void computeDistances(int sourceNodeId,
+                          int[] targetNodeIds,
+                          double[] distances,
+                          int offset) {
+        finderImplementation.computeDistances(sourceNodeId,
+                                              targetNodeIds,
+                                              distances,
+                                              offset);
+    }
+
+    private static void checkK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException(
+                    "The input k is negative: " + k + ".");
+        }
+    }
 }
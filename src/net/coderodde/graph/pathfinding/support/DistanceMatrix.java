@@ -0,0 +1,176 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import net.coderodde.graph.CompactDirectedGraph;
+
+/**
+ * This class computes shortest path distance matrices. Each source node runs a
+ * one-to-many Dijkstra search that stops as soon as all the target nodes are
+ * settled, and the source nodes are processed in parallel in a fork/join pool.
+ * The source nodes are split into a few batches per thread of the pool, and
+ * each batch reuses one {@link DijkstraPathfinder}, so the search state is
+ * allocated per batch rather than per source node, and is not retained by
+ * the pool threads once the matrix is computed.
+ * <p>
+ * The input graph is only read, and it must not be modified while a matrix is
+ * being computed. Instances of this class may be used from several threads.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class DistanceMatrix {
+
+    private final CompactDirectedGraph graph;
+    private final ForkJoinPool pool;
+
+    public DistanceMatrix(CompactDirectedGraph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    public DistanceMatrix(CompactDirectedGraph graph, ForkJoinPool pool) {
+        this.graph = Objects.requireNonNull(graph, "The input graph is null.");
+        this.pool = Objects.requireNonNull(pool, "The input pool is null.");
+    }
+
+    /**
+     * Computes the distance matrix whose entry {@code [i][j]} is the shortest
+     * path distance from {@code sourceNodeIds[i]} to {@code targetNodeIds[j]},
+     * or positive infinity if there is no path.
+     *
+     * @param sourceNodeIds the source nodes.
+     * @param targetNodeIds the target nodes.
+     * @return the distance matrix.
+     */
+    public double[][] computeDistanceMatrix(int[] sourceNodeIds,
+                                            int[] targetNodeIds) {
+        double[] flatMatrix = computeFlatDistanceMatrix(sourceNodeIds,
+                                                        targetNodeIds);
+        double[][] matrix = new double[sourceNodeIds.length][];
+
+        for (int i = 0; i < matrix.length; ++i) {
+            matrix[i] = new double[targetNodeIds.length];
+            System.arraycopy(flatMatrix,
+                             i * targetNodeIds.length,
+                             matrix[i],
+                             0,
+                             targetNodeIds.length);
+        }
+
+        return matrix;
+    }
+
+    /**
+     * Computes the distance matrix in row-major order: the entry at
+     * {@code i * targetNodeIds.length + j} is the shortest path distance from
+     * {@code sourceNodeIds[i]} to {@code targetNodeIds[j]}, or positive
+     * infinity if there is no path.
+     *
+     * @param sourceNodeIds the source nodes.
+     * @param targetNodeIds the target nodes.
+     * @return the flat distance matrix.
+     */
+    public double[] computeFlatDistanceMatrix(int[] sourceNodeIds,
+                                              int[] targetNodeIds) {
+        Objects.requireNonNull(sourceNodeIds, "The input source array is null.");
+        Objects.requireNonNull(targetNodeIds, "The input target array is null.");
+        checkNodeIds(sourceNodeIds);
+        checkNodeIds(targetNodeIds);
+
+        long entryCount = (long) sourceNodeIds.length * targetNodeIds.length;
+
+        if (entryCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "The distance matrix is too large: " + entryCount +
+                    " entries.");
+        }
+
+        double[] matrix = new double[(int) entryCount];
+
+        if (matrix.length > 0) {
+            int taskCount = ParallelTasks.getTaskCount(pool,
+                                                       sourceNodeIds.length);
+            int batchSize = (sourceNodeIds.length + taskCount - 1) / taskCount;
+            pool.invoke(new RowTask(sourceNodeIds,
+                                    targetNodeIds,
+                                    matrix,
+                                    0,
+                                    sourceNodeIds.length,
+                                    batchSize));
+        }
+
+        return matrix;
+    }
+
+    private void checkNodeIds(int[] nodeIds) {
+        for (int nodeId : nodeIds) {
+            if (nodeId < 0 || nodeId >= graph.getNodeCount()) {
+                throw new IllegalArgumentException(
+                        "The node ID is out of range: " + nodeId + ".");
+            }
+        }
+    }
+
+    /**
+     * This task computes the rows {@code fromRow} (inclusive) through
+     * {@code toRow} (exclusive) of a flat distance matrix, splitting the range
+     * in halves until it contains at most {@code batchSize} rows, which are
+     * then computed by a single pathfinder.
+     */
+    private final class RowTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] sourceNodeIds;
+        private final int[] targetNodeIds;
+        private final double[] matrix;
+        private final int fromRow;
+        private final int toRow;
+        private final int batchSize;
+
+        RowTask(int[] sourceNodeIds,
+                int[] targetNodeIds,
+                double[] matrix,
+                int fromRow,
+                int toRow,
+                int batchSize) {
+            this.sourceNodeIds = sourceNodeIds;
+            this.targetNodeIds = targetNodeIds;
+            this.matrix = matrix;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow <= batchSize) {
+                DijkstraPathfinder pathfinder = new DijkstraPathfinder(graph);
+
+                for (int row = fromRow; row < toRow; ++row) {
+                    pathfinder.computeDistances(sourceNodeIds[row],
+                                                targetNodeIds,
+                                                matrix,
+                                                row * targetNodeIds.length);
+                }
+
+                return;
+            }
+
+            int middleRow = (fromRow + toRow) >>> 1;
+            invokeAll(new RowTask(sourceNodeIds,
+                                  targetNodeIds,
+                                  matrix,
+                                  fromRow,
+                                  middleRow,
+                                  batchSize),
+                      new RowTask(sourceNodeIds,
+                                  targetNodeIds,
+                                  matrix,
+                                  middleRow,
+                                  toRow,
+                                  batchSize));
+        }
+    }
+}
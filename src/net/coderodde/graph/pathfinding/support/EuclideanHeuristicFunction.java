@@ -1,5 +1,6 @@
 package net.coderodde.graph.pathfinding.support;
 
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import net.coderodde.graph.pathfinding.DirectedGraphNodeCoordinates;
 import net.coderodde.graph.pathfinding.HeuristicFunction;
@@ -23,9 +24,24 @@ public class EuclideanHeuristicFunction implements HeuristicFunction {
 
     /**
      * {@inheritDoc }
+     * 
+     * @throws NoSuchElementException if either node has no coordinates.
      */
     @Override
     public double estimateDistanceBetween(int nodeId1, int nodeId2) {
-        return coordinates.get(nodeId1).distance(coordinates.get(nodeId2));
+        double dx = coordinates.getX(nodeId1) - coordinates.getX(nodeId2);
+        double dy = coordinates.getY(nodeId1) - coordinates.getY(nodeId2);
+        double distance = Math.sqrt(dx * dx + dy * dy);
+
+        // A missing coordinate reads as NaN, which would corrupt the order of
+        // the open heap, so fail instead.
+        if (Double.isNaN(distance)) {
+            throw new NoSuchElementException(
+                    "The node " + 
+                    (coordinates.contains(nodeId1) ? nodeId2 : nodeId1) +
+                    " has no coordinates.");
+        }
+
+        return distance;
     }
 }
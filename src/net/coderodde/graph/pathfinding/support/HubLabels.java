@@ -0,0 +1,643 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import net.coderodde.graph.CompactDirectedGraph;
+import net.coderodde.graph.DirectedGraph;
+import net.coderodde.graph.DirectedGraphWeightFunction;
+import net.coderodde.graph.pathfinding.AbstractPathfinder;
+import net.coderodde.graph.pathfinding.DirectedGraphPath;
+import net.coderodde.graph.pathfinding.TargetUnreachableException;
+
+/**
+ * This class implements a hub labeling answering exact shortest path
+ * distance queries without searching the graph. Each node {@code u} has a
+ * forward label of pairs <tt>(h, d(u, h))</tt> and a backward label of pairs
+ * <tt>(h, d(h, u))</tt> such that every pair of nodes has a hub on a shortest
+ * path between them in common. The distance from {@code s} to {@code t} is
+ * then the smallest <tt>d(s, h) + d(h, t)</tt> over the hubs {@code h} in both
+ * the forward label of {@code s} and the backward label of {@code t}, found by
+ * a linear merge of the two labels.
+ * <p>
+ * The labels are built by the pruned landmark labeling of Takuya Akiba,
+ * Yoichi Iwata and Yuichi Yoshida in "Fast Exact Shortest-Path Distance
+ * Queries on Large Networks by Pruned Landmark Labeling." The nodes are
+ * processed in the order of their importance, and a forward and a backward
+ * Dijkstra search is run from each, adding it as a hub to the label of each
+ * node settled, but pruning every node whose distance the labels built so far
+ * already cover. The default order is the importance order of
+ * {@link ContractionHierarchiesPathfinder#getNodesByImportance()}, which
+ * yields far smaller labels than the cheaper {@link #orderByDegree} on graphs
+ * whose nodes have similar degrees, such as road networks.
+ * <p>
+ * The labels are stored in flat arrays, sorted by the hub order. They may be
+ * saved to a file and mapped back into memory. All the values are stored in
+ * the little-endian byte order, and the file consists of the following
+ * sections:
+ * <ol>
+ *   <li>the header: the magic number, the format version, the number of nodes
+ *       {@code n}, the total size {@code f} of the forward labels, the total
+ *       size {@code b} of the backward labels and four bytes of padding,</li>
+ *   <li>the {@code f} forward label distances as {@code double}s,</li>
+ *   <li>the {@code b} backward label distances as {@code double}s,</li>
+ *   <li>the {@code n + 1} forward label offsets as {@code int}s,</li>
+ *   <li>the {@code f} forward label hubs as {@code int}s,</li>
+ *   <li>the {@code n + 1} backward label offsets as {@code int}s,</li>
+ *   <li>the {@code b} backward label hubs as {@code int}s.</li>
+ * </ol>
+ * The hubs are stored as their positions in the hub order. Instances of this
+ * class are immutable and thus thread-safe.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class HubLabels {
+
+    /**
+     * The magic number identifying hub label files ("HLB1").
+     */
+    private static final int MAGIC = 0x484C4231;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private final int nodeCount;
+    private final IntBuffer forwardOffsets;
+    private final IntBuffer forwardHubs;
+    private final DoubleBuffer forwardDistances;
+    private final IntBuffer backwardOffsets;
+    private final IntBuffer backwardHubs;
+    private final DoubleBuffer backwardDistances;
+
+    /**
+     * Builds the hub labels of {@code graph} with the nodes ordered by their
+     * importance in the contraction hierarchy of the graph.
+     *
+     * @param graph the graph to label.
+     */
+    public HubLabels(CompactDirectedGraph graph) {
+        this(graph,
+             new ContractionHierarchiesPathfinder(graph)
+                     .getNodesByImportance());
+    }
+
+    /**
+     * Builds the hub labels of {@code graph} with the hub order
+     * {@code nodeOrder}.
+     *
+     * @param graph     the graph to label.
+     * @param nodeOrder all the nodes of the graph, the most important first.
+     */
+    public HubLabels(CompactDirectedGraph graph, int[] nodeOrder) {
+        Objects.requireNonNull(graph, "The input graph is null.");
+        Objects.requireNonNull(nodeOrder, "The input node order is null.");
+        checkNodeOrder(graph, nodeOrder);
+
+        LabelBuilder builder = new LabelBuilder(graph);
+
+        for (int hub = 0; hub < nodeOrder.length; ++hub) {
+            builder.labelFrom(nodeOrder[hub], hub);
+        }
+
+        this.nodeCount = graph.getNodeCount();
+        int[] offsets = new int[nodeCount + 1];
+        int[] hubs = builder.flatten(builder.forwardLabels, offsets);
+        this.forwardOffsets = IntBuffer.wrap(offsets);
+        this.forwardHubs = IntBuffer.wrap(hubs);
+        this.forwardDistances = DoubleBuffer.wrap(
+                builder.flattenDistances(builder.forwardLabels,
+                                         offsets[nodeCount]));
+
+        offsets = new int[nodeCount + 1];
+        hubs = builder.flatten(builder.backwardLabels, offsets);
+        this.backwardOffsets = IntBuffer.wrap(offsets);
+        this.backwardHubs = IntBuffer.wrap(hubs);
+        this.backwardDistances = DoubleBuffer.wrap(
+                builder.flattenDistances(builder.backwardLabels,
+                                         offsets[nodeCount]));
+    }
+
+    public HubLabels(DirectedGraph graph,
+                     DirectedGraphWeightFunction weightFunction) {
+        this(CompactDirectedGraph.freeze(graph, weightFunction));
+    }
+
+    private HubLabels(FileChannel channel, Path file) throws IOException {
+        ByteBuffer header = map(channel, 0L, HEADER_SIZE, file);
+
+        if (header.getInt() != MAGIC) {
+            throw new IOException("'" + file + "' is not a hub label file.");
+        }
+
+        int version = header.getInt();
+
+        if (version != VERSION) {
+            throw new IOException(
+                    "Unsupported hub label file version: " + version + ".");
+        }
+
+        this.nodeCount = header.getInt();
+        int forwardSize = header.getInt();
+        int backwardSize = header.getInt();
+
+        if (nodeCount < 0 || forwardSize < 0 || backwardSize < 0) {
+            throw new IOException("'" + file + "' has a corrupt header.");
+        }
+
+        long position = HEADER_SIZE;
+        this.forwardDistances = map(channel, position, 8L * forwardSize, file)
+                                .asDoubleBuffer();
+        position += 8L * forwardSize;
+        this.backwardDistances = map(channel, position, 8L * backwardSize, file)
+                                 .asDoubleBuffer();
+        position += 8L * backwardSize;
+        this.forwardOffsets = map(channel,
+                                  position,
+                                  4L * (nodeCount + 1),
+                                  file).asIntBuffer();
+        position += 4L * (nodeCount + 1);
+        this.forwardHubs = map(channel, position, 4L * forwardSize, file)
+                           .asIntBuffer();
+        position += 4L * forwardSize;
+        this.backwardOffsets = map(channel,
+                                   position,
+                                   4L * (nodeCount + 1),
+                                   file).asIntBuffer();
+        position += 4L * (nodeCount + 1);
+        this.backwardHubs = map(channel, position, 4L * backwardSize, file)
+                            .asIntBuffer();
+
+        if (forwardOffsets.get(nodeCount) != forwardSize ||
+            backwardOffsets.get(nodeCount) != backwardSize) {
+            throw new IOException("'" + file + "' has corrupt offsets.");
+        }
+    }
+
+    /**
+     * Maps the hub label file {@code file} into memory.
+     *
+     * @param file the hub label file.
+     * @return the mapped hub labels.
+     * @throws IOException if the file cannot be mapped or is malformed.
+     */
+    public static HubLabels load(Path file) throws IOException {
+        Objects.requireNonNull(file, "The input file is null.");
+
+        // The mappings stay valid after the channel is closed.
+        try (FileChannel channel = FileChannel.open(file,
+                                                    StandardOpenOption.READ)) {
+            return new HubLabels(channel, file);
+        }
+    }
+
+    /**
+     * Writes the hub labels to the file {@code file}.
+     *
+     * @param file the file to write.
+     * @throws IOException if writing fails.
+     */
+    public void save(Path file) throws IOException {
+        Objects.requireNonNull(file, "The input file is null.");
+        int forwardSize = forwardOffsets.get(nodeCount);
+        int backwardSize = backwardOffsets.get(nodeCount);
+
+        try (FileChannel channel =
+                FileChannel.open(file,
+                                 StandardOpenOption.CREATE,
+                                 StandardOpenOption.TRUNCATE_EXISTING,
+                                 StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE)
+                                          .order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(nodeCount);
+            buffer.putInt(forwardSize);
+            buffer.putInt(backwardSize);
+            buffer.putInt(0);
+
+            for (int i = 0; i < forwardSize; ++i) {
+                flushIfFull(channel, buffer, 8).putDouble(
+                        forwardDistances.get(i));
+            }
+
+            for (int i = 0; i < backwardSize; ++i) {
+                flushIfFull(channel, buffer, 8).putDouble(
+                        backwardDistances.get(i));
+            }
+
+            for (int i = 0; i <= nodeCount; ++i) {
+                flushIfFull(channel, buffer, 4).putInt(forwardOffsets.get(i));
+            }
+
+            for (int i = 0; i < forwardSize; ++i) {
+                flushIfFull(channel, buffer, 4).putInt(forwardHubs.get(i));
+            }
+
+            for (int i = 0; i <= nodeCount; ++i) {
+                flushIfFull(channel, buffer, 4).putInt(backwardOffsets.get(i));
+            }
+
+            for (int i = 0; i < backwardSize; ++i) {
+                flushIfFull(channel, buffer, 4).putInt(backwardHubs.get(i));
+            }
+
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Returns the shortest path distance from {@code sourceNodeId} to
+     * {@code targetNodeId}.
+     *
+     * @param sourceNodeId the source node.
+     * @param targetNodeId the target node.
+     * @return the distance, or positive infinity if the target node is not
+     *         reachable. Being summed via a hub, the distance may differ
+     *         from the sum of the arc weights along a path in the last bits.
+     */
+    public double distance(int sourceNodeId, int targetNodeId) {
+        checkNode(sourceNodeId);
+        checkNode(targetNodeId);
+
+        int i = forwardOffsets.get(sourceNodeId);
+        int forwardEnd = forwardOffsets.get(sourceNodeId + 1);
+        int j = backwardOffsets.get(targetNodeId);
+        int backwardEnd = backwardOffsets.get(targetNodeId + 1);
+        double bestDistance = Double.POSITIVE_INFINITY;
+
+        while (i < forwardEnd && j < backwardEnd) {
+            int forwardHub = forwardHubs.get(i);
+            int backwardHub = backwardHubs.get(j);
+
+            if (forwardHub == backwardHub) {
+                bestDistance = Math.min(bestDistance,
+                                        forwardDistances.get(i++) +
+                                        backwardDistances.get(j++));
+            } else if (forwardHub < backwardHub) {
+                ++i;
+            } else {
+                ++j;
+            }
+        }
+
+        return bestDistance;
+    }
+
+    /**
+     * Finds a shortest path from {@code sourceNodeId} to {@code targetNodeId}
+     * with the pathfinder {@code pathfinder}, since the labels hold no paths.
+     * An unreachable target node is detected from the labels without running
+     * the pathfinder.
+     *
+     * @param sourceNodeId the source node.
+     * @param targetNodeId the target node.
+     * @param pathfinder   the pathfinder over the labeled graph.
+     * @return a shortest path.
+     * @throws TargetUnreachableException if the target node is not reachable.
+     */
+    public DirectedGraphPath findPath(int sourceNodeId,
+                                      int targetNodeId,
+                                      AbstractPathfinder pathfinder) {
+        Objects.requireNonNull(pathfinder, "The input pathfinder is null.");
+
+        if (distance(sourceNodeId, targetNodeId) == Double.POSITIVE_INFINITY) {
+            throw new TargetUnreachableException(sourceNodeId, targetNodeId);
+        }
+
+        return pathfinder.search(sourceNodeId, targetNodeId);
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the average number of hubs per label.
+     *
+     * @return the average label size.
+     */
+    public double getAverageLabelSize() {
+        if (nodeCount == 0) {
+            return 0.0;
+        }
+
+        return (forwardOffsets.get(nodeCount) +
+                backwardOffsets.get(nodeCount)) / (2.0 * nodeCount);
+    }
+
+    private void checkNode(int nodeId) {
+        if (nodeId < 0 || nodeId >= nodeCount) {
+            throw new IllegalArgumentException(
+                    "The node " + nodeId + " is not in the labeled graph.");
+        }
+    }
+
+    private static void checkNodeOrder(CompactDirectedGraph graph,
+                                       int[] nodeOrder) {
+        int nodeCount = graph.getNodeCount();
+
+        if (nodeOrder.length != nodeCount) {
+            throw new IllegalArgumentException(
+                    "The node order length " + nodeOrder.length +
+                    " does not match the node count " + nodeCount + ".");
+        }
+
+        boolean[] seen = new boolean[nodeCount];
+
+        for (int node : nodeOrder) {
+            if (node < 0 || node >= nodeCount || seen[node]) {
+                throw new IllegalArgumentException(
+                        "The node order is not a permutation of the nodes.");
+            }
+
+            seen[node] = true;
+        }
+    }
+
+    /**
+     * Returns the nodes of {@code graph} in descending order of their degree.
+     *
+     * @param graph the graph.
+     * @return the node order.
+     */
+    public static int[] orderByDegree(CompactDirectedGraph graph) {
+        Objects.requireNonNull(graph, "The input graph is null.");
+        int nodeCount = graph.getNodeCount();
+        long[] keys = new long[nodeCount];
+
+        for (int node = 0; node < nodeCount; ++node) {
+            int degree = graph.getOutgoingArcsEnd(node) -
+                         graph.getOutgoingArcsBegin(node) +
+                         graph.getIncomingArcsEnd(node) -
+                         graph.getIncomingArcsBegin(node);
+            // Descending degree, ties broken by ascending node.
+            keys[node] = ((long)(Integer.MAX_VALUE - degree) << 32) | node;
+        }
+
+        Arrays.sort(keys);
+        int[] nodeOrder = new int[nodeCount];
+
+        for (int i = 0; i < nodeCount; ++i) {
+            nodeOrder[i] = (int) keys[i];
+        }
+
+        return nodeOrder;
+    }
+
+    private static ByteBuffer map(FileChannel channel,
+                                  long position,
+                                  long size,
+                                  Path file) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException(
+                    "A section of '" + file + "' is too large to map.");
+        }
+
+        if (position + size > channel.size()) {
+            throw new IOException("'" + file + "' is truncated.");
+        }
+
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                                              position,
+                                              size);
+        return buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Writes out the buffer if it has less than {@code bytes} bytes left.
+     *
+     * @return the buffer.
+     */
+    private static ByteBuffer flushIfFull(FileChannel channel,
+                                          ByteBuffer buffer,
+                                          int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(channel, buffer);
+        }
+
+        return buffer;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer)
+            throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    /**
+     * This class holds a growable label of a single node.
+     */
+    private static final class Label {
+
+        private int[] hubs = new int[4];
+        private double[] distances = new double[4];
+        private int size;
+
+        void add(int hub, double distance) {
+            if (size == hubs.length) {
+                hubs = Arrays.copyOf(hubs, 2 * size);
+                distances = Arrays.copyOf(distances, 2 * size);
+            }
+
+            hubs[size] = hub;
+            distances[size] = distance;
+            ++size;
+        }
+    }
+
+    /**
+     * This class runs the pruned searches of the labeling.
+     */
+    private static final class LabelBuilder {
+
+        private final CompactDirectedGraph graph;
+        private final Label[] forwardLabels;
+        private final Label[] backwardLabels;
+        private final DaryHeap heap = new DaryHeap();
+        private final double[] distances;
+        private final int[] reachedNodes;
+
+        /**
+         * The distances of the label of the current hub node, indexed by hub.
+         */
+        private final double[] hubDistances;
+
+        LabelBuilder(CompactDirectedGraph graph) {
+            int nodeCount = graph.getNodeCount();
+            this.graph = graph;
+            this.forwardLabels = new Label[nodeCount];
+            this.backwardLabels = new Label[nodeCount];
+            this.distances = new double[nodeCount];
+            this.reachedNodes = new int[nodeCount];
+            this.hubDistances = new double[nodeCount];
+
+            for (int node = 0; node < nodeCount; ++node) {
+                forwardLabels[node] = new Label();
+                backwardLabels[node] = new Label();
+            }
+
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+            Arrays.fill(hubDistances, Double.POSITIVE_INFINITY);
+        }
+
+        void labelFrom(int node, int hub) {
+            // Adds 'hub' to the backward labels of the nodes it reaches...
+            search(node, hub, true, forwardLabels[node], backwardLabels);
+            // ... and to the forward labels of the nodes reaching it.
+            search(node, hub, false, backwardLabels[node], forwardLabels);
+        }
+
+        /**
+         * Runs a Dijkstra search from {@code node}, adding {@code hub} to the
+         * label in {@code labels} of each node whose distance from (or to)
+         * {@code node} is not covered by {@code nodeLabel} and the labels in
+         * {@code labels}.
+         */
+        private void search(int node,
+                            int hub,
+                            boolean forward,
+                            Label nodeLabel,
+                            Label[] labels) {
+            for (int i = 0; i < nodeLabel.size; ++i) {
+                hubDistances[nodeLabel.hubs[i]] = nodeLabel.distances[i];
+            }
+
+            int reachedNodeCount = 0;
+            distances[node] = 0.0;
+            reachedNodes[reachedNodeCount++] = node;
+            heap.clear();
+            heap.add(node, 0.0);
+
+            while (!heap.isEmpty()) {
+                int currentNode = heap.extractMinimum();
+                double currentDistance = distances[currentNode];
+                Label label = labels[currentNode];
+
+                if (isCovered(label, currentDistance)) {
+                    continue;
+                }
+
+                label.add(hub, currentDistance);
+                int begin = forward ? graph.getOutgoingArcsBegin(currentNode)
+                                    : graph.getIncomingArcsBegin(currentNode);
+                int end   = forward ? graph.getOutgoingArcsEnd(currentNode)
+                                    : graph.getIncomingArcsEnd(currentNode);
+
+                for (int arc = begin; arc < end; ++arc) {
+                    int nextNode;
+                    double tentativeDistance;
+
+                    if (forward) {
+                        nextNode = graph.getOutgoingArcHead(arc);
+                        tentativeDistance = currentDistance +
+                                            graph.getOutgoingArcWeight(arc);
+                    } else {
+                        nextNode = graph.getIncomingArcTail(arc);
+                        tentativeDistance = currentDistance +
+                                            graph.getIncomingArcWeight(arc);
+                    }
+
+                    if (distances[nextNode] > tentativeDistance) {
+                        if (heap.contains(nextNode)) {
+                            heap.decreasePriority(nextNode, tentativeDistance);
+                        } else {
+                            if (distances[nextNode] ==
+                                    Double.POSITIVE_INFINITY) {
+                                reachedNodes[reachedNodeCount++] = nextNode;
+                            }
+
+                            heap.add(nextNode, tentativeDistance);
+                        }
+
+                        distances[nextNode] = tentativeDistance;
+                    }
+                }
+            }
+
+            for (int i = 0; i < reachedNodeCount; ++i) {
+                distances[reachedNodes[i]] = Double.POSITIVE_INFINITY;
+            }
+
+            for (int i = 0; i < nodeLabel.size; ++i) {
+                hubDistances[nodeLabel.hubs[i]] = Double.POSITIVE_INFINITY;
+            }
+        }
+
+        /**
+         * Returns {@code true} if the labels built so far already give a
+         * distance of at most {@code distance} between the current hub node
+         * and the node with the label {@code label}.
+         */
+        private boolean isCovered(Label label, double distance) {
+            for (int i = 0; i < label.size; ++i) {
+                if (hubDistances[label.hubs[i]] + label.distances[i]
+                        <= distance) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * Concatenates the hubs of {@code labels}, storing the start offset of
+         * each label in {@code offsets}.
+         */
+        int[] flatten(Label[] labels, int[] offsets) {
+            long size = 0L;
+
+            for (int node = 0; node < labels.length; ++node) {
+                offsets[node] = (int) size;
+                size += labels[node].size;
+            }
+
+            if (8L * size > Integer.MAX_VALUE) {
+                throw new IllegalStateException(
+                        "The labels are too large: " + size + " hubs.");
+            }
+
+            offsets[labels.length] = (int) size;
+            int[] hubs = new int[(int) size];
+
+            for (int node = 0; node < labels.length; ++node) {
+                System.arraycopy(labels[node].hubs,
+                                 0,
+                                 hubs,
+                                 offsets[node],
+                                 labels[node].size);
+            }
+
+            return hubs;
+        }
+
+        double[] flattenDistances(Label[] labels, int size) {
+            double[] result = new double[size];
+            int offset = 0;
+
+            for (Label label : labels) {
+                System.arraycopy(label.distances,
+                                 0,
+                                 result,
+                                 offset,
+                                 label.size);
+                offset += label.size;
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package net.coderodde.graph.pathfinding.support;
+
+/**
+ * This interface defines the API for priority queues over graph nodes that 
+ * support decreasing the priority of a node already in the queue. Each node 
+ * appears in the queue at most once, so the queue never grows beyond the 
+ * size of the search frontier. The node identifiers must be non-negative.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public interface IndexedHeap {
+
+    /**
+     * Adds the node {@code nodeId} that is not yet in this heap.
+     * 
+     * @param nodeId   the node to add.
+     * @param priority the priority of the node.
+     */
+    public void add(int nodeId, double priority);
+
+    /**
+     * Lowers the priority of the node {@code nodeId} that is in this heap.
+     * 
+     * @param nodeId   the node whose priority to lower.
+     * @param priority the new priority, no larger than the current one.
+     */
+    public void decreasePriority(int nodeId, double priority);
+
+    /**
+     * Returns {@code true} if the node {@code nodeId} is in this heap.
+     * 
+     * @param nodeId the node to query.
+     * @return {@code true} if the node is in this heap.
+     */
+    public boolean contains(int nodeId);
+
+    /**
+     * Returns the node with the lowest priority without removing it.
+     * 
+     * @return the node with the lowest priority.
+     */
+    public int getMinimum();
+
+    /**
+     * Returns the lowest priority in this heap.
+     * 
+     * @return the lowest priority.
+     */
+    public double getMinimumPriority();
+
+    /**
+     * Removes and returns the node with the lowest priority.
+     * 
+     * @return the node with the lowest priority.
+     */
+    public int extractMinimum();
+
+    /**
+     * Returns the number of nodes in this heap.
+     * 
+     * @return the number of nodes.
+     */
+    public int size();
+
+    /**
+     * Returns {@code true} if this heap contains no nodes.
+     * 
+     * @return {@code true} if this heap is empty.
+     */
+    public boolean isEmpty();
+
+    /**
+     * Removes all the nodes from this heap. Runs in time proportional to the
+     * size of the heap.
+     */
+    public void clear();
+}
@@ -0,0 +1,316 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import net.coderodde.graph.CompactDirectedGraph;
+import net.coderodde.graph.DirectedGraph;
+import net.coderodde.graph.DirectedGraphWeightFunction;
+import net.coderodde.graph.pathfinding.DirectedGraphPath;
+import net.coderodde.graph.pathfinding.HeuristicFunction;
+import net.coderodde.graph.pathfinding.TargetUnreachableException;
+
+/**
+ * This class finds the {@code k} shortest loopless paths between two nodes
+ * with the algorithm of Jin Y. Yen, improved by Eugene Lawler to spur only
+ * from the nodes at or after the deviation node of the previous path. Each
+ * spur search is an A* search over the graph masked by a {@link SearchMask},
+ * which hides the nodes of the root path and the arcs leaving the spur node
+ * along the paths found so far. The spur searches of each round are split
+ * into a few batches per thread of a fork/join pool, and each batch reuses
+ * one {@link AStarPathfinder} and one mask, which are released when the batch
+ * ends.
+ * <p>
+ * The input graph must not be modified while paths are being searched.
+ * Instances of this class may be used from several threads.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class KShortestPathsFinder {
+
+    private final ForkJoinPool pool;
+    private final Supplier<AStarPathfinder> pathfinderFactory;
+
+    public KShortestPathsFinder(DirectedGraph graph,
+                                DirectedGraphWeightFunction weightFunction,
+                                HeuristicFunction heuristicFunction) {
+        this(graph,
+             weightFunction,
+             heuristicFunction,
+             ForkJoinPool.commonPool());
+    }
+
+    public KShortestPathsFinder(DirectedGraph graph,
+                                DirectedGraphWeightFunction weightFunction,
+                                HeuristicFunction heuristicFunction,
+                                ForkJoinPool pool) {
+        this(() -> new AStarPathfinder(graph,
+                                       weightFunction,
+                                       heuristicFunction),
+             pool);
+    }
+
+    public KShortestPathsFinder(CompactDirectedGraph graph,
+                                HeuristicFunction heuristicFunction) {
+        this(graph, heuristicFunction, ForkJoinPool.commonPool());
+    }
+
+    public KShortestPathsFinder(CompactDirectedGraph graph,
+                                HeuristicFunction heuristicFunction,
+                                ForkJoinPool pool) {
+        this(() -> new AStarPathfinder(graph, heuristicFunction), pool);
+    }
+
+    private KShortestPathsFinder(Supplier<AStarPathfinder> factory,
+                                 ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool, "The input pool is null.");
+        // Fail fast on invalid arguments instead of in the worker threads.
+        factory.get();
+        this.pathfinderFactory = factory;
+    }
+
+    /**
+     * Finds the (at most) {@code k} shortest loopless paths from
+     * {@code sourceNodeId} to {@code targetNodeId}.
+     *
+     * @param sourceNodeId the source node.
+     * @param targetNodeId the target node.
+     * @param k            the maximum number of paths to find.
+     * @return the paths in nondecreasing order of cost. Fewer than {@code k}
+     *         are returned if there are fewer loopless paths, and none if the
+     *         target node is unreachable.
+     */
+    public List<DirectedGraphPath> findPaths(int sourceNodeId,
+                                             int targetNodeId,
+                                             int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException(
+                    "The input k is negative: " + k + ".");
+        }
+
+        List<DirectedGraphPath> result = new ArrayList<>(k);
+
+        if (k == 0) {
+            return result;
+        }
+
+        FoundPath path = spur(new FoundPath(new int[]{ sourceNodeId },
+                                            new double[]{ 0.0 },
+                                            0),
+                              0,
+                              targetNodeId,
+                              pathfinderFactory.get(),
+                              null);
+
+        if (path == null) {
+            return result;
+        }
+
+        List<FoundPath> foundPaths = new ArrayList<>(k);
+        PriorityQueue<FoundPath> candidates = new PriorityQueue<>();
+        Set<FoundPath> seenPaths = new HashSet<>();
+        seenPaths.add(path);
+
+        while (true) {
+            foundPaths.add(path);
+            result.add(path.toDirectedGraphPath());
+
+            if (foundPaths.size() == k) {
+                return result;
+            }
+
+            for (FoundPath candidate : spurAll(path,
+                                               foundPaths,
+                                               targetNodeId)) {
+                if (seenPaths.add(candidate)) {
+                    candidates.add(candidate);
+                }
+            }
+
+            path = candidates.poll();
+
+            if (path == null) {
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Runs in parallel the spur searches from each node of the path
+     * {@code path} starting from its deviation node.
+     */
+    private List<FoundPath> spurAll(FoundPath path,
+                                    List<FoundPath> foundPaths,
+                                    int targetNodeId) {
+        int spurCount = path.nodes.length - 1 - path.deviationIndex;
+        int taskCount = ParallelTasks.getTaskCount(pool, spurCount);
+        List<Callable<List<FoundPath>>> tasks = new ArrayList<>(taskCount);
+
+        for (int i = 0; i < taskCount; ++i) {
+            int fromIndex = path.deviationIndex +
+                            (int)((long) spurCount * i / taskCount);
+            int toIndex = path.deviationIndex +
+                          (int)((long) spurCount * (i + 1) / taskCount);
+
+            tasks.add(() -> {
+                AStarPathfinder pathfinder = pathfinderFactory.get();
+                SearchMask mask = new SearchMask();
+                List<FoundPath> spurPaths = new ArrayList<>();
+
+                for (int spurIndex = fromIndex;
+                        spurIndex < toIndex;
+                        ++spurIndex) {
+                    mask.clear();
+                    configureMask(mask,
+                                  pathfinder,
+                                  path,
+                                  spurIndex,
+                                  foundPaths);
+                    FoundPath spurPath = spur(path,
+                                              spurIndex,
+                                              targetNodeId,
+                                              pathfinder,
+                                              mask);
+
+                    if (spurPath != null) {
+                        spurPaths.add(spurPath);
+                    }
+                }
+
+                return spurPaths;
+            });
+        }
+
+        List<FoundPath> spurPaths = new ArrayList<>(spurCount);
+
+        for (List<FoundPath> batchSpurPaths :
+                ParallelTasks.invokeAll(pool, tasks)) {
+            spurPaths.addAll(batchSpurPaths);
+        }
+
+        return spurPaths;
+    }
+
+    /**
+     * Bans the nodes of the root path before the spur node, and the arcs
+     * leaving the spur node along each found path sharing the root path. The
+     * mask is keyed by the slots {@code pathfinder} gives the nodes.
+     */
+    private static void configureMask(SearchMask mask,
+                                      AStarPathfinder pathfinder,
+                                      FoundPath path,
+                                      int spurIndex,
+                                      List<FoundPath> foundPaths) {
+        for (int i = 0; i < spurIndex; ++i) {
+            mask.banNode(pathfinder.getSlot(path.nodes[i]));
+        }
+
+        int spurSlot = pathfinder.getSlot(path.nodes[spurIndex]);
+
+        for (FoundPath foundPath : foundPaths) {
+            if (foundPath.nodes.length > spurIndex + 1 &&
+                    foundPath.hasPrefix(path, spurIndex + 1)) {
+                mask.banArc(spurSlot,
+                            pathfinder.getSlot(
+                                    foundPath.nodes[spurIndex + 1]));
+            }
+        }
+    }
+
+    /**
+     * Extends the root path {@code path[0..spurIndex]} by a shortest spur
+     * path from the spur node to the target node in the masked graph.
+     *
+     * @return the total path, or {@code null} if there is no spur path.
+     */
+    private static FoundPath spur(FoundPath path,
+                                  int spurIndex,
+                                  int targetNodeId,
+                                  AStarPathfinder pathfinder,
+                                  SearchMask mask) {
+        DirectedGraphPath spurPath;
+
+        try {
+            spurPath = pathfinder.search(path.nodes[spurIndex],
+                                         targetNodeId,
+                                         mask);
+        } catch (TargetUnreachableException ex) {
+            return null;
+        }
+
+        int length = spurIndex + spurPath.size();
+        int[] nodes = Arrays.copyOf(path.nodes, length);
+        double[] prefixCosts = Arrays.copyOf(path.prefixCosts, length);
+        double rootCost = path.prefixCosts[spurIndex];
+
+        for (int i = 1; i < spurPath.size(); ++i) {
+            nodes[spurIndex + i] = spurPath.getNode(i);
+            prefixCosts[spurIndex + i] =
+                    rootCost + pathfinder.getDistance(spurPath.getNode(i));
+        }
+
+        return new FoundPath(nodes, prefixCosts, spurIndex);
+    }
+
+    /**
+     * This class holds a found path with the cost of each of its prefixes and
+     * the index of the node at which it deviates from its parent path.
+     */
+    private static final class FoundPath implements Comparable<FoundPath> {
+
+        private final int[] nodes;
+        private final double[] prefixCosts;
+        private final int deviationIndex;
+
+        FoundPath(int[] nodes, double[] prefixCosts, int deviationIndex) {
+            this.nodes = nodes;
+            this.prefixCosts = prefixCosts;
+            this.deviationIndex = deviationIndex;
+        }
+
+        double getCost() {
+            return prefixCosts[prefixCosts.length - 1];
+        }
+
+        boolean hasPrefix(FoundPath other, int length) {
+            for (int i = 0; i < length; ++i) {
+                if (nodes[i] != other.nodes[i]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        DirectedGraphPath toDirectedGraphPath() {
+            // The node array is never modified after construction.
+            return new DirectedGraphPath(nodes, getCost());
+        }
+
+        @Override
+        public int compareTo(FoundPath other) {
+            int cmp = Double.compare(getCost(), other.getCost());
+            return cmp != 0 ? cmp : Integer.compare(nodes.length,
+                                                    other.nodes.length);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof FoundPath &&
+                   Arrays.equals(nodes, ((FoundPath) o).nodes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(nodes);
+        }
+    }
+}
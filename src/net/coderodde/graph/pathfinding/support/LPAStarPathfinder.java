@@ -0,0 +1,501 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import net.coderodde.graph.DirectedGraph;
+import net.coderodde.graph.DirectedGraphWeightFunction;
+import net.coderodde.graph.GraphChangeListener;
+import net.coderodde.graph.pathfinding.AbstractPathfinder;
+import net.coderodde.graph.pathfinding.DirectedGraphPath;
+import net.coderodde.graph.pathfinding.HeuristicFunction;
+import net.coderodde.graph.pathfinding.TargetUnreachableException;
+
+/**
+ * This class implements Lifelong Planning A* (LPA*) due to Sven Koenig, Maxim
+ * Likhachev and David Furcy. The search state of the most recent query is
+ * kept between the searches, and when the same source and target nodes are
+ * queried again after the graph has changed, only the nodes whose distances
+ * the changes affect are processed again.
+ * <p>
+ * This pathfinder registers itself as a listener of the graph and the weight
+ * function on its first search, and records the heads of the added, removed
+ * and reweighted arcs, as well as the removed nodes. The changes are applied
+ * at the beginning of the next search. {@link #close()} unregisters the
+ * listener. A query with different terminal nodes, or the removal of
+ * a terminal node, starts a search from scratch.
+ * <p>
+ * Each node keeps its distance estimate {@code g} and the one-step lookahead
+ * value {@code rhs}, the minimum of {@code g(p) + w(p, u)} over the parents
+ * {@code p} of the node {@code u}. The nodes whose two values differ are kept
+ * in a priority queue ordered lexicographically by the key
+ * {@code [min(g, rhs) + h, min(g, rhs)]}. The queue does not support
+ * changing keys, so outdated entries are skipped when popped.
+ * <p>
+ * The per-node state is kept in arrays indexed by the dense slots a
+ * {@link NodeIndex} gives the nodes as the search meets them, so the node
+ * identifiers may be any {@code int} values, negative or sparse.
+ * <p>
+ * <b>This class is not thread-safe.</b> The graph must be modified in the
+ * thread using this pathfinder.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class LPAStarPathfinder extends AbstractPathfinder
+                                     implements GraphChangeListener,
+                                                AutoCloseable {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final HeuristicFunction heuristicFunction;
+    private final PriorityQueue<QueueEntry> OPEN = new PriorityQueue<>();
+
+    /**
+     * Gives the nodes the slots indexing the per-node arrays.
+     */
+    private final NodeIndex nodeIndex = new NodeIndex();
+
+    private double[] g = new double[INITIAL_CAPACITY];
+    private double[] rhs = new double[INITIAL_CAPACITY];
+    private int[] parents = new int[INITIAL_CAPACITY];
+
+    /**
+     * The entries of {@code g}, {@code rhs} and {@code parents} are valid only
+     * for the slots stamped with the current value of {@link #stamp}.
+     */
+    private int[] stamps = new int[INITIAL_CAPACITY];
+    private int stamp;
+
+    /**
+     * Maps each slot to the version of its only valid queue entry, or to zero
+     * if the slot is not in the queue.
+     */
+    private int[] queueVersions = new int[INITIAL_CAPACITY];
+    private int queueVersion;
+
+    /**
+     * The heads of the arcs changed since the previous search.
+     */
+    private int[] changedNodes = new int[INITIAL_CAPACITY];
+    private int changedNodeCount;
+
+    private int sourceNode;
+    private int targetNode;
+    private int sourceSlot;
+    private int targetSlot;
+
+    /**
+     * Whether the search state is that of a search from {@code sourceNode} to
+     * {@code targetNode}, and may be repaired after changes. No node
+     * identifier is reserved to mark the absence of a state, since any
+     * {@code int} may be a node.
+     */
+    private boolean hasSearchState;
+
+    /**
+     * Whether this pathfinder is registered as a listener of the graph and
+     * the weight function.
+     */
+    private boolean attached;
+    private boolean closed;
+
+    public LPAStarPathfinder(DirectedGraph graph,
+                             DirectedGraphWeightFunction weightFunction,
+                             HeuristicFunction heuristicFunction) {
+        super(graph, weightFunction);
+        this.heuristicFunction =
+                Objects.requireNonNull(heuristicFunction,
+                                       "The input heuristic function is null.");
+    }
+
+    @Override
+    public DirectedGraphPath search(int sourceNodeId, int targetNodeId) {
+        checkNodeId(sourceNodeId);
+        checkNodeId(targetNodeId);
+        attach();
+        beginSearch();
+
+        try {
+            try {
+                if (!hasSearchState ||
+                        sourceNodeId != sourceNode ||
+                        targetNodeId != targetNode) {
+                    init(sourceNodeId, targetNodeId);
+                } else {
+                    applyChanges();
+                }
+
+                computeShortestPath();
+            } catch (RuntimeException ex) {
+                // Do not reuse a state left inconsistent by an exception.
+                hasSearchState = false;
+                throw ex;
+            }
+
+            if (getG(targetSlot) == Double.POSITIVE_INFINITY) {
+                throw new TargetUnreachableException(graph,
+                                                     sourceNodeId,
+                                                     targetNodeId);
+            }
+
+            return tracebackPath(targetSlot,
+                                 parents,
+                                 null,
+                                 getG(targetSlot),
+                                 nodeIndex.getNodeIds());
+        } finally {
+            endSearch();
+        }
+    }
+
+    @Override
+    public void arcAdded(int tailNodeId, int headNodeId) {
+        recordChange(headNodeId);
+    }
+
+    @Override
+    public void arcWeightChanged(int tailNodeId,
+                                 int headNodeId,
+                                 double weight) {
+        recordChange(headNodeId);
+    }
+
+    @Override
+    public void arcRemoved(int tailNodeId, int headNodeId) {
+        recordChange(headNodeId);
+    }
+
+    @Override
+    public void nodeRemoved(int nodeId) {
+        if (nodeId == sourceNode || nodeId == targetNode) {
+            // Start from scratch on the next search.
+            hasSearchState = false;
+        } else {
+            recordChange(nodeId);
+        }
+    }
+
+    private void recordChange(int nodeId) {
+        if (!hasSearchState) {
+            return;
+        }
+
+        if (changedNodeCount == changedNodes.length) {
+            changedNodes = Arrays.copyOf(changedNodes, 2 * changedNodeCount);
+        }
+
+        changedNodes[changedNodeCount++] = nodeId;
+    }
+
+    private void init(int sourceNodeId, int targetNodeId) {
+        sourceNode = sourceNodeId;
+        targetNode = targetNodeId;
+        hasSearchState = true;
+        changedNodeCount = 0;
+        OPEN.clear();
+
+        if (nodeIndex.size() > 2L * graph.getNodeCount() +
+                               NodeIndex.DENSE_NODE_SLACK) {
+            // Many nodes were removed; free their slots.
+            nodeIndex.clear();
+        }
+
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+
+        sourceSlot = nodeIndex.getSlot(sourceNodeId);
+        targetSlot = nodeIndex.getSlot(targetNodeId);
+        setRhs(sourceSlot, 0.0, SearchState.NO_NODE);
+        enqueue(sourceSlot);
+    }
+
+    private void applyChanges() {
+        for (int i = 0; i < changedNodeCount; ++i) {
+            int nodeId = changedNodes[i];
+
+            if (graph.hasNode(nodeId)) {
+                updateNode(nodeId);
+                continue;
+            }
+
+            int slot = nodeIndex.findSlot(nodeId);
+
+            if (slot != SearchState.NO_NODE) {
+                // The node was removed along with all its arcs.
+                setG(slot, Double.POSITIVE_INFINITY);
+                setRhs(slot, Double.POSITIVE_INFINITY, SearchState.NO_NODE);
+                queueVersions[slot] = 0;
+            }
+        }
+
+        changedNodeCount = 0;
+    }
+
+    private void computeShortestPath() {
+        while (true) {
+            QueueEntry entry = peekValidEntry();
+
+            if (entry == null) {
+                return;
+            }
+
+            double targetKey2 = Math.min(getG(targetSlot), getRhs(targetSlot));
+            double targetKey1 = targetKey2 + estimate(targetSlot);
+
+            if (compareKeys(entry.key1,
+                            entry.key2,
+                            targetKey1,
+                            targetKey2) >= 0 &&
+                    getRhs(targetSlot) == getG(targetSlot)) {
+                return;
+            }
+
+            OPEN.poll();
+            ++heapPopCount;
+            int currentSlot = entry.slot;
+            int currentNode = nodeIndex.getNodeId(currentSlot);
+            queueVersions[currentSlot] = 0;
+            ++expandedNodeCount;
+
+            if (getG(currentSlot) > getRhs(currentSlot)) {
+                // Overconsistent: the node gets its final distance.
+                setG(currentSlot, getRhs(currentSlot));
+
+                for (Integer childNode : graph.getChildrenOf(currentNode)) {
+                    updateNode(childNode);
+                }
+            } else {
+                // Underconsistent: the distance grew, so reopen the node and
+                // everything that may have depended on it.
+                setG(currentSlot, Double.POSITIVE_INFINITY);
+                updateNode(currentNode);
+
+                for (Integer childNode : graph.getChildrenOf(currentNode)) {
+                    updateNode(childNode);
+                }
+            }
+        }
+    }
+
+    /**
+     * Recomputes the {@code rhs} value of the node and puts it in the queue
+     * if and only if it is locally inconsistent.
+     */
+    private void updateNode(int nodeId) {
+        int slot = nodeIndex.getSlot(nodeId);
+        ensureCapacity(slot + 1);
+
+        if (slot != sourceSlot) {
+            double bestRhs = Double.POSITIVE_INFINITY;
+            int bestParentSlot = SearchState.NO_NODE;
+
+            for (Integer parentNode : graph.getParentsOf(nodeId)) {
+                ++relaxedArcCount;
+                int parentSlot = nodeIndex.findSlot(parentNode);
+
+                if (parentSlot == SearchState.NO_NODE) {
+                    // Never met by the search, so its distance is infinite.
+                    continue;
+                }
+
+                double candidate = getG(parentSlot) +
+                                   weightFunction.get(parentNode, nodeId);
+
+                if (candidate < bestRhs) {
+                    bestRhs = candidate;
+                    bestParentSlot = parentSlot;
+                }
+            }
+
+            setRhs(slot, bestRhs, bestParentSlot);
+        }
+
+        if (getG(slot) != getRhs(slot)) {
+            enqueue(slot);
+        } else {
+            queueVersions[slot] = 0;
+        }
+    }
+
+    private void enqueue(int slot) {
+        ensureCapacity(slot + 1);
+        double key2 = Math.min(getG(slot), getRhs(slot));
+
+        if (++queueVersion == Integer.MAX_VALUE) {
+            rebuildQueue();
+        }
+
+        queueVersions[slot] = queueVersion;
+        OPEN.add(new QueueEntry(slot,
+                                key2 + estimate(slot),
+                                key2,
+                                queueVersion));
+        countHeapPush();
+    }
+
+    /**
+     * Discards the outdated entries on top of the queue and returns the top
+     * entry without removing it.
+     */
+    private QueueEntry peekValidEntry() {
+        QueueEntry entry;
+
+        while ((entry = OPEN.peek()) != null &&
+                queueVersions[entry.slot] != entry.version) {
+            OPEN.poll();
+            ++heapPopCount;
+            ++stalePopCount;
+        }
+
+        return entry;
+    }
+
+    /**
+     * Renumbers the valid queue entries when the versions run out.
+     */
+    private void rebuildQueue() {
+        List<QueueEntry> entries = new ArrayList<>(OPEN.size());
+
+        for (QueueEntry entry : OPEN) {
+            if (queueVersions[entry.slot] == entry.version) {
+                entries.add(entry);
+            }
+        }
+
+        OPEN.clear();
+        Arrays.fill(queueVersions, 0);
+        queueVersion = 0;
+
+        for (QueueEntry entry : entries) {
+            queueVersions[entry.slot] = ++queueVersion;
+            OPEN.add(new QueueEntry(entry.slot,
+                                    entry.key1,
+                                    entry.key2,
+                                    queueVersion));
+        }
+
+        ++queueVersion;
+    }
+
+    /**
+     * Unregisters this pathfinder from the graph and the weight function. This
+     * pathfinder may not search after being closed.
+     */
+    @Override
+    public void close() {
+        if (attached) {
+            graph.removeGraphChangeListener(this);
+            weightFunction.removeGraphChangeListener(this);
+            attached = false;
+        }
+
+        closed = true;
+    }
+
+    /**
+     * Registers this pathfinder as a listener of the graph and the weight
+     * function, unless already registered. Until then, no search state
+     * exists that the changes could make stale.
+     */
+    private void attach() {
+        if (closed) {
+            throw new IllegalStateException("The pathfinder is closed.");
+        }
+
+        if (!attached) {
+            graph.addGraphChangeListener(this);
+            weightFunction.addGraphChangeListener(this);
+            attached = true;
+        }
+    }
+
+    private double estimate(int slot) {
+        return heuristicFunction.estimateDistanceBetween(
+                nodeIndex.getNodeId(slot),
+                targetNode);
+    }
+
+    private double getG(int slot) {
+        return slot < stamps.length && stamps[slot] == stamp ?
+               g[slot] :
+               Double.POSITIVE_INFINITY;
+    }
+
+    private double getRhs(int slot) {
+        return slot < stamps.length && stamps[slot] == stamp ?
+               rhs[slot] :
+               Double.POSITIVE_INFINITY;
+    }
+
+    private void setG(int slot, double value) {
+        touch(slot);
+        g[slot] = value;
+    }
+
+    private void setRhs(int slot, double value, int parentSlot) {
+        touch(slot);
+        rhs[slot] = value;
+        parents[slot] = parentSlot;
+    }
+
+    private void touch(int slot) {
+        ensureCapacity(slot + 1);
+
+        if (stamps[slot] != stamp) {
+            stamps[slot] = stamp;
+            g[slot] = Double.POSITIVE_INFINITY;
+            rhs[slot] = Double.POSITIVE_INFINITY;
+            parents[slot] = SearchState.NO_NODE;
+        }
+    }
+
+    private void ensureCapacity(int requestedCapacity) {
+        if (requestedCapacity <= stamps.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(requestedCapacity, 2 * stamps.length);
+        g = Arrays.copyOf(g, newCapacity);
+        rhs = Arrays.copyOf(rhs, newCapacity);
+        parents = Arrays.copyOf(parents, newCapacity);
+        stamps = Arrays.copyOf(stamps, newCapacity);
+        queueVersions = Arrays.copyOf(queueVersions, newCapacity);
+    }
+
+    private static int compareKeys(double key1a,
+                                   double key2a,
+                                   double key1b,
+                                   double key2b) {
+        int cmp = Double.compare(key1a, key1b);
+        return cmp != 0 ? cmp : Double.compare(key2a, key2b);
+    }
+
+    /**
+     * This class implements a queue entry, valid only while its version is
+     * the current version of its slot.
+     */
+    private static final class QueueEntry implements Comparable<QueueEntry> {
+
+        private final int slot;
+        private final double key1;
+        private final double key2;
+        private final int version;
+
+        QueueEntry(int slot, double key1, double key2, int version) {
+            this.slot = slot;
+            this.key1 = key1;
+            this.key2 = key2;
+            this.version = version;
+        }
+
+        @Override
+        public int compareTo(QueueEntry other) {
+            return compareKeys(key1, key2, other.key1, other.key2);
+        }
+    }
+}
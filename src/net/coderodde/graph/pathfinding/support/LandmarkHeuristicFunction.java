@@ -0,0 +1,391 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import net.coderodde.graph.CompactDirectedGraph;
+import net.coderodde.graph.DirectedGraph;
+import net.coderodde.graph.DirectedGraphWeightFunction;
+import net.coderodde.graph.pathfinding.HeuristicFunction;
+
+/**
+ * This class implements the ALT (A*, landmarks and triangle inequality)
+ * heuristic function. For each landmark {@code L}, the distances from
+ * {@code L} to all nodes and from all nodes to {@code L} are precomputed,
+ * after which the triangle inequality gives the lower bounds
+ * <tt>d(L, v) - d(L, u)</tt> and <tt>d(u, L) - d(v, L)</tt> for the distance
+ * from {@code u} to {@code v}. The estimate is the largest bound over all
+ * landmarks.
+ * <p>
+ * Unlike {@link EuclideanHeuristicFunction}, this heuristic needs no
+ * coordinates and stays tight no matter how the arc weights relate to the
+ * geometry of the graph. The distance tables are stored as {@code float}
+ * values, and the estimates are lowered by the rounding error so that they
+ * remain optimistic. The tables may be saved to a file and loaded back, so
+ * that the preprocessing need not be repeated.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class LandmarkHeuristicFunction implements HeuristicFunction {
+
+    /**
+     * The magic number identifying landmark files ("ALT1").
+     */
+    private static final int MAGIC = 0x414C5431;
+
+    private final int nodeCount;
+    private final int[] landmarks;
+
+    /**
+     * The distance from the {@code i}th landmark to the node {@code u} is
+     * stored at the index {@code u * landmarks.length + i}.
+     */
+    private final float[] distancesFromLandmarks;
+
+    /**
+     * The distance from the node {@code u} to the {@code i}th landmark is
+     * stored at the index {@code u * landmarks.length + i}.
+     */
+    private final float[] distancesToLandmarks;
+
+    /**
+     * The amount by which each bound is lowered to compensate for storing the
+     * distances as {@code float} values.
+     */
+    private final double roundingError;
+
+    /**
+     * Chooses {@code landmarkCount} landmarks via farthest selection and
+     * precomputes their distance tables.
+     *
+     * @param graph         the graph to preprocess.
+     * @param landmarkCount the number of landmarks.
+     */
+    public LandmarkHeuristicFunction(CompactDirectedGraph graph,
+                                     int landmarkCount) {
+        this(graph, selectFarthestLandmarks(graph, landmarkCount));
+    }
+
+    /**
+     * Precomputes the distance tables of the given landmarks.
+     *
+     * @param graph     the graph to preprocess.
+     * @param landmarks the landmark nodes.
+     */
+    public LandmarkHeuristicFunction(CompactDirectedGraph graph,
+                                     int[] landmarks) {
+        this.nodeCount = graph.getNodeCount();
+        this.landmarks = landmarks.clone();
+        this.distancesFromLandmarks = new float[nodeCount * landmarks.length];
+        this.distancesToLandmarks   = new float[nodeCount * landmarks.length];
+
+        double[] distances = new double[nodeCount];
+        DaryHeap heap = new DaryHeap();
+
+        for (int i = 0; i < landmarks.length; ++i) {
+            if (landmarks[i] < 0 || landmarks[i] >= nodeCount) {
+                throw new IllegalArgumentException(
+                        "Bad landmark node: " + landmarks[i] + ".");
+            }
+
+            computeDistances(graph, landmarks[i], true, heap, distances);
+            store(distances, distancesFromLandmarks, i);
+            computeDistances(graph, landmarks[i], false, heap, distances);
+            store(distances, distancesToLandmarks, i);
+        }
+
+        this.roundingError = computeRoundingError();
+    }
+
+    public LandmarkHeuristicFunction(
+            DirectedGraph graph,
+            DirectedGraphWeightFunction weightFunction,
+            int landmarkCount) {
+        this(CompactDirectedGraph.freeze(graph, weightFunction),
+             landmarkCount);
+    }
+
+    private LandmarkHeuristicFunction(int nodeCount,
+                                      int[] landmarks,
+                                      float[] distancesFromLandmarks,
+                                      float[] distancesToLandmarks) {
+        this.nodeCount = nodeCount;
+        this.landmarks = landmarks;
+        this.distancesFromLandmarks = distancesFromLandmarks;
+        this.distancesToLandmarks = distancesToLandmarks;
+        this.roundingError = computeRoundingError();
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public double estimateDistanceBetween(int nodeId1, int nodeId2) {
+        int landmarkCount = landmarks.length;
+        int offset1 = nodeId1 * landmarkCount;
+        int offset2 = nodeId2 * landmarkCount;
+        double estimate = 0.0;
+
+        for (int i = 0; i < landmarkCount; ++i) {
+            // d(u, v) >= d(L, v) - d(L, u)
+            float from1 = distancesFromLandmarks[offset1 + i];
+            float from2 = distancesFromLandmarks[offset2 + i];
+
+            if (from1 != Float.POSITIVE_INFINITY
+                    && from2 != Float.POSITIVE_INFINITY) {
+                estimate = Math.max(estimate, (double) from2 - from1);
+            }
+
+            // d(u, v) >= d(u, L) - d(v, L)
+            float to1 = distancesToLandmarks[offset1 + i];
+            float to2 = distancesToLandmarks[offset2 + i];
+
+            if (to1 != Float.POSITIVE_INFINITY
+                    && to2 != Float.POSITIVE_INFINITY) {
+                estimate = Math.max(estimate, (double) to1 - to2);
+            }
+        }
+
+        return Math.max(0.0, estimate - roundingError);
+    }
+
+    /**
+     * Returns the landmark nodes.
+     *
+     * @return the landmark nodes.
+     */
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * Writes the landmark tables to the file {@code file}.
+     *
+     * @param file the file to write.
+     * @throws IOException if writing fails.
+     */
+    public void save(Path file) throws IOException {
+        try (DataOutputStream out =
+                new DataOutputStream(
+                        new BufferedOutputStream(
+                                Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(nodeCount);
+            out.writeInt(landmarks.length);
+
+            for (int landmark : landmarks) {
+                out.writeInt(landmark);
+            }
+
+            for (float distance : distancesFromLandmarks) {
+                out.writeFloat(distance);
+            }
+
+            for (float distance : distancesToLandmarks) {
+                out.writeFloat(distance);
+            }
+        }
+    }
+
+    /**
+     * Reads the landmark tables written by {@link #save(Path)}.
+     *
+     * @param file the file to read.
+     * @return the landmark heuristic function.
+     * @throws IOException if reading fails or the file is malformed.
+     */
+    public static LandmarkHeuristicFunction load(Path file) throws IOException {
+        try (DataInputStream in =
+                new DataInputStream(
+                        new BufferedInputStream(
+                                Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("'" + file + "' is not a landmark file.");
+            }
+
+            int nodeCount = in.readInt();
+            int[] landmarks = new int[in.readInt()];
+
+            for (int i = 0; i < landmarks.length; ++i) {
+                landmarks[i] = in.readInt();
+            }
+
+            float[] distancesFromLandmarks =
+                    new float[nodeCount * landmarks.length];
+            float[] distancesToLandmarks =
+                    new float[nodeCount * landmarks.length];
+
+            for (int i = 0; i < distancesFromLandmarks.length; ++i) {
+                distancesFromLandmarks[i] = in.readFloat();
+            }
+
+            for (int i = 0; i < distancesToLandmarks.length; ++i) {
+                distancesToLandmarks[i] = in.readFloat();
+            }
+
+            return new LandmarkHeuristicFunction(nodeCount,
+                                                 landmarks,
+                                                 distancesFromLandmarks,
+                                                 distancesToLandmarks);
+        }
+    }
+
+    /**
+     * Chooses the landmarks one by one, each time taking the node that
+     * maximizes its smallest separation from the landmarks chosen so far. The
+     * very first landmark is the node farthest from the node 0.
+     */
+    private static int[] selectFarthestLandmarks(CompactDirectedGraph graph,
+                                                 int landmarkCount) {
+        int nodeCount = graph.getNodeCount();
+
+        if (landmarkCount < 1) {
+            throw new IllegalArgumentException(
+                    "The landmark count must be positive: " +
+                    landmarkCount + ".");
+        }
+
+        if (nodeCount == 0) {
+            throw new IllegalArgumentException("The input graph is empty.");
+        }
+
+        landmarkCount = Math.min(landmarkCount, nodeCount);
+
+        int[] landmarks = new int[landmarkCount];
+        double[] separations = new double[nodeCount];
+        double[] forwardDistances = new double[nodeCount];
+        double[] backwardDistances = new double[nodeCount];
+        DaryHeap heap = new DaryHeap();
+        boolean[] isLandmark = new boolean[nodeCount];
+        int seedNode = 0;
+
+        Arrays.fill(separations, Double.POSITIVE_INFINITY);
+
+        for (int i = -1; i < landmarkCount; ++i) {
+            int node = i < 0 ? seedNode : landmarks[i];
+            computeDistances(graph, node, true, heap, forwardDistances);
+            computeDistances(graph, node, false, heap, backwardDistances);
+
+            for (int u = 0; u < nodeCount; ++u) {
+                double separation = 0.0;
+
+                if (forwardDistances[u] != Double.POSITIVE_INFINITY) {
+                    separation += forwardDistances[u];
+                }
+
+                if (backwardDistances[u] != Double.POSITIVE_INFINITY) {
+                    separation += backwardDistances[u];
+                }
+
+                if (i <= 0) {
+                    // The seed node is not a landmark, so forget it as soon
+                    // as the first landmark is known.
+                    separations[u] = separation;
+                } else {
+                    separations[u] = Math.min(separations[u], separation);
+                }
+            }
+
+            if (i + 1 == landmarkCount) {
+                break;
+            }
+
+            int bestNode = -1;
+
+            for (int u = 0; u < nodeCount; ++u) {
+                if (!isLandmark[u] && (bestNode == -1 ||
+                        separations[u] > separations[bestNode])) {
+                    bestNode = u;
+                }
+            }
+
+            landmarks[i + 1] = bestNode;
+            isLandmark[bestNode] = true;
+        }
+
+        return landmarks;
+    }
+
+    /**
+     * Runs a one-to-all Dijkstra's algorithm from {@code sourceNode} either
+     * along the arcs or against them.
+     */
+    private static void computeDistances(CompactDirectedGraph graph,
+                                         int sourceNode,
+                                         boolean forward,
+                                         DaryHeap heap,
+                                         double[] distances) {
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        distances[sourceNode] = 0.0;
+        heap.clear();
+        heap.add(sourceNode, 0.0);
+
+        while (!heap.isEmpty()) {
+            int currentNode = heap.extractMinimum();
+            double currentDistance = distances[currentNode];
+            int begin = forward ? graph.getOutgoingArcsBegin(currentNode)
+                                : graph.getIncomingArcsBegin(currentNode);
+            int end   = forward ? graph.getOutgoingArcsEnd(currentNode)
+                                : graph.getIncomingArcsEnd(currentNode);
+
+            for (int arc = begin; arc < end; ++arc) {
+                int nextNode;
+                double tentativeDistance;
+
+                if (forward) {
+                    nextNode = graph.getOutgoingArcHead(arc);
+                    tentativeDistance = currentDistance +
+                                        graph.getOutgoingArcWeight(arc);
+                } else {
+                    nextNode = graph.getIncomingArcTail(arc);
+                    tentativeDistance = currentDistance +
+                                        graph.getIncomingArcWeight(arc);
+                }
+
+                if (distances[nextNode] > tentativeDistance) {
+                    if (heap.contains(nextNode)) {
+                        heap.decreasePriority(nextNode, tentativeDistance);
+                    } else {
+                        heap.add(nextNode, tentativeDistance);
+                    }
+
+                    distances[nextNode] = tentativeDistance;
+                }
+            }
+        }
+    }
+
+    private void store(double[] distances, float[] table, int landmarkIndex) {
+        for (int u = 0; u < nodeCount; ++u) {
+            table[u * landmarks.length + landmarkIndex] = (float) distances[u];
+        }
+    }
+
+    /**
+     * Each stored distance is off by at most half an ulp of the largest
+     * finite stored distance, and each bound subtracts two of them.
+     */
+    private double computeRoundingError() {
+        float maximumDistance = 0.0f;
+
+        for (float distance : distancesFromLandmarks) {
+            if (distance != Float.POSITIVE_INFINITY) {
+                maximumDistance = Math.max(maximumDistance, distance);
+            }
+        }
+
+        for (float distance : distancesToLandmarks) {
+            if (distance != Float.POSITIVE_INFINITY) {
+                maximumDistance = Math.max(maximumDistance, distance);
+            }
+        }
+
+        return Math.ulp(maximumDistance);
+    }
+}
@@ -1,12 +1,7 @@
 package net.coderodde.graph.pathfinding.support;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
 import java.util.Objects;
-import java.util.PriorityQueue;
-import java.util.Set;
+import net.coderodde.graph.CompactDirectedGraph;
 import net.coderodde.graph.DirectedGraph;
 import net.coderodde.graph.DirectedGraphWeightFunction;
 import net.coderodde.graph.pathfinding.AbstractPathfinder;
@@ -27,187 +22,386 @@ import net.coderodde.graph.pathfinding.TargetUnreachableException;
 public final class NBAStarPathfinder extends AbstractPathfinder {
 
     private final HeuristicFunction heuristicFunction;
-    private final PriorityQueue<HeapEntry> OPENA = new PriorityQueue<>();
-    private final PriorityQueue<HeapEntry> OPENB = new PriorityQueue<>();
-    private final Map<Integer, Integer> PARENTSA = new HashMap<>();
-    private final Map<Integer, Integer> PARENTSB = new HashMap<>();
-    private final Map<Integer, Double> DISTANCEA = new HashMap<>();
-    private final Map<Integer, Double> DISTANCEB = new HashMap<>();
-    private final Set<Integer> CLOSED = new HashSet<>();
+    private final IndexedHeap OPENA;
+    private final IndexedHeap OPENB;
+    private final SearchState STATEA;
+    private final SearchState STATEB;
+
+    /**
+     * Gives the nodes of a hash-based graph the slots indexing the heaps and
+     * the search states of both directions, or {@code null} on a compact
+     * graph, whose nodes are the slots themselves.
+     */
+    private final NodeIndex nodeIndex;
 
     private double fA;
     private double fB;
     private double bestPathLength;
-    private Integer touchNode;
-    private Integer sourceNode;
-    private Integer targetNode;
+
+    /**
+     * The slot of the node where the best path found so far passes.
+     */
+    private int touchSlot;
+    private int sourceNode;
+    private int targetNode;
+
+    /**
+     * The arc flags pruning the searches, or {@code null}.
+     */
+    private ArcFlags arcFlags;
+
+    /**
+     * The region of the target node of the current search, or {@code -1} if
+     * the search is not pruned.
+     */
+    private int flagRegion = -1;
 
     public NBAStarPathfinder(DirectedGraph graph,
             DirectedGraphWeightFunction weightFunction,
             HeuristicFunction heuristicFunction) {
+        this(graph, 
+             weightFunction, 
+             heuristicFunction, 
+             new DaryHeap(), 
+             new DaryHeap());
+    }
+
+    public NBAStarPathfinder(DirectedGraph graph,
+            DirectedGraphWeightFunction weightFunction,
+            HeuristicFunction heuristicFunction,
+            IndexedHeap forwardHeap,
+            IndexedHeap backwardHeap) {
         super(graph, weightFunction);
         this.heuristicFunction
                 = Objects.requireNonNull(heuristicFunction,
                         "The input heuristic function is null.");
+        this.OPENA = Objects.requireNonNull(forwardHeap, 
+                                            "The forward heap is null.");
+        this.OPENB = Objects.requireNonNull(backwardHeap,
+                                            "The backward heap is null.");
+        checkHeaps();
+        this.STATEA = new SearchState();
+        this.STATEB = new SearchState();
+        this.nodeIndex = new NodeIndex();
+    }
+
+    public NBAStarPathfinder(CompactDirectedGraph graph,
+            HeuristicFunction heuristicFunction) {
+        this(graph, heuristicFunction, new DaryHeap(), new DaryHeap());
+    }
+
+    public NBAStarPathfinder(CompactDirectedGraph graph,
+            HeuristicFunction heuristicFunction,
+            IndexedHeap forwardHeap,
+            IndexedHeap backwardHeap) {
+        super(graph);
+        this.heuristicFunction
+                = Objects.requireNonNull(heuristicFunction,
+                        "The input heuristic function is null.");
+        this.OPENA = Objects.requireNonNull(forwardHeap, 
+                                            "The forward heap is null.");
+        this.OPENB = Objects.requireNonNull(backwardHeap,
+                                            "The backward heap is null.");
+        checkHeaps();
+        this.STATEA = new SearchState(graph.getNodeCount());
+        this.STATEB = new SearchState(graph.getNodeCount());
+        this.nodeIndex = null;
+    }
+
+    /**
+     * Makes the searches skip the arcs not flagged for the region of the
+     * target node. Both search directions are pruned by the same flags, so
+     * that they explore the same subgraph, which still contains a shortest
+     * path to the target node.
+     *
+     * @param arcFlags the arc flags of the graph, or {@code null} to stop
+     *                 pruning.
+     */
+    public void setArcFlags(ArcFlags arcFlags) {
+        if (arcFlags != null && arcFlags.getGraph() != compactGraph) {
+            throw new IllegalArgumentException(
+                    "The arc flags are not computed for the graph of this " +
+                    "pathfinder.");
+        }
+
+        this.arcFlags = arcFlags;
+    }
+
+    public ArcFlags getArcFlags() {
+        return arcFlags;
     }
 
     @Override
     public DirectedGraphPath search(int sourceNode, int targetNode) {
+        checkNodeId(sourceNode);
+        checkNodeId(targetNode);
+
         if (sourceNode == targetNode) {
-            return new DirectedGraphPath(Arrays.asList(sourceNode));
+            return new DirectedGraphPath(new int[]{ sourceNode }, 0.0);
         }
 
-        init(sourceNode, targetNode);
+        beginSearch();
 
-        while (!OPENA.isEmpty() && !OPENB.isEmpty()) {
-            if (OPENA.size() < OPENB.size()) {
-                expandInForwardDirection();
-            } else {
-                expandInBackwardDirection();
+        try {
+            init(sourceNode, targetNode);
+
+            while (!OPENA.isEmpty() && !OPENB.isEmpty()) {
+                if (OPENA.size() < OPENB.size()) {
+                    expandInForwardDirection();
+                } else {
+                    expandInBackwardDirection();
+                }
             }
-        }
 
-        if (touchNode == null) {
-            throw new TargetUnreachableException(graph, 
-                                                 sourceNode,
-                                                 targetNode);
-        }
+            if (touchSlot == SearchState.NO_NODE) {
+                throw new TargetUnreachableException(graph, 
+                                                     sourceNode,
+                                                     targetNode);
+            }
 
-        return tracebackPath(touchNode, PARENTSA, PARENTSB);
+            return tracebackPath(touchSlot, 
+                                 STATEA.getParents(), 
+                                 STATEB.getParents(),
+                                 bestPathLength,
+                                 nodeIndex == null ? null
+                                                   : nodeIndex.getNodeIds());
+        } finally {
+            endSearch();
+        }
     }
 
     private void expandInForwardDirection() {
-        Integer currentNode = OPENA.remove().getNode();
+        int currentSlot = OPENA.extractMinimum();
+        ++heapPopCount;
 
-        if (CLOSED.contains(currentNode)) {
+        if (isClosed(currentSlot)) {
+            // Closed by the opposite search direction.
+            ++stalePopCount;
             return;
         }
 
-        CLOSED.add(currentNode);
+        STATEA.close(currentSlot);
 
-        if (DISTANCEA.get(currentNode) +
-                heuristicFunction.estimateDistanceBetween(currentNode,
-                                                          targetNode)
+        if (STATEA.getDistance(currentSlot) +
+                heuristicFunction.estimateDistanceBetween(
+                        toNodeId(currentSlot),
+                        targetNode)
                 >= bestPathLength
                 ||
-                DISTANCEA.get(currentNode) +
+                STATEA.getDistance(currentSlot) +
                 fB - 
-                heuristicFunction.estimateDistanceBetween(currentNode,
-                                                          sourceNode)
+                heuristicFunction.estimateDistanceBetween(
+                        sourceNode,
+                        toNodeId(currentSlot))
                 >= bestPathLength) {
-            // Reject the 'currentNode'.
+            // Reject the 'currentSlot'.
+            ++prunedNodeCount;
         } else {
-            // Stabilize the 'currentNode'.
-            for (Integer childNode : graph.getChildrenOf(currentNode)) {
-                if (CLOSED.contains(childNode)) {
-                    continue;
+            // Stabilize the 'currentSlot'.
+            ++expandedNodeCount;
+
+            if (compactGraph != null) {
+                for (int arc = compactGraph.getOutgoingArcsBegin(currentSlot),
+                        end = compactGraph.getOutgoingArcsEnd(currentSlot);
+                        arc < end;
+                        ++arc) {
+                    if (flagRegion >= 0 &&
+                            !arcFlags.isOutgoingArcFlagged(arc, flagRegion)) {
+                        continue;
+                    }
+
+                    relaxInForwardDirection(
+                            currentSlot,
+                            compactGraph.getOutgoingArcHead(arc),
+                            compactGraph.getOutgoingArcWeight(arc));
                 }
+            } else {
+                int currentNode = nodeIndex.getNodeId(currentSlot);
 
-                double tentativeDistance
-                        = DISTANCEA.get(currentNode)
-                        + weightFunction.get(currentNode, childNode);
-
-                if (!DISTANCEA.containsKey(childNode)
-                        || 
-                        DISTANCEA.get(childNode) > tentativeDistance) {
-                    DISTANCEA.put(childNode, tentativeDistance);
-                    PARENTSA.put(childNode, currentNode);
-                    HeapEntry e
-                            = new HeapEntry(
-                                    childNode,
-                                    tentativeDistance
-                                    + heuristicFunction
-                                    .estimateDistanceBetween(childNode,
-                                                             targetNode));
-                    OPENA.add(e);
-
-                    if (DISTANCEB.containsKey(childNode)) {
-                        double pathLength = tentativeDistance
-                                + DISTANCEB.get(childNode);
-
-                        if (bestPathLength > pathLength) {
-                            bestPathLength = pathLength;
-                            touchNode = childNode;
-                        }
-                    }
+                for (Integer childNode : graph.getChildrenOf(currentNode)) {
+                    relaxInForwardDirection(
+                            currentSlot,
+                            nodeIndex.getSlot(childNode),
+                            weightFunction.get(currentNode, childNode));
                 }
             }
         }
 
         if (!OPENA.isEmpty()) {
-            fA = OPENA.peek().getDistance();
+            fA = OPENA.getMinimumPriority();
         }
     }
 
     private void expandInBackwardDirection() {
-        Integer currentNode = OPENB.remove().getNode();
+        int currentSlot = OPENB.extractMinimum();
+        ++heapPopCount;
 
-        if (CLOSED.contains(currentNode)) {
+        if (isClosed(currentSlot)) {
+            // Closed by the opposite search direction.
+            ++stalePopCount;
             return;
         }
 
-        CLOSED.add(currentNode);
+        STATEB.close(currentSlot);
 
-        if (DISTANCEB.get(currentNode) +
-                heuristicFunction.estimateDistanceBetween(currentNode,
-                                                          sourceNode)
+        if (STATEB.getDistance(currentSlot) +
+                heuristicFunction.estimateDistanceBetween(
+                        sourceNode,
+                        toNodeId(currentSlot))
                 >= bestPathLength
                 || 
-                DISTANCEB.get(currentNode) +
+                STATEB.getDistance(currentSlot) +
                 fA -
-                heuristicFunction.estimateDistanceBetween(currentNode, 
-                                                          targetNode)
+                heuristicFunction.estimateDistanceBetween(
+                        toNodeId(currentSlot),
+                        targetNode)
                 >= bestPathLength) {
-            // Reject the node 'currentNode'.
+            // Reject the node 'currentSlot'.
+            ++prunedNodeCount;
         } else {
-            for (Integer parentNode : graph.getParentsOf(currentNode)) {
-                if (CLOSED.contains(parentNode)) {
-                    continue;
+            ++expandedNodeCount;
+
+            if (compactGraph != null) {
+                for (int arc = compactGraph.getIncomingArcsBegin(currentSlot),
+                        end = compactGraph.getIncomingArcsEnd(currentSlot);
+                        arc < end;
+                        ++arc) {
+                    if (flagRegion >= 0 &&
+                            !arcFlags.isIncomingArcFlagged(arc, flagRegion)) {
+                        continue;
+                    }
+
+                    relaxInBackwardDirection(
+                            currentSlot,
+                            compactGraph.getIncomingArcTail(arc),
+                            compactGraph.getIncomingArcWeight(arc));
                 }
+            } else {
+                int currentNode = nodeIndex.getNodeId(currentSlot);
 
-                double tentativeDistance
-                        = DISTANCEB.get(currentNode)
-                        + weightFunction.get(parentNode, currentNode);
-
-                if (!DISTANCEB.containsKey(parentNode)
-                        ||
-                        DISTANCEB.get(parentNode) > tentativeDistance) {
-                    DISTANCEB.put(parentNode, tentativeDistance);
-                    PARENTSB.put(parentNode, currentNode);
-                    HeapEntry e
-                            = new HeapEntry(parentNode,
-                                    tentativeDistance
-                                    + heuristicFunction
-                                    .estimateDistanceBetween(parentNode,
-                                                             sourceNode));
-                    OPENB.add(e);
-
-                    if (DISTANCEA.containsKey(parentNode)) {
-                        double pathLength = tentativeDistance
-                                + DISTANCEA.get(parentNode);
-
-                        if (bestPathLength > pathLength) {
-                            bestPathLength = pathLength;
-                            touchNode = parentNode;
-                        }
-                    }
+                for (Integer parentNode : graph.getParentsOf(currentNode)) {
+                    relaxInBackwardDirection(
+                            currentSlot,
+                            nodeIndex.getSlot(parentNode),
+                            weightFunction.get(parentNode, currentNode));
                 }
             }
         }
 
         if (!OPENB.isEmpty()) {
-            fB = OPENB.peek().getDistance();
+            fB = OPENB.getMinimumPriority();
+        }
+    }
+
+    private void relaxInForwardDirection(int currentSlot,
+                                         int childSlot,
+                                         double arcWeight) {
+        ++relaxedArcCount;
+
+        if (isClosed(childSlot)) {
+            return;
+        }
+
+        double tentativeDistance = STATEA.getDistance(currentSlot) + arcWeight;
+
+        if (STATEA.getDistance(childSlot) > tentativeDistance) {
+            STATEA.put(childSlot, tentativeDistance, currentSlot);
+            double priority 
+                    = tentativeDistance
+                    + heuristicFunction.estimateDistanceBetween(
+                            toNodeId(childSlot),
+                            targetNode);
+
+            if (OPENA.contains(childSlot)) {
+                OPENA.decreasePriority(childSlot, priority);
+            } else {
+                OPENA.add(childSlot, priority);
+                countHeapPush();
+            }
+
+            if (STATEB.isReached(childSlot)) {
+                double pathLength = tentativeDistance
+                        + STATEB.getDistance(childSlot);
+
+                if (bestPathLength > pathLength) {
+                    bestPathLength = pathLength;
+                    touchSlot = childSlot;
+                }
+            }
         }
     }
 
-    private void init(Integer sourceNode, Integer targetNode) {
+    private void relaxInBackwardDirection(int currentSlot,
+                                          int parentSlot,
+                                          double arcWeight) {
+        ++relaxedArcCount;
+
+        if (isClosed(parentSlot)) {
+            return;
+        }
+
+        double tentativeDistance = STATEB.getDistance(currentSlot) + arcWeight;
+
+        if (STATEB.getDistance(parentSlot) > tentativeDistance) {
+            STATEB.put(parentSlot, tentativeDistance, currentSlot);
+            double priority
+                    = tentativeDistance
+                    + heuristicFunction.estimateDistanceBetween(
+                            sourceNode,
+                            toNodeId(parentSlot));
+
+            if (OPENB.contains(parentSlot)) {
+                OPENB.decreasePriority(parentSlot, priority);
+            } else {
+                OPENB.add(parentSlot, priority);
+                countHeapPush();
+            }
+
+            if (STATEA.isReached(parentSlot)) {
+                double pathLength = tentativeDistance
+                        + STATEA.getDistance(parentSlot);
+
+                if (bestPathLength > pathLength) {
+                    bestPathLength = pathLength;
+                    touchSlot = parentSlot;
+                }
+            }
+        }
+    }
+
+    private void checkHeaps() {
+        if (OPENA == OPENB) {
+            throw new IllegalArgumentException(
+                    "The forward and backward heaps are the same object.");
+        }
+    }
+
+    private boolean isClosed(int slot) {
+        return STATEA.isClosed(slot) || STATEB.isClosed(slot);
+    }
+
+    private int toSlot(int nodeId) {
+        return nodeIndex == null ? nodeId : nodeIndex.getSlot(nodeId);
+    }
+
+    private int toNodeId(int slot) {
+        return nodeIndex == null ? slot : nodeIndex.getNodeId(slot);
+    }
+
+    private void init(int sourceNode, int targetNode) {
         OPENA.clear();
         OPENB.clear();
-        PARENTSA.clear();
-        PARENTSB.clear();
-        DISTANCEA.clear();
-        DISTANCEB.clear();
-        CLOSED.clear();
+        STATEA.reset();
+        STATEB.reset();
+
+        // Free the slots once there are many more of them than the nodes, as
+        // after removing many nodes, so that the slot arrays stay
+        // proportional to the node count.
+        if (nodeIndex != null &&
+                nodeIndex.size() > 2L * graph.getNodeCount() +
+                                   NodeIndex.DENSE_NODE_SLACK) {
+            nodeIndex.clear();
+        }
 
         double totalDistance
                 = heuristicFunction.estimateDistanceBetween(sourceNode,
@@ -216,15 +410,20 @@ public final class NBAStarPathfinder extends AbstractPathfinder {
         fA = totalDistance;
         fB = totalDistance;
         bestPathLength = Double.MAX_VALUE;
-        touchNode = null;
+        touchSlot = SearchState.NO_NODE;
         this.sourceNode = sourceNode;
         this.targetNode = targetNode;
-
-        OPENA.add(new HeapEntry(sourceNode, fA));
-        OPENB.add(new HeapEntry(targetNode, fB));
-        PARENTSA.put(sourceNode, null);
-        PARENTSB.put(targetNode, null);
-        DISTANCEA.put(sourceNode, 0.0);
-        DISTANCEB.put(targetNode, 0.0);
+        this.flagRegion = arcFlags == null ? -1
+                                           : arcFlags.getRegion(targetNode);
+
+        int sourceSlot = toSlot(sourceNode);
+        int targetSlot = toSlot(targetNode);
+
+        OPENA.add(sourceSlot, fA);
+        OPENB.add(targetSlot, fB);
+        countHeapPush();
+        countHeapPush();
+        STATEA.put(sourceSlot, 0.0, SearchState.NO_NODE);
+        STATEB.put(targetSlot, 0.0, SearchState.NO_NODE);
     }
 }
@@ -0,0 +1,79 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import net.coderodde.graph.pathfinding.DirectedGraphPath;
+
+/**
+ * This class holds the result of a k-nearest targets query: the found target
+ * nodes in ascending order of their distance from the source node, together
+ * with the distances and the shortest paths.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class NearestTargets {
+
+    private final int[] targets;
+    private final double[] distances;
+    private final DirectedGraphPath[] paths;
+
+    NearestTargets(int[] targets,
+                   double[] distances,
+                   DirectedGraphPath[] paths,
+                   int size) {
+        this.targets = size == targets.length ?
+                       targets :
+                       Arrays.copyOf(targets, size);
+        this.distances = size == distances.length ?
+                         distances :
+                         Arrays.copyOf(distances, size);
+        this.paths = size == paths.length ? paths : Arrays.copyOf(paths, size);
+    }
+
+    /**
+     * Returns the number of the found target nodes.
+     *
+     * @return the number of targets.
+     */
+    public int size() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the {@code index}th nearest target node.
+     *
+     * @param index the rank of the target, starting from zero.
+     * @return the target node.
+     */
+    public int getTarget(int index) {
+        return targets[index];
+    }
+
+    public double getDistance(int index) {
+        return distances[index];
+    }
+
+    public DirectedGraphPath getPath(int index) {
+        return paths[index];
+    }
+
+    /**
+     * Returns the found target nodes in ascending order of distance. The array
+     * is not copied.
+     *
+     * @return the target array.
+     */
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * Returns the distances of the found target nodes, parallel to
+     * {@link #getTargets()}. The array is not copied.
+     *
+     * @return the distance array.
+     */
+    public double[] getDistances() {
+        return distances;
+    }
+}
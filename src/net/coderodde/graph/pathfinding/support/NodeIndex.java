@@ -0,0 +1,158 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * This class gives the nodes of a hash-based graph dense slots
+ * {@code 0, 1, ..., size() - 1} in the order they are first seen, so that the
+ * search state and the heaps may be indexed by the slots however large,
+ * negative or sparse the node identifiers are. The arrays indexed by the
+ * slots then grow to the number of the nodes seen, not to the largest node.
+ * <p>
+ * The slots of the non-negative nodes are found in an array indexed by the
+ * node as long as that array stays at most about twice as long as the number
+ * of the slots; the slots of the other nodes are found through a hash map.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+final class NodeIndex {
+
+    /**
+     * The number of the nodes beyond twice the number of the slots the dense
+     * slot array may grow to cover.
+     */
+    static final int DENSE_NODE_SLACK = 64;
+
+    private static final int MINIMUM_CAPACITY = 64;
+
+    /**
+     * Maps each node below its length to its slot, or to
+     * {@link SearchState#NO_NODE}.
+     */
+    private int[] denseSlots = new int[0];
+
+    /**
+     * Maps the nodes not covered by {@link #denseSlots} to their slots.
+     */
+    private final Map<Integer, Integer> sparseSlots = new HashMap<>();
+
+    /**
+     * Maps each slot to its node.
+     */
+    private int[] nodeIds = new int[MINIMUM_CAPACITY];
+    private int size;
+
+    /**
+     * Returns the slot of the node {@code nodeId}, giving it the next free
+     * slot if it has none.
+     *
+     * @param nodeId the node.
+     * @return the slot of the node.
+     */
+    int getSlot(int nodeId) {
+        int slot = findSlot(nodeId);
+        return slot != SearchState.NO_NODE ? slot : addSlot(nodeId);
+    }
+
+    /**
+     * Returns the slot of the node {@code nodeId} without giving it one.
+     *
+     * @param nodeId the node.
+     * @return the slot of the node, or {@link SearchState#NO_NODE} if none.
+     */
+    int findSlot(int nodeId) {
+        if (nodeId >= 0 && nodeId < denseSlots.length) {
+            return denseSlots[nodeId];
+        }
+
+        if (sparseSlots.isEmpty()) {
+            return SearchState.NO_NODE;
+        }
+
+        Integer slot = sparseSlots.get(nodeId);
+        return slot != null ? slot : SearchState.NO_NODE;
+    }
+
+    /**
+     * Returns the node in the slot {@code slot}.
+     *
+     * @param slot the slot, or {@link SearchState#NO_NODE}.
+     * @return the node, or {@link SearchState#NO_NODE}.
+     */
+    int getNodeId(int slot) {
+        return slot == SearchState.NO_NODE ? SearchState.NO_NODE
+                                           : nodeIds[slot];
+    }
+
+    /**
+     * Returns the array mapping each slot to its node. Only the first
+     * {@link #size()} entries are meaningful.
+     *
+     * @return the node array.
+     */
+    int[] getNodeIds() {
+        return nodeIds;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Frees all the slots.
+     */
+    void clear() {
+        Arrays.fill(denseSlots, SearchState.NO_NODE);
+        sparseSlots.clear();
+        size = 0;
+    }
+
+    private int addSlot(int nodeId) {
+        if (size == nodeIds.length) {
+            nodeIds = Arrays.copyOf(nodeIds, 2 * size);
+        }
+
+        int slot = size++;
+        nodeIds[slot] = nodeId;
+
+        if (nodeId >= denseSlots.length &&
+                nodeId < 2L * size + DENSE_NODE_SLACK) {
+            growDenseSlots(nodeId);
+        }
+
+        if (nodeId >= 0 && nodeId < denseSlots.length) {
+            denseSlots[nodeId] = slot;
+        } else {
+            sparseSlots.put(nodeId, slot);
+        }
+
+        return slot;
+    }
+
+    /**
+     * Grows the dense slot array to cover {@code nodeId}, and moves into it
+     * the sparse nodes it now covers.
+     */
+    private void growDenseSlots(int nodeId) {
+        int oldLength = denseSlots.length;
+        int newLength = Math.max(nodeId + 1, 2 * oldLength);
+        denseSlots = Arrays.copyOf(denseSlots, newLength);
+        Arrays.fill(denseSlots, oldLength, newLength, SearchState.NO_NODE);
+        Iterator<Map.Entry<Integer, Integer>> iterator =
+                sparseSlots.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Integer> entry = iterator.next();
+            int sparseNodeId = entry.getKey();
+
+            if (sparseNodeId >= 0 && sparseNodeId < newLength) {
+                denseSlots[sparseNodeId] = entry.getValue();
+                iterator.remove();
+            }
+        }
+    }
+}
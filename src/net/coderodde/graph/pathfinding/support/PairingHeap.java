@@ -0,0 +1,246 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements an indexed pairing heap. The tree links are stored in
+ * primitive arrays indexed by node identifiers, so neither insertion nor
+ * decreasing a priority allocates anything. Removing the minimum node uses the
+ * standard two-pass pairing of its children.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class PairingHeap implements IndexedHeap {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int NIL = -1;
+
+    private int root = NIL;
+    private int size;
+    private double[] priorities = new double[0];
+
+    /**
+     * Maps each node to its leftmost child.
+     */
+    private int[] children = new int[0];
+
+    /**
+     * Maps each node to its right sibling.
+     */
+    private int[] siblings = new int[0];
+
+    /**
+     * Maps each node to its left sibling, or to its parent if the node is the
+     * leftmost child.
+     */
+    private int[] predecessors = new int[0];
+
+    private boolean[] present = new boolean[0];
+
+    /**
+     * The scratch array used by extraction and clearing.
+     */
+    private int[] buffer = new int[INITIAL_CAPACITY];
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void add(int nodeId, double priority) {
+        if (nodeId >= present.length) {
+            ensureCapacity(nodeId + 1);
+        }
+
+        priorities[nodeId] = priority;
+        children[nodeId] = NIL;
+        siblings[nodeId] = NIL;
+        predecessors[nodeId] = NIL;
+        present[nodeId] = true;
+        root = root == NIL ? nodeId : link(root, nodeId);
+        ++size;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void decreasePriority(int nodeId, double priority) {
+        priorities[nodeId] = priority;
+
+        if (nodeId == root) {
+            return;
+        }
+
+        int predecessor = predecessors[nodeId];
+        int sibling = siblings[nodeId];
+
+        if (children[predecessor] == nodeId) {
+            children[predecessor] = sibling;
+        } else {
+            siblings[predecessor] = sibling;
+        }
+
+        if (sibling != NIL) {
+            predecessors[sibling] = predecessor;
+        }
+
+        siblings[nodeId] = NIL;
+        predecessors[nodeId] = NIL;
+        root = link(root, nodeId);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean contains(int nodeId) {
+        return nodeId < present.length && present[nodeId];
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getMinimum() {
+        checkNotEmpty();
+        return root;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public double getMinimumPriority() {
+        checkNotEmpty();
+        return priorities[root];
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int extractMinimum() {
+        checkNotEmpty();
+        int minimumNode = root;
+        present[minimumNode] = false;
+        --size;
+
+        int childCount = 0;
+
+        for (int child = children[minimumNode]; child != NIL; ) {
+            int nextChild = siblings[child];
+            siblings[child] = NIL;
+            predecessors[child] = NIL;
+            buffer[childCount++] = child;
+            child = nextChild;
+        }
+
+        if (childCount == 0) {
+            root = NIL;
+            return minimumNode;
+        }
+
+        // First pass: link the children pairwise from left to right.
+        int pairCount = 0;
+
+        for (int i = 0; i + 1 < childCount; i += 2) {
+            buffer[pairCount++] = link(buffer[i], buffer[i + 1]);
+        }
+
+        if (childCount % 2 == 1) {
+            buffer[pairCount++] = buffer[childCount - 1];
+        }
+
+        // Second pass: fold the pairs from right to left.
+        int newRoot = buffer[pairCount - 1];
+
+        for (int i = pairCount - 2; i >= 0; --i) {
+            newRoot = link(buffer[i], newRoot);
+        }
+
+        root = newRoot;
+        return minimumNode;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void clear() {
+        if (root != NIL) {
+            int stackSize = 0;
+            buffer[stackSize++] = root;
+
+            while (stackSize > 0) {
+                int node = buffer[--stackSize];
+                present[node] = false;
+
+                for (int child = children[node];
+                        child != NIL;
+                        child = siblings[child]) {
+                    buffer[stackSize++] = child;
+                }
+            }
+        }
+
+        root = NIL;
+        size = 0;
+    }
+
+    /**
+     * Links two detached trees and returns the root of the resulting tree.
+     */
+    private int link(int root1, int root2) {
+        if (priorities[root2] < priorities[root1]) {
+            int tmp = root1;
+            root1 = root2;
+            root2 = tmp;
+        }
+
+        int firstChild = children[root1];
+        siblings[root2] = firstChild;
+        predecessors[root2] = root1;
+
+        if (firstChild != NIL) {
+            predecessors[firstChild] = root2;
+        }
+
+        children[root1] = root2;
+        return root1;
+    }
+
+    private void ensureCapacity(int requestedCapacity) {
+        int newCapacity = Math.max(requestedCapacity, 2 * present.length);
+        priorities   = Arrays.copyOf(priorities, newCapacity);
+        children     = Arrays.copyOf(children, newCapacity);
+        siblings     = Arrays.copyOf(siblings, newCapacity);
+        predecessors = Arrays.copyOf(predecessors, newCapacity);
+        present      = Arrays.copyOf(present, newCapacity);
+        buffer       = Arrays.copyOf(buffer, Math.max(buffer.length,
+                                                      newCapacity));
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new NoSuchElementException("The heap is empty.");
+        }
+    }
+}
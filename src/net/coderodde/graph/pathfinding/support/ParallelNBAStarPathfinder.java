@@ -0,0 +1,420 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import net.coderodde.graph.CompactDirectedGraph;
+import net.coderodde.graph.pathfinding.AbstractPathfinder;
+import net.coderodde.graph.pathfinding.DirectedGraphPath;
+import net.coderodde.graph.pathfinding.HeuristicFunction;
+import net.coderodde.graph.pathfinding.TargetUnreachableException;
+
+/**
+ * This class implements the parallel variant of {@link NBAStarPathfinder}
+ * due to Luis Henrique Oliveira Rios and Luiz Chaimowicz in "PNBA*: A
+ * Parallel Bidirectional Heuristic Search Algorithm." The forward search runs
+ * in the calling thread and the backward search runs in the executor of this
+ * pathfinder. The two searches share the length of the best path found so far
+ * and the set of closed nodes, and each of them reads the tentative distances
+ * of the other one.
+ * <p>
+ * The tentative distances and the closed set are stored in atomic arrays, so
+ * that each search sees the updates of the other one. The best path is
+ * updated under a lock, since improving it is rare compared to reading it. If
+ * the executor does not start the backward search before the forward search
+ * finishes, the forward search alone still produces a shortest path.
+ * <p>
+ * The heuristic function is called from both threads concurrently, so it must
+ * be thread-safe.
+ * <p>
+ * <b>This class is not thread-safe.</b> If you need it in different threads,
+ * make sure each thread has its own object of this class.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class ParallelNBAStarPathfinder extends AbstractPathfinder {
+
+    private static final long INFINITY_BITS =
+            Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+
+    private static final int IDLE      = 0;
+    private static final int SUBMITTED = 1;
+    private static final int RUNNING   = 2;
+    private static final int DONE      = 3;
+    private static final int CANCELLED = 4;
+
+    private final HeuristicFunction heuristicFunction;
+    private final Executor executor;
+    private final Direction FORWARD;
+    private final Direction BACKWARD;
+
+    /**
+     * The closed set shared by both directions.
+     */
+    private final AtomicLongArray CLOSED;
+
+    private final Object bestPathLock = new Object();
+    private volatile double bestPathLength;
+    private volatile int touchNode;
+
+    /**
+     * Set as soon as either direction runs out of open nodes.
+     */
+    private volatile boolean finished;
+
+    private final AtomicInteger backwardStatus = new AtomicInteger(IDLE);
+    private final Object backwardStatusLock = new Object();
+    private final Runnable backwardTask = this::runBackwardSearch;
+    private volatile Throwable backwardFailure;
+
+    private int sourceNode;
+    private int targetNode;
+
+    public ParallelNBAStarPathfinder(CompactDirectedGraph graph,
+                                     HeuristicFunction heuristicFunction) {
+        this(graph, heuristicFunction, ForkJoinPool.commonPool());
+    }
+
+    public ParallelNBAStarPathfinder(CompactDirectedGraph graph,
+                                     HeuristicFunction heuristicFunction,
+                                     Executor executor) {
+        super(graph);
+        this.heuristicFunction =
+                Objects.requireNonNull(heuristicFunction,
+                                       "The input heuristic function is null.");
+        this.executor = Objects.requireNonNull(executor,
+                                               "The input executor is null.");
+        int nodeCount = graph.getNodeCount();
+        this.CLOSED = new AtomicLongArray((nodeCount + 63) >>> 6);
+        this.FORWARD = new Direction(true, nodeCount);
+        this.BACKWARD = new Direction(false, nodeCount);
+        FORWARD.opposite = BACKWARD;
+        BACKWARD.opposite = FORWARD;
+    }
+
+    @Override
+    public DirectedGraphPath search(int sourceNode, int targetNode) {
+        checkNodeId(sourceNode);
+        checkNodeId(targetNode);
+
+        if (sourceNode == targetNode) {
+            return new DirectedGraphPath(new int[]{ sourceNode }, 0.0);
+        }
+
+        beginSearch();
+
+        try {
+            init(sourceNode, targetNode);
+            backwardStatus.set(SUBMITTED);
+            executor.execute(backwardTask);
+            FORWARD.run();
+            finished = true;
+            awaitBackwardSearch();
+
+            if (backwardFailure != null) {
+                throw new IllegalStateException("The backward search failed.",
+                                                backwardFailure);
+            }
+
+            if (touchNode == SearchState.NO_NODE) {
+                throw new TargetUnreachableException(graph,
+                                                     sourceNode,
+                                                     targetNode);
+            }
+
+            return tracebackPath(touchNode,
+                                 FORWARD.parents,
+                                 BACKWARD.parents,
+                                 bestPathLength);
+        } finally {
+            FORWARD.publishCounters();
+            BACKWARD.publishCounters();
+            // The two open sets need not peak at the same time, so this is
+            // an upper bound.
+            countOpenSize(FORWARD.peakOpenSize + BACKWARD.peakOpenSize);
+            FORWARD.reset();
+            BACKWARD.reset();
+            endSearch();
+        }
+    }
+
+    private void runBackwardSearch() {
+        if (!backwardStatus.compareAndSet(SUBMITTED, RUNNING)) {
+            return;
+        }
+
+        try {
+            BACKWARD.run();
+        } catch (Throwable t) {
+            backwardFailure = t;
+        } finally {
+            finished = true;
+
+            synchronized (backwardStatusLock) {
+                backwardStatus.set(DONE);
+                backwardStatusLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits until the backward search has finished, or cancels it if it has
+     * not started yet. The state arrays may be reset only afterwards, so an
+     * interrupt does not stop the waiting; it is only restored afterwards.
+     */
+    private void awaitBackwardSearch() {
+        if (backwardStatus.compareAndSet(SUBMITTED, CANCELLED)) {
+            return;
+        }
+
+        boolean interrupted = false;
+
+        synchronized (backwardStatusLock) {
+            while (backwardStatus.get() != DONE) {
+                try {
+                    backwardStatusLock.wait();
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void init(int sourceNode, int targetNode) {
+        this.sourceNode = sourceNode;
+        this.targetNode = targetNode;
+        double totalDistance =
+                heuristicFunction.estimateDistanceBetween(sourceNode,
+                                                          targetNode);
+        bestPathLength = Double.MAX_VALUE;
+        touchNode = SearchState.NO_NODE;
+        backwardFailure = null;
+        finished = false;
+        FORWARD.init(sourceNode, totalDistance);
+        BACKWARD.init(targetNode, totalDistance);
+    }
+
+    private boolean isClosed(int node) {
+        return (CLOSED.get(node >>> 6) & (1L << node)) != 0L;
+    }
+
+    private void close(int node) {
+        long mask = 1L << node;
+        CLOSED.accumulateAndGet(node >>> 6, mask, (word, bit) -> word | bit);
+    }
+
+    private void updateBestPath(int node, double pathLength) {
+        if (pathLength < bestPathLength) {
+            synchronized (bestPathLock) {
+                if (pathLength < bestPathLength) {
+                    bestPathLength = pathLength;
+                    touchNode = node;
+                }
+            }
+        }
+    }
+
+    /**
+     * This class holds the state of one search direction. Only the thread
+     * running the direction writes to it; the tentative distances are also
+     * read by the thread of the opposite direction.
+     */
+    private final class Direction {
+
+        private final boolean forward;
+        private final DaryHeap OPEN = new DaryHeap();
+        private final AtomicLongArray DISTANCES;
+        private final int[] parents;
+        private int[] touchedNodes = new int[64];
+        private int touchedNodeCount;
+        private Direction opposite;
+
+        /**
+         * The smallest priority in {@link #OPEN}, as last published.
+         */
+        private volatile double f;
+
+        private int expandedNodeCount;
+        private int relaxedArcCount;
+        private int heapPushCount;
+        private int heapPopCount;
+        private int stalePopCount;
+        private int prunedNodeCount;
+        private int peakOpenSize;
+
+        Direction(boolean forward, int nodeCount) {
+            this.forward = forward;
+            this.DISTANCES = new AtomicLongArray(nodeCount);
+            this.parents = new int[nodeCount];
+
+            for (int i = 0; i < nodeCount; ++i) {
+                DISTANCES.lazySet(i, INFINITY_BITS);
+            }
+        }
+
+        void init(int startNode, double totalDistance) {
+            OPEN.clear();
+            f = totalDistance;
+            expandedNodeCount = 0;
+            relaxedArcCount = 0;
+            heapPushCount = 0;
+            heapPopCount = 0;
+            stalePopCount = 0;
+            prunedNodeCount = 0;
+            peakOpenSize = 1;
+            OPEN.add(startNode, totalDistance);
+            ++heapPushCount;
+            setDistance(startNode, 0.0, SearchState.NO_NODE);
+        }
+
+        void run() {
+            while (!finished) {
+                if (OPEN.isEmpty()) {
+                    finished = true;
+                    return;
+                }
+
+                int currentNode = OPEN.extractMinimum();
+                ++heapPopCount;
+
+                if (isClosed(currentNode)) {
+                    // Closed by the opposite search direction.
+                    ++stalePopCount;
+                    continue;
+                }
+
+                close(currentNode);
+                double distance = getDistance(currentNode);
+
+                if (distance + estimate(currentNode) >= bestPathLength ||
+                        distance + opposite.f -
+                        opposite.estimate(currentNode) >= bestPathLength) {
+                    // Reject the 'currentNode'.
+                    ++prunedNodeCount;
+                } else {
+                    ++expandedNodeCount;
+                    expand(currentNode, distance);
+                }
+
+                if (!OPEN.isEmpty()) {
+                    f = OPEN.getMinimumPriority();
+                }
+            }
+        }
+
+        void publishCounters() {
+            ParallelNBAStarPathfinder.this.expandedNodeCount +=
+                    expandedNodeCount;
+            ParallelNBAStarPathfinder.this.relaxedArcCount += relaxedArcCount;
+            ParallelNBAStarPathfinder.this.heapPopCount += heapPopCount;
+            ParallelNBAStarPathfinder.this.stalePopCount += stalePopCount;
+            ParallelNBAStarPathfinder.this.heapPushCount += heapPushCount;
+            ParallelNBAStarPathfinder.this.prunedNodeCount += prunedNodeCount;
+        }
+
+        /**
+         * Restores the distances and the closed bits of all the nodes
+         * touched by this direction.
+         */
+        void reset() {
+            for (int i = 0; i < touchedNodeCount; ++i) {
+                int node = touchedNodes[i];
+                DISTANCES.lazySet(node, INFINITY_BITS);
+                CLOSED.lazySet(node >>> 6, 0L);
+            }
+
+            touchedNodeCount = 0;
+        }
+
+        /**
+         * Returns the heuristic estimate of the distance between the node
+         * {@code node} and the goal of this direction.
+         */
+        double estimate(int node) {
+            return forward ?
+                   heuristicFunction.estimateDistanceBetween(node, targetNode) :
+                   heuristicFunction.estimateDistanceBetween(sourceNode, node);
+        }
+
+        double getDistance(int node) {
+            return Double.longBitsToDouble(DISTANCES.get(node));
+        }
+
+        private void expand(int currentNode, double distance) {
+            if (forward) {
+                for (int arc = compactGraph.getOutgoingArcsBegin(currentNode),
+                        end = compactGraph.getOutgoingArcsEnd(currentNode);
+                        arc < end;
+                        ++arc) {
+                    relax(currentNode,
+                          compactGraph.getOutgoingArcHead(arc),
+                          distance + compactGraph.getOutgoingArcWeight(arc));
+                }
+            } else {
+                for (int arc = compactGraph.getIncomingArcsBegin(currentNode),
+                        end = compactGraph.getIncomingArcsEnd(currentNode);
+                        arc < end;
+                        ++arc) {
+                    relax(currentNode,
+                          compactGraph.getIncomingArcTail(arc),
+                          distance + compactGraph.getIncomingArcWeight(arc));
+                }
+            }
+        }
+
+        private void relax(int currentNode,
+                           int nextNode,
+                           double tentativeDistance) {
+            ++relaxedArcCount;
+
+            if (getDistance(nextNode) > tentativeDistance) {
+                // Publish the distance before reading the opposite one, so
+                // that at least one of the two directions sees the path.
+                setDistance(nextNode, tentativeDistance, currentNode);
+
+                // Unlike in NBA*, a closed node still has its path evaluated:
+                // the opposite direction may have closed it while this
+                // direction was closing 'currentNode', in which case neither
+                // direction would relax the arc between them otherwise.
+                if (!isClosed(nextNode)) {
+                    double priority = tentativeDistance + estimate(nextNode);
+
+                    if (OPEN.contains(nextNode)) {
+                        OPEN.decreasePriority(nextNode, priority);
+                    } else {
+                        OPEN.add(nextNode, priority);
+                        ++heapPushCount;
+                        peakOpenSize = Math.max(peakOpenSize, OPEN.size());
+                    }
+                }
+
+                updateBestPath(nextNode,
+                               tentativeDistance +
+                               opposite.getDistance(nextNode));
+            }
+        }
+
+        private void setDistance(int node, double distance, int parent) {
+            long oldBits = DISTANCES.get(node);
+            parents[node] = parent;
+            DISTANCES.set(node, Double.doubleToRawLongBits(distance));
+
+            if (oldBits == INFINITY_BITS) {
+                if (touchedNodeCount == touchedNodes.length) {
+                    touchedNodes = Arrays.copyOf(touchedNodes,
+                                                 2 * touchedNodeCount);
+                }
+
+                touchedNodes[touchedNodeCount++] = node;
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * This class runs the parallel phases of the preprocessing and batch
+ * computations in a fork/join pool. A phase over a range of indices is split
+ * into a few contiguous subranges per thread of the pool, so that the threads
+ * finishing early may take over the remaining subranges, while each subrange
+ * is large enough to amortize the data structures allocated for it.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+final class ParallelTasks {
+
+    /**
+     * The number of tasks per thread of the pool a phase is split into.
+     */
+    static final int TASKS_PER_THREAD = 4;
+
+    private ParallelTasks() {}
+
+    /**
+     * Returns the number of tasks a phase over {@code size} indices is split
+     * into in the pool {@code pool}.
+     *
+     * @param pool the pool.
+     * @param size the number of indices.
+     * @return the number of tasks.
+     */
+    static int getTaskCount(ForkJoinPool pool, int size) {
+        return Math.min(size, TASKS_PER_THREAD * pool.getParallelism());
+    }
+
+    /**
+     * Runs {@code rangeTask} over the subranges of {@code [0, size)} in the
+     * pool {@code pool}, and waits for all of them to complete.
+     *
+     * @param pool      the pool.
+     * @param size      the number of indices.
+     * @param rangeTask the task processing a subrange.
+     */
+    static void runInParallel(ForkJoinPool pool,
+                              int size,
+                              RangeTask rangeTask) {
+        int taskCount = getTaskCount(pool, size);
+        List<Callable<Void>> tasks = new ArrayList<>(taskCount);
+
+        for (int i = 0; i < taskCount; ++i) {
+            int fromIndex = (int)((long) size * i / taskCount);
+            int toIndex = (int)((long) size * (i + 1) / taskCount);
+
+            tasks.add(() -> {
+                rangeTask.run(fromIndex, toIndex);
+                return null;
+            });
+        }
+
+        invokeAll(pool, tasks);
+    }
+
+    /**
+     * Runs the tasks {@code tasks} in the pool {@code pool}, and returns their
+     * results in the order of the tasks. If a task fails, its exception is
+     * rethrown in the calling thread.
+     *
+     * @param <T>   the result type.
+     * @param pool  the pool.
+     * @param tasks the tasks.
+     * @return the results of the tasks.
+     */
+    static <T> List<T> invokeAll(ForkJoinPool pool,
+                                 List<? extends Callable<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+
+        for (Future<T> future : pool.invokeAll(tasks)) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted.", ex);
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+
+                throw new IllegalStateException(cause);
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * This interface processes a range of indices in a parallel phase.
+     */
+    @FunctionalInterface
+    interface RangeTask {
+
+        void run(int fromIndex, int toIndex);
+    }
+}
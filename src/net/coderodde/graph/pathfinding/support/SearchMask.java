@@ -0,0 +1,90 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+
+/**
+ * This class hides some nodes and arcs of a graph from a search without
+ * copying the graph. An arc is hidden if it is banned itself or if its head
+ * node is banned. Clearing the mask takes constant time.
+ * <p>
+ * The nodes are given by the slots the searching {@link AStarPathfinder}
+ * gives them, which are non-negative and dense however the node identifiers
+ * are, so the mask grows to the number of the nodes seen.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+final class SearchMask {
+
+    /**
+     * The banned nodes are stamped with the current value of {@link #stamp}.
+     */
+    private int[] nodeStamps = new int[0];
+
+    /**
+     * The tail nodes of the banned arcs are stamped with the current value of
+     * {@link #stamp}.
+     */
+    private int[] tailStamps = new int[0];
+    private int stamp = 1;
+
+    private int[] bannedTails = new int[4];
+    private int[] bannedHeads = new int[4];
+    private int bannedArcCount;
+
+    void clear() {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(nodeStamps, 0);
+            Arrays.fill(tailStamps, 0);
+            stamp = 1;
+        }
+
+        bannedArcCount = 0;
+    }
+
+    void banNode(int slot) {
+        nodeStamps = ensureCapacity(nodeStamps, slot + 1);
+        nodeStamps[slot] = stamp;
+    }
+
+    void banArc(int tailSlot, int headSlot) {
+        tailStamps = ensureCapacity(tailStamps, tailSlot + 1);
+        tailStamps[tailSlot] = stamp;
+
+        if (bannedArcCount == bannedTails.length) {
+            bannedTails = Arrays.copyOf(bannedTails, 2 * bannedArcCount);
+            bannedHeads = Arrays.copyOf(bannedHeads, 2 * bannedArcCount);
+        }
+
+        bannedTails[bannedArcCount] = tailSlot;
+        bannedHeads[bannedArcCount] = headSlot;
+        ++bannedArcCount;
+    }
+
+    boolean isArcAllowed(int tailSlot, int headSlot) {
+        if (headSlot < nodeStamps.length && nodeStamps[headSlot] == stamp) {
+            return false;
+        }
+
+        if (tailSlot >= tailStamps.length || tailStamps[tailSlot] != stamp) {
+            return true;
+        }
+
+        for (int i = 0; i < bannedArcCount; ++i) {
+            if (bannedTails[i] == tailSlot && bannedHeads[i] == headSlot) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int[] ensureCapacity(int[] array, int requestedCapacity) {
+        if (array.length >= requestedCapacity) {
+            return array;
+        }
+
+        return Arrays.copyOf(array,
+                             Math.max(requestedCapacity, 2 * array.length));
+    }
+}
@@ -0,0 +1,171 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+
+/**
+ * This class holds the search state of a single search direction: the
+ * tentative distance and the parent of each reached node, and the set of
+ * closed nodes. All the data is stored in arrays indexed by slots: the node
+ * identifiers themselves on a compact graph, and the dense slots given by a
+ * {@link NodeIndex} on a hash-based graph, so that the arrays stay
+ * proportional to the number of the nodes.
+ * <p>
+ * Instead of clearing the arrays between searches, each reached node is
+ * stamped with the identifier of the current search, and the closed set is
+ * cleared by visiting only the nodes touched by the previous search. This way
+ * {@link #reset()} runs in time proportional to the number of nodes touched
+ * and not to the number of nodes in the graph. The arrays grow on demand.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+final class SearchState {
+
+    /**
+     * Marks the absence of a node, such as the parent of the source node.
+     */
+    static final int NO_NODE = -1;
+
+    private static final int MINIMUM_CAPACITY = 64;
+
+    private double[] distances;
+    private int[] parents;
+    private int[] stamps;
+    private long[] closed;
+    private int[] touchedNodes;
+    private int touchedNodeCount;
+    private int stamp = 1;
+
+    SearchState() {
+        this(MINIMUM_CAPACITY);
+    }
+
+    SearchState(int capacity) {
+        capacity = Math.max(capacity, MINIMUM_CAPACITY);
+        this.distances    = new double[capacity];
+        this.parents      = new int[capacity];
+        this.stamps       = new int[capacity];
+        this.closed       = new long[wordsFor(capacity)];
+        this.touchedNodes = new int[MINIMUM_CAPACITY];
+    }
+
+    /**
+     * Makes this state empty. Runs in time proportional to the number of
+     * nodes touched since the previous reset.
+     */
+    void reset() {
+        for (int i = 0; i < touchedNodeCount; ++i) {
+            closed[touchedNodes[i] >>> 6] = 0L;
+        }
+
+        touchedNodeCount = 0;
+
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+    }
+
+    /**
+     * Returns {@code true} if the node {@code nodeId} has received a distance
+     * since the last reset.
+     *
+     * @param nodeId the node to query.
+     * @return {@code true} if the node is reached.
+     */
+    boolean isReached(int nodeId) {
+        return nodeId < stamps.length && stamps[nodeId] == stamp;
+    }
+
+    /**
+     * Returns the tentative distance of the node {@code nodeId}, or positive
+     * infinity if the node is not reached.
+     *
+     * @param nodeId the node to query.
+     * @return the tentative distance.
+     */
+    double getDistance(int nodeId) {
+        return isReached(nodeId) ? distances[nodeId] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the parent of the reached node {@code nodeId}.
+     *
+     * @param nodeId the reached node.
+     * @return the parent node, or {@link #NO_NODE}.
+     */
+    int getParent(int nodeId) {
+        return parents[nodeId];
+    }
+
+    /**
+     * Returns the parent array. Only the entries of reached nodes are
+     * meaningful.
+     *
+     * @return the parent array.
+     */
+    int[] getParents() {
+        return parents;
+    }
+
+    /**
+     * Records the tentative distance and the parent of the node
+     * {@code nodeId}.
+     *
+     * @param nodeId     the node to update.
+     * @param distance   the new tentative distance.
+     * @param parentNode the new parent node.
+     */
+    void put(int nodeId, double distance, int parentNode) {
+        if (nodeId >= stamps.length) {
+            ensureCapacity(nodeId + 1);
+        }
+
+        if (stamps[nodeId] != stamp) {
+            stamps[nodeId] = stamp;
+
+            if (touchedNodeCount == touchedNodes.length) {
+                touchedNodes = Arrays.copyOf(touchedNodes,
+                                             2 * touchedNodeCount);
+            }
+
+            touchedNodes[touchedNodeCount++] = nodeId;
+        }
+
+        distances[nodeId] = distance;
+        parents[nodeId] = parentNode;
+    }
+
+    /**
+     * Returns {@code true} if the node {@code nodeId} is closed.
+     *
+     * @param nodeId the node to query.
+     * @return {@code true} if the node is closed.
+     */
+    boolean isClosed(int nodeId) {
+        int wordIndex = nodeId >>> 6;
+        return wordIndex < closed.length
+                && (closed[wordIndex] & (1L << nodeId)) != 0L;
+    }
+
+    /**
+     * Closes the reached node {@code nodeId}.
+     *
+     * @param nodeId the node to close.
+     */
+    void close(int nodeId) {
+        closed[nodeId >>> 6] |= 1L << nodeId;
+    }
+
+    private void ensureCapacity(int requestedCapacity) {
+        int newCapacity = Math.max(requestedCapacity, 2 * stamps.length);
+        distances = Arrays.copyOf(distances, newCapacity);
+        parents   = Arrays.copyOf(parents, newCapacity);
+        stamps    = Arrays.copyOf(stamps, newCapacity);
+        closed    = Arrays.copyOf(closed, wordsFor(newCapacity));
+    }
+
+    private static int wordsFor(int capacity) {
+        return (capacity + 63) >>> 6;
+    }
+}
@@ -0,0 +1,95 @@
+package net.coderodde.graph.pathfinding.support;
+
+import net.coderodde.graph.pathfinding.DirectedGraphPath;
+import net.coderodde.graph.pathfinding.TargetUnreachableException;
+
+/**
+ * This class holds the shortest paths from a single source node to all the
+ * nodes of a graph as two primitive arrays indexed by node: the shortest path
+ * distances and the parents of the nodes in the shortest path tree.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.7 (Oct 17, 2026)
+ */
+public final class ShortestPathTree {
+
+    private final int sourceNode;
+    private final double[] distances;
+    private final int[] parents;
+
+    ShortestPathTree(int sourceNode, double[] distances, int[] parents) {
+        this.sourceNode = sourceNode;
+        this.distances = distances;
+        this.parents = parents;
+    }
+
+    public int getSourceNode() {
+        return sourceNode;
+    }
+
+    /**
+     * Returns the shortest path distances, positive infinity marking the
+     * unreachable nodes. The array is not copied.
+     *
+     * @return the distance array.
+     */
+    public double[] getDistances() {
+        return distances;
+    }
+
+    /**
+     * Returns the parents of the nodes in the shortest path tree. The source
+     * node and the unreachable nodes have a negative parent. The array is not
+     * copied.
+     *
+     * @return the parent array.
+     */
+    public int[] getParents() {
+        return parents;
+    }
+
+    public double getDistance(int nodeId) {
+        checkNodeId(nodeId);
+        return distances[nodeId];
+    }
+
+    public boolean isReachable(int nodeId) {
+        checkNodeId(nodeId);
+        return distances[nodeId] != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Extracts the shortest path from the source node to the node
+     * {@code targetNode}.
+     *
+     * @param targetNode the target node.
+     * @return the shortest path.
+     * @throws TargetUnreachableException if the target node is unreachable.
+     */
+    public DirectedGraphPath getPath(int targetNode) {
+        if (!isReachable(targetNode)) {
+            throw new TargetUnreachableException(sourceNode, targetNode);
+        }
+
+        int length = 0;
+
+        for (int node = targetNode; node >= 0; node = parents[node]) {
+            ++length;
+        }
+
+        int[] path = new int[length];
+
+        for (int node = targetNode; node >= 0; node = parents[node]) {
+            path[--length] = node;
+        }
+
+        return new DirectedGraphPath(path, distances[targetNode]);
+    }
+
+    private void checkNodeId(int nodeId) {
+        if (nodeId < 0 || nodeId >= distances.length) {
+            throw new IllegalArgumentException(
+                    "The node ID is out of range: " + nodeId + ".");
+        }
+    }
+}